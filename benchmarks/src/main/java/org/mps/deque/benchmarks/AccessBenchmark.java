@@ -0,0 +1,86 @@
+package org.mps.deque.benchmarks;
+
+import org.mps.deque.DoubleEndedQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the complex operations on a deque holding {@code 0, 1, ..., size - 1}:
+ * {@code get} at random, sequential and tail indices, {@code contains} of a present and a missing
+ * value, and {@code remove} of a present value, which is appended again so the size of the deque
+ * stays the same.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AccessBenchmark {
+    private static final int RANDOM_INDICES = 1024;
+
+    @Param
+    Implementation implementation;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    int size;
+
+    DoubleEndedQueue<Integer> deque;
+    int[] randomIndices;
+    int next;
+    Integer middleValue;
+    Integer missingValue = -1;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        deque = implementation.createFilled(size);
+        Random random = new Random(size);
+        randomIndices = new int[RANDOM_INDICES];
+        for (int i = 0; i < RANDOM_INDICES; i++) {
+            randomIndices[i] = random.nextInt(size);
+        }
+        middleValue = size / 2;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Implementation.release(deque);
+    }
+
+    @Benchmark
+    public Integer getRandom() {
+        next = (next + 1) & (RANDOM_INDICES - 1);
+        return deque.get(randomIndices[next]);
+    }
+
+    @Benchmark
+    public Integer getSequential() {
+        next = next + 1 < size ? next + 1 : 0;
+        return deque.get(next);
+    }
+
+    @Benchmark
+    public Integer getTail() {
+        return deque.get(size - 1);
+    }
+
+    @Benchmark
+    public boolean containsHit() {
+        return deque.contains(middleValue);
+    }
+
+    @Benchmark
+    public boolean containsMiss() {
+        return deque.contains(missingValue);
+    }
+
+    @Benchmark
+    public void removeAndAppend() {
+        next = next + 1 < size ? next + 1 : 0;
+        Integer value = next;
+        deque.remove(value);
+        deque.append(value);
+    }
+}
@@ -0,0 +1,46 @@
+package org.mps.deque.benchmarks;
+
+import org.mps.deque.DoubleEndedQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the thread-safe deques when every available processor appends to
+ * the same deque and deletes from its front, as the event ingestion does. Run it with
+ * {@code -t 64} to reproduce 64 producers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class ContentionBenchmark {
+    @Param({"CONCURRENT", "BOUNDED_BLOCKING", "SHARDED", "ASYNC"})
+    Implementation implementation;
+
+    DoubleEndedQueue<Integer> deque;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        deque = implementation.createFilled(1024);
+    }
+
+    @Benchmark
+    public void append() {
+        deque.append(1);
+    }
+
+    @Benchmark
+    public Integer appendAndPollFirst() {
+        deque.append(1);
+        return deque.pollFirst();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        deque = implementation.createFilled(1024);
+    }
+}
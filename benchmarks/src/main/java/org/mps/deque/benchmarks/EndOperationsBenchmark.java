@@ -0,0 +1,73 @@
+package org.mps.deque.benchmarks;
+
+import org.mps.deque.DoubleEndedQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the operations at both ends of a deque holding {@code size} elements. Every
+ * invocation inserts at one end and deletes at one end so the size of the deque stays the same
+ * for the whole run; the four combinations cover {@code prepend}, {@code append},
+ * {@code deleteFirst} and {@code deleteLast}, both as a stack and as a queue.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EndOperationsBenchmark {
+    @Param
+    Implementation implementation;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    int size;
+
+    DoubleEndedQueue<Integer> deque;
+    Integer value = 42;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        deque = implementation.createFilled(size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Implementation.release(deque);
+    }
+
+    @Benchmark
+    public void prependDeleteFirst() {
+        deque.prepend(value);
+        deque.deleteFirst();
+    }
+
+    @Benchmark
+    public void appendDeleteLast() {
+        deque.append(value);
+        deque.deleteLast();
+    }
+
+    @Benchmark
+    public void appendDeleteFirst() {
+        deque.append(value);
+        deque.deleteFirst();
+    }
+
+    @Benchmark
+    public void prependDeleteLast() {
+        deque.prepend(value);
+        deque.deleteLast();
+    }
+
+    @Benchmark
+    public Integer first() {
+        return deque.first();
+    }
+
+    @Benchmark
+    public Integer last() {
+        return deque.last();
+    }
+}
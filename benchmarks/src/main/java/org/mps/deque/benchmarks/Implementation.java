@@ -0,0 +1,94 @@
+package org.mps.deque.benchmarks;
+
+import org.mps.deque.ArrayRingDeque;
+import org.mps.deque.AsyncDoubleEndedQueue;
+import org.mps.deque.BoundedBlockingDoubleEndedQueue;
+import org.mps.deque.ConcurrentDoublyLinkedDeque;
+import org.mps.deque.DoubleEndedQueue;
+import org.mps.deque.DoublyLinkedListDeque;
+import org.mps.deque.ElementCodec;
+import org.mps.deque.IndexedDoublyLinkedListDeque;
+import org.mps.deque.OffHeapDoubleEndedQueue;
+import org.mps.deque.ShardedDoubleEndedQueue;
+import org.mps.deque.UnrolledDoubleEndedQueue;
+import org.mps.deque.WeightBalancedTreeDeque;
+
+/**
+ * The implementations of {@link DoubleEndedQueue} compared by the benchmarks. A new
+ * implementation is plugged into every benchmark by adding a constant here.
+ */
+public enum Implementation {
+    LINKED_LIST {
+        @Override
+        public DoubleEndedQueue<Integer> create() { return new DoublyLinkedListDeque<>(); }
+    },
+    POOLED_LINKED_LIST {
+        @Override
+        public DoubleEndedQueue<Integer> create() { return new DoublyLinkedListDeque<>(1024); }
+    },
+    INDEXED_LINKED_LIST {
+        @Override
+        public DoubleEndedQueue<Integer> create() { return new IndexedDoublyLinkedListDeque<>(); }
+    },
+    UNROLLED {
+        @Override
+        public DoubleEndedQueue<Integer> create() { return new UnrolledDoubleEndedQueue<>(); }
+    },
+    ARRAY_RING {
+        @Override
+        public DoubleEndedQueue<Integer> create() { return new ArrayRingDeque<>(); }
+    },
+    WEIGHT_BALANCED_TREE {
+        @Override
+        public DoubleEndedQueue<Integer> create() { return new WeightBalancedTreeDeque<>(); }
+    },
+    OFF_HEAP {
+        @Override
+        public DoubleEndedQueue<Integer> create() { return new OffHeapDoubleEndedQueue<>(ElementCodec.ofInteger()); }
+    },
+    CONCURRENT {
+        @Override
+        public DoubleEndedQueue<Integer> create() { return new ConcurrentDoublyLinkedDeque<>(); }
+    },
+    BOUNDED_BLOCKING {
+        @Override
+        public DoubleEndedQueue<Integer> create() { return new BoundedBlockingDoubleEndedQueue<>(); }
+    },
+    SHARDED {
+        @Override
+        public DoubleEndedQueue<Integer> create() { return new ShardedDoubleEndedQueue<>(); }
+    },
+    ASYNC {
+        @Override
+        public DoubleEndedQueue<Integer> create() { return new AsyncDoubleEndedQueue<>(); }
+    };
+
+    /**
+     * Returns a new empty deque of this implementation.
+     */
+    public abstract DoubleEndedQueue<Integer> create();
+
+    /**
+     * Returns a new deque of this implementation holding {@code 0, 1, ..., size - 1}.
+     */
+    public DoubleEndedQueue<Integer> createFilled(int size) {
+        DoubleEndedQueue<Integer> deque = create();
+        for (int i = 0; i < size; i++) {
+            deque.append(i);
+        }
+        return deque;
+    }
+
+    /**
+     * Frees the resources of a deque created by this implementation, if it holds any.
+     */
+    public static void release(DoubleEndedQueue<Integer> deque) {
+        if (deque instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) deque).close();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.mps.deque.benchmarks;
+
+import org.mps.deque.DequeMetrics;
+import org.mps.deque.DoubleEndedQueue;
+import org.mps.deque.DoublyLinkedListDeque;
+import org.mps.deque.InstrumentedDoubleEndedQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the operation counters on a linked list: disabled, enabled in the list
+ * itself and recorded by the decorator. The disabled counters only add a null check to every
+ * operation; their cost is measured by running this benchmark with {@code -p counters=DISABLED}
+ * against the classes of the list from before the counters were added, put ahead of the
+ * benchmark jar on the class path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentationBenchmark {
+    public enum Counters { DISABLED, BUILT_IN, DECORATOR }
+
+    @Param
+    Counters counters;
+
+    @Param({"1000"})
+    int size;
+
+    DoubleEndedQueue<Integer> deque;
+    int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DoublyLinkedListDeque<Integer> list = (DoublyLinkedListDeque<Integer>) Implementation.LINKED_LIST.createFilled(size);
+        if (counters == Counters.BUILT_IN)
+            list.setMetrics(new DequeMetrics());
+        deque = counters == Counters.DECORATOR ? new InstrumentedDoubleEndedQueue<>(list) : list;
+    }
+
+    @Benchmark
+    public void appendAndDeleteFirst() {
+        deque.append(index);
+        deque.deleteFirst();
+    }
+
+    @Benchmark
+    public Integer getNext() {
+        index = index + 1 == size ? 0 : index + 1;
+        return deque.get(index);
+    }
+
+    @Benchmark
+    public boolean containsMissing() {
+        return deque.contains(-1);
+    }
+}
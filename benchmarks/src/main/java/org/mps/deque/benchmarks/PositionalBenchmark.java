@@ -0,0 +1,67 @@
+package org.mps.deque.benchmarks;
+
+import org.mps.deque.DoublyLinkedListDeque;
+import org.mps.deque.WeightBalancedTreeDeque;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares random positional access on a million elements between the doubly linked list, which
+ * walks from the nearest of its ends and its cursor, and the weight-balanced tree, which descends
+ * from the root. It also measures an insertion followed by a removal at random positions of the
+ * tree, which keeps its size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PositionalBenchmark {
+    private static final int RANDOM_INDICES = 1024;
+
+    @Param({"1000000"})
+    int size;
+
+    DoublyLinkedListDeque<Integer> linkedList;
+    WeightBalancedTreeDeque<Integer> tree;
+    int[] randomIndices;
+    int next;
+    Integer value = 42;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        linkedList = new DoublyLinkedListDeque<>();
+        tree = new WeightBalancedTreeDeque<>();
+        for (int i = 0; i < size; i++) {
+            linkedList.append(i);
+            tree.append(i);
+        }
+        Random random = new Random(size);
+        randomIndices = new int[RANDOM_INDICES];
+        for (int i = 0; i < RANDOM_INDICES; i++) {
+            randomIndices[i] = random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public Integer linkedListGetRandom() {
+        next = (next + 1) & (RANDOM_INDICES - 1);
+        return linkedList.get(randomIndices[next]);
+    }
+
+    @Benchmark
+    public Integer treeGetRandom() {
+        next = (next + 1) & (RANDOM_INDICES - 1);
+        return tree.get(randomIndices[next]);
+    }
+
+    @Benchmark
+    public Integer treeInsertAndRemoveAtRandom() {
+        next = (next + 1) & (RANDOM_INDICES - 1);
+        tree.insertAt(randomIndices[next], value);
+        return tree.removeAt(randomIndices[(next + 1) & (RANDOM_INDICES - 1)]);
+    }
+}
@@ -0,0 +1,65 @@
+package org.mps.deque.benchmarks;
+
+import org.mps.deque.DoublyLinkedListDeque;
+import org.mps.deque.SlidingWindowDeque;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a sliding window over a stream of timestamps, one per invocation, that keeps the
+ * last {@code window} time units: the window deque evicting by age on every append, against a
+ * linked list trimmed after every append with a loop on {@code first()} and
+ * {@code deleteFirst()}. A batch of {@value #BATCH} timestamps appended at once shows the cost of
+ * evicting once per bulk insertion.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SlidingWindowBenchmark {
+    static final int BATCH = 64;
+
+    @Param({"1000"})
+    long window;
+
+    SlidingWindowDeque<Long> slidingWindow;
+    DoublyLinkedListDeque<Long> list;
+    Long[] timestamps;
+    long now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        slidingWindow = new SlidingWindowDeque<>();
+        slidingWindow.setMaxAge(window, Long::longValue);
+        list = new DoublyLinkedListDeque<>();
+        timestamps = new Long[BATCH];
+    }
+
+    @Benchmark
+    public int appendAndEvict() {
+        slidingWindow.append(now++);
+        return slidingWindow.size();
+    }
+
+    @Benchmark
+    public int appendAndTrimByHand() {
+        list.append(now);
+        while (now - list.first() > window)
+            list.deleteFirst();
+        now++;
+        return list.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int appendBatchAndEvict() {
+        for (int i = 0; i < BATCH; i++)
+            timestamps[i] = now++;
+        slidingWindow.appendAll(Arrays.asList(timestamps));
+        return slidingWindow.size();
+    }
+}
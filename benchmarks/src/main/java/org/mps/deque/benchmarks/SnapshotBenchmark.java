@@ -0,0 +1,95 @@
+package org.mps.deque.benchmarks;
+
+import org.mps.deque.DoublyLinkedListDeque;
+import org.mps.deque.ElementCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares checkpointing a linked list of a million integers through Java serialization of an
+ * {@link ArrayList} copy with its binary snapshot, plain and compressed, both ways. The size of
+ * every format is printed at the start of each trial; the allocations are reported by the GC
+ * profiler of {@link BenchmarkRunner}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+    private static final ElementCodec<Integer> CODEC = ElementCodec.ofInteger();
+
+    @Param({"1000000"})
+    int size;
+
+    DoublyLinkedListDeque<Integer> deque;
+    byte[] serialized;
+    byte[] snapshot;
+    byte[] compressedSnapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        deque = (DoublyLinkedListDeque<Integer>) Implementation.LINKED_LIST.createFilled(size);
+        serialized = serialize().toByteArray();
+        snapshot = writeSnapshot(false).toByteArray();
+        compressedSnapshot = writeSnapshot(true).toByteArray();
+        System.out.printf("%nserialized %d bytes, snapshot %d bytes, compressed snapshot %d bytes%n",
+                serialized.length, snapshot.length, compressedSnapshot.length);
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream serialize() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ObjectOutputStream objects = new ObjectOutputStream(output)) {
+            ArrayList<Integer> list = new ArrayList<>(deque.size());
+            deque.forEach(list::add);
+            objects.writeObject(list);
+        }
+        return output;
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            @SuppressWarnings("unchecked")
+            ArrayList<Integer> list = (ArrayList<Integer>) objects.readObject();
+            DoublyLinkedListDeque<Integer> restored = new DoublyLinkedListDeque<>();
+            restored.appendAll(list);
+            return restored;
+        }
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream writePlainSnapshot() throws IOException {
+        return writeSnapshot(false);
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream writeCompressedSnapshot() throws IOException {
+        return writeSnapshot(true);
+    }
+
+    @Benchmark
+    public DoublyLinkedListDeque<Integer> readPlainSnapshot() throws IOException {
+        return DoublyLinkedListDeque.readFrom(new ByteArrayInputStream(snapshot), CODEC);
+    }
+
+    @Benchmark
+    public DoublyLinkedListDeque<Integer> readCompressedSnapshot() throws IOException {
+        return DoublyLinkedListDeque.readFrom(new ByteArrayInputStream(compressedSnapshot), CODEC);
+    }
+
+    private ByteArrayOutputStream writeSnapshot(boolean compressed) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        deque.writeTo(output, CODEC, compressed);
+        return output;
+    }
+}
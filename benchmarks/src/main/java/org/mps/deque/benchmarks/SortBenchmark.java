@@ -0,0 +1,80 @@
+package org.mps.deque.benchmarks;
+
+import org.mps.deque.DoubleEndedQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code sort} on random, sorted, reversed and nearly sorted inputs, where one element
+ * in a hundred is swapped with a random one. Each invocation sorts a freshly filled deque, so
+ * every measurement is a single shot.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+    private static final Comparator<Integer> ORDER = Integer::compare;
+
+    public enum Input {
+        RANDOM, SORTED, REVERSED, NEARLY_SORTED
+    }
+
+    @Param
+    Implementation implementation;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    int size;
+
+    @Param
+    Input input;
+
+    int[] values;
+    DoubleEndedQueue<Integer> deque;
+
+    @Setup(Level.Trial)
+    public void createValues() {
+        Random random = new Random(size);
+        values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = switch (input) {
+                case RANDOM -> random.nextInt();
+                case REVERSED -> size - i;
+                default -> i;
+            };
+        }
+        if (input == Input.NEARLY_SORTED) {
+            for (int i = 0; i < size / 100; i++) {
+                int index = random.nextInt(size);
+                int other = random.nextInt(size);
+                int aux = values[index];
+                values[index] = values[other];
+                values[other] = aux;
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void fillDeque() {
+        deque = implementation.create();
+        for (int value : values) {
+            deque.append(value);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void releaseDeque() {
+        Implementation.release(deque);
+    }
+
+    @Benchmark
+    public DoubleEndedQueue<Integer> sort() {
+        deque.sort(ORDER);
+        return deque;
+    }
+}
@@ -0,0 +1,62 @@
+package org.mps.deque.benchmarks;
+
+import org.mps.deque.DoubleEndedQueue;
+import org.mps.deque.SpscDoubleEndedQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the transfer of elements from one producer thread appending to one consumer thread
+ * deleting from the front, on the single-producer single-consumer deque and on the thread-safe
+ * deques running the same operations. The deques other than the single-producer one are kept
+ * under {@value #CAPACITY} elements too, so the producer gives up when it finds them full.
+ * Run it pinning the two threads to two cores of the same socket; {@code -prof perfnorm} shows
+ * the instructions and cache misses per transfer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class SpscBenchmark {
+    static final int CAPACITY = 1024;
+
+    @Param({"SPSC", "CONCURRENT", "BOUNDED_BLOCKING"})
+    String implementation;
+
+    DoubleEndedQueue<Integer> deque;
+    SpscDoubleEndedQueue<Integer> spsc;
+    Integer value = 42;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        if (implementation.equals("SPSC")) {
+            spsc = new SpscDoubleEndedQueue<>(CAPACITY);
+            deque = spsc;
+        } else {
+            spsc = null;
+            deque = Implementation.valueOf(implementation).create();
+        }
+    }
+
+    @Benchmark
+    @Group("transfer")
+    @GroupThreads(1)
+    public boolean offer() {
+        if (spsc != null)
+            return spsc.offerLast(value);
+        if (deque.size() >= CAPACITY)
+            return false;
+        deque.append(value);
+        return true;
+    }
+
+    @Benchmark
+    @Group("transfer")
+    @GroupThreads(1)
+    public Integer poll() {
+        return deque.pollFirst();
+    }
+}
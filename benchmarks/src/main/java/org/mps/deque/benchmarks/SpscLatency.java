@@ -0,0 +1,106 @@
+package org.mps.deque.benchmarks;
+
+import org.mps.deque.SpscDoubleEndedQueue;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures the latency of a transfer through the single-producer single-consumer deque: the
+ * producer appends its {@link System#nanoTime()} every {@code interval} nanoseconds and the
+ * consumer, spinning on {@code pollFirst}, records the time each element took to arrive in a
+ * log-linear histogram, printed as percentiles at the end.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar org.mps.deque.benchmarks.SpscLatency [transfers]
+ * [interval] [capacity]}, by default ten million transfers every microsecond through a deque of
+ * 1024 elements; the first tenth of the transfers is a warm-up and is not recorded.
+ */
+public final class SpscLatency {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99, 100};
+
+    private SpscLatency() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int transfers = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        long interval = args.length > 1 ? Long.parseLong(args[1]) : 1_000;
+        int capacity = args.length > 2 ? Integer.parseInt(args[2]) : 1024;
+        SpscDoubleEndedQueue<Long> deque = new SpscDoubleEndedQueue<>(capacity);
+        Histogram histogram = new Histogram();
+        int warmup = transfers / 10;
+
+        Thread consumer = new Thread(() -> {
+            for (int i = 0; i < transfers; ) {
+                Long sent = deque.pollFirst();
+                if (sent == null) {
+                    Thread.onSpinWait();
+                } else {
+                    long latency = System.nanoTime() - sent;
+                    if (i++ >= warmup)
+                        histogram.record(latency);
+                }
+            }
+        }, "spsc-consumer");
+        consumer.start();
+
+        long next = System.nanoTime();
+        for (int i = 0; i < transfers; i++) {
+            while (System.nanoTime() < next)
+                Thread.onSpinWait();
+            while (!deque.offerLast(System.nanoTime()))
+                LockSupport.parkNanos(1);
+            next += interval;
+        }
+        consumer.join();
+
+        System.out.printf("%d transfers, one every %d ns, capacity %d%n", transfers - warmup, interval, capacity);
+        for (double percentile : PERCENTILES)
+            System.out.printf("%8.2f%% %,12d ns%n", percentile, histogram.valueAt(percentile));
+    }
+
+    /**
+     * Histogram of non-negative values with 16 buckets for every power of two, so the value of
+     * a bucket is at most 1/16 away from the values it counts. It is written by a single thread.
+     */
+    static final class Histogram {
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final long[] counts = new long[(64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS];
+        private long total;
+
+        void record(long value) {
+            counts[indexOf(Math.max(0, value))]++;
+            total++;
+        }
+
+        /**
+         * Returns the highest value of the bucket that holds the given percentile of the
+         * recorded values, or zero if nothing was recorded.
+         */
+        long valueAt(double percentile) {
+            long rank = (long) Math.ceil(total * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank && counts[i] > 0)
+                    return highestValueOf(i);
+            }
+            return 0;
+        }
+
+        private static int indexOf(long value) {
+            int magnitude = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1);
+            if (magnitude == 0)
+                return (int) value;
+            return (magnitude + 1) * SUB_BUCKETS + (int) (value >>> magnitude) - SUB_BUCKETS;
+        }
+
+        private static long highestValueOf(int index) {
+            int magnitude = index / SUB_BUCKETS - 1;
+            if (magnitude <= 0)
+                return index;
+            long sub = index % SUB_BUCKETS + SUB_BUCKETS;
+            return ((sub + 1) << magnitude) - 1;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.mps.deque.benchmarks;
+
+import org.mps.deque.DoubleEndedQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares a sequential and a parallel map/filter/reduce pipeline over a deque of a million
+ * elements. The map step hashes every element a few rounds so the pipeline is CPU bound and the
+ * speedup of the parallel stream shows how well the spliterator of each implementation splits.
+ * Run it with {@code -p implementation=LINKED_LIST} to compare only the linked list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreamBenchmark {
+    private static final int HASH_ROUNDS = 16;
+
+    @Param
+    Implementation implementation;
+
+    @Param({"1000000"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean parallel;
+
+    DoubleEndedQueue<Integer> deque;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        deque = implementation.createFilled(size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Implementation.release(deque);
+    }
+
+    @Benchmark
+    public long mapFilterReduce() {
+        Stream<Integer> stream = parallel ? deque.parallelStream() : deque.stream();
+        return stream
+                .mapToLong(StreamBenchmark::hash)
+                .filter(x -> (x & 1) == 0)
+                .reduce(0L, Long::sum);
+    }
+
+    private static long hash(int value) {
+        long x = value;
+        for (int i = 0; i < HASH_ROUNDS; i++) {
+            x ^= x >>> 33;
+            x *= 0xff51afd7ed558ccdL;
+            x ^= x >>> 33;
+        }
+        return x;
+    }
+}
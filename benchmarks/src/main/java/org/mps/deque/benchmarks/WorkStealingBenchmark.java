@@ -0,0 +1,74 @@
+package org.mps.deque.benchmarks;
+
+import org.mps.deque.DoubleEndedQueue;
+import org.mps.deque.WorkStealingDeque;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a scheduler-like load on a single deque: one owner thread pushes tasks at the front
+ * and pops them back as a stack, while three thieves steal from the back. The work-stealing
+ * deque is compared with the linked list behind an outer lock taken for every operation, as a
+ * scheduler shares it today, and with the lock-free concurrent deque running the same
+ * operations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class WorkStealingBenchmark {
+    @Param({"WORK_STEALING", "LOCKED_LINKED_LIST", "CONCURRENT"})
+    String implementation;
+
+    DoubleEndedQueue<Integer> deque;
+    boolean locked;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        locked = implementation.equals("LOCKED_LINKED_LIST");
+        if (implementation.equals("WORK_STEALING"))
+            deque = new WorkStealingDeque<>();
+        else if (locked)
+            deque = Implementation.LINKED_LIST.create();
+        else
+            deque = Implementation.CONCURRENT.create();
+        for (int i = 0; i < 1024; i++) {
+            deque.prepend(i);
+        }
+    }
+
+    @Benchmark
+    @Group("scheduler")
+    @GroupThreads(1)
+    public Integer ownerPushAndPop() {
+        if (locked) {
+            synchronized (deque) {
+                deque.prepend(1);
+            }
+            synchronized (deque) {
+                deque.prepend(2);
+            }
+            synchronized (deque) {
+                return deque.pollFirst();
+            }
+        }
+        deque.prepend(1);
+        deque.prepend(2);
+        return deque.pollFirst();
+    }
+
+    @Benchmark
+    @Group("scheduler")
+    @GroupThreads(3)
+    public Integer thiefSteal() {
+        if (locked) {
+            synchronized (deque) {
+                return deque.pollLast();
+            }
+        }
+        return deque.pollLast();
+    }
+}
@@ -0,0 +1,302 @@
+package org.mps.deque;
+
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Double-ended queue implemented as a circular buffer over an array whose length is always a
+ * power of two, so positions wrap with a mask instead of a modulo. Both ends and
+ * {@link #get(int)} are O(1); the array doubles when it is full and, if shrinking is enabled,
+ * halves when it becomes a quarter full.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class ArrayRingDeque<T> implements DoubleEndedQueue<T> {
+    static final int DEFAULT_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private Object[] items;
+    private int head;
+    private int size;
+    private int modCount;
+    private final int minimumCapacity;
+    private final boolean shrinking;
+    private final InPlaceMergeSort.Sequence sortView = new SortView();
+    private Comparator<? super T> sortComparator;
+
+    public ArrayRingDeque() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    public ArrayRingDeque(int initialCapacity) {
+        this(initialCapacity, false);
+    }
+
+    /**
+     * @param initialCapacity minimum number of items the deque holds before growing; it is
+     *                        rounded up to a power of two
+     * @param shrinking       whether the array is halved when the deque becomes a quarter full,
+     *                        never going below the initial capacity
+     * @throws IllegalArgumentException if the capacity is lower than one or too large
+     */
+    public ArrayRingDeque(int initialCapacity, boolean shrinking) {
+        if (initialCapacity < 1 || initialCapacity > MAXIMUM_CAPACITY)
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        this.minimumCapacity = initialCapacity == 1 ? 1 : Integer.highestOneBit(initialCapacity - 1) << 1;
+        this.items = new Object[minimumCapacity];
+        this.shrinking = shrinking;
+    }
+
+    @Override
+    public void prepend(T value) {
+        if (size == items.length)
+            resize(items.length << 1);
+        head = (head - 1) & (items.length - 1);
+        items[head] = value;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void append(T value) {
+        if (size == items.length)
+            resize(items.length << 1);
+        items[(head + size) & (items.length - 1)] = value;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void deleteFirst() {
+        if (size == 0)
+            throw new DoubleEndedQueueException("Empty deque", false);
+        items[head] = null;
+        head = (head + 1) & (items.length - 1);
+        size--;
+        modCount++;
+        shrinkIfNeeded();
+    }
+
+    @Override
+    public void deleteLast() {
+        if (size == 0)
+            throw new DoubleEndedQueueException("Empty deque", false);
+        items[(head + size - 1) & (items.length - 1)] = null;
+        size--;
+        modCount++;
+        shrinkIfNeeded();
+    }
+
+    @Override
+    public T first() {
+        if (size == 0)
+            throw new DoubleEndedQueueException("No items left", false);
+        return itemAt(0);
+    }
+
+    @Override
+    public T last() {
+        if (size == 0)
+            throw new DoubleEndedQueueException("No items left", false);
+        return itemAt(size - 1);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public T get(int index) {
+        if (size <= index || index < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        return (itemAt(index));
+    }
+
+    @Override
+    public boolean contains(T value) {
+        return (indexOf(value) >= 0);
+    }
+
+    @Override
+    public void remove(T value) {
+        if (size == 0) {
+            throw new DoubleEndedQueueException("Can't remove from an empty deque", false);
+        }
+        int index = indexOf(value);
+        if (index < 0)
+            return;
+        int mask = items.length - 1;
+        if (index < size - index - 1) {
+            for (int i = index; i > 0; i--)
+                items[(head + i) & mask] = items[(head + i - 1) & mask];
+            items[head] = null;
+            head = (head + 1) & mask;
+        } else {
+            for (int i = index; i < size - 1; i++)
+                items[(head + i) & mask] = items[(head + i + 1) & mask];
+            items[(head + size - 1) & mask] = null;
+        }
+        size--;
+        modCount++;
+        shrinkIfNeeded();
+    }
+
+    /**
+     * Rotates the array so the deque starts at slot zero and then sorts it in place with
+     * {@link InPlaceMergeSort}, a stable merge sort that merges by rotations instead of using a
+     * buffer. Null items are placed at the front of the deque.
+     */
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        if (size <= 1)
+            return;
+        modCount++;
+        if (head != 0) {
+            reverse(0, head);
+            reverse(head, items.length);
+            reverse(0, items.length);
+            head = 0;
+        }
+        sortComparator = comparator;
+        try {
+            InPlaceMergeSort.sort(sortView, size);
+        } finally {
+            sortComparator = null;
+        }
+    }
+
+    /**
+     * Tests every element first, so the deque is unchanged if the predicate throws, and then
+     * compacts the kept elements towards the head in a single pass.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        int mask = items.length - 1;
+        int firstRemoved = 0;
+        while (firstRemoved < size && !filter.test(itemAt(firstRemoved)))
+            firstRemoved++;
+        if (firstRemoved == size)
+            return (false);
+        boolean[] removed = new boolean[size - firstRemoved];
+        removed[0] = true;
+        for (int i = firstRemoved + 1; i < size; i++)
+            removed[i - firstRemoved] = filter.test(itemAt(i));
+        int kept = firstRemoved;
+        for (int i = firstRemoved + 1; i < size; i++) {
+            if (!removed[i - firstRemoved])
+                items[(head + kept++) & mask] = items[(head + i) & mask];
+        }
+        for (int i = kept; i < size; i++)
+            items[(head + i) & mask] = null;
+        size = kept;
+        modCount++;
+        shrinkIfNeeded();
+        return (true);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new RingIterator(false);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new RingIterator(true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T itemAt(int index) {
+        return (T) items[(head + index) & (items.length - 1)];
+    }
+
+    private int indexOf(T value) {
+        int mask = items.length - 1;
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(items[(head + i) & mask], value))
+                return (i);
+        }
+        return (-1);
+    }
+
+    private void resize(int capacity) {
+        if (capacity > MAXIMUM_CAPACITY || capacity < 0)
+            throw new IllegalStateException("Deque too big");
+        Object[] newItems = new Object[capacity];
+        int firstPart = Math.min(size, items.length - head);
+        System.arraycopy(items, head, newItems, 0, firstPart);
+        System.arraycopy(items, 0, newItems, firstPart, size - firstPart);
+        items = newItems;
+        head = 0;
+    }
+
+    private void shrinkIfNeeded() {
+        while (shrinking && items.length > minimumCapacity && size <= items.length >> 2)
+            resize(items.length >> 1);
+    }
+
+    private void swap(int index, int other) {
+        Object aux = items[index];
+        items[index] = items[other];
+        items[other] = aux;
+    }
+
+    private void reverse(int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--)
+            swap(i, j);
+    }
+
+    private class SortView implements InPlaceMergeSort.Sequence {
+        @Override
+        public boolean isLess(int index, int other) {
+            T item = itemAt(index);
+            T otherItem = itemAt(other);
+            if (otherItem == null)
+                return (false);
+            else if (item == null)
+                return (true);
+            else
+                return (sortComparator.compare(item, otherItem) < 0);
+        }
+
+        @Override
+        public void swap(int index, int other) {
+            ArrayRingDeque.this.swap(index, other);
+        }
+    }
+
+    private class RingIterator implements Iterator<T> {
+        private int index;
+        private int remaining = size;
+        private final boolean descending;
+        private final int expectedModCount = modCount;
+
+        RingIterator(boolean descending) {
+            this.descending = descending;
+            this.index = descending ? size - 1 : 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (remaining > 0);
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining == 0)
+                throw new NoSuchElementException();
+            T item = itemAt(index);
+            index += descending ? -1 : 1;
+            remaining--;
+            return (item);
+        }
+    }
+}
@@ -0,0 +1,570 @@
+package org.mps.deque;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe facade over a {@link DoubleEndedQueue} whose consumers wait for elements without
+ * blocking a thread: {@link #takeFirstAsync()} returns a {@link CompletableFuture} of the front
+ * element, and the deque is a {@link Flow.Publisher} whose subscribers receive front elements as
+ * they arrive, as many as they request. Futures and subscriptions with pending demand wait in a
+ * single queue and are served in the order they started waiting, a subscription going back to
+ * the end of the queue after every element; so every element is delivered to one consumer only.
+ * <p>
+ * The decorated deque is guarded by a {@link ReentrantLock}, never by a monitor, and the lock is
+ * only held to update the deque and the waiting queue: futures are completed and subscribers are
+ * signalled after releasing it, on the thread that inserted the elements, so a consumer doing
+ * slow work should use the {@code Async} stages of the future or hand the element to its own
+ * executor. The signals to a subscriber never overlap. A future cancelled or completed by its
+ * caller and a cancelled subscription stop waiting; an element handed to them after that is put
+ * back at the front of the deque.
+ * <p>
+ * The iterators and the spliterator work on a copy of the elements taken under the lock, so they
+ * never throw {@link java.util.ConcurrentModificationException}. Null elements are stored and
+ * handed to consumers as they are, although subscribers following the Reactive Streams rules
+ * reject them.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class AsyncDoubleEndedQueue<T> implements DoubleEndedQueue<T>, Flow.Publisher<T> {
+    private final DoubleEndedQueue<T> items;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Waiter<T>> waiters = new ArrayDeque<>();
+
+    public AsyncDoubleEndedQueue() {
+        this(new DoublyLinkedListDeque<>());
+    }
+
+    /**
+     * @param items the deque holding the elements, which must not be used directly afterwards
+     */
+    public AsyncDoubleEndedQueue(DoubleEndedQueue<T> items) {
+        this.items = Objects.requireNonNull(items);
+    }
+
+    /**
+     * Deletes the front element as soon as the deque has one and no consumer waiting before.
+     *
+     * @return a future completed with the front element, already completed if the deque had one
+     */
+    public CompletableFuture<T> takeFirstAsync() {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        FutureWaiter waiter = new FutureWaiter(future);
+        lock.lock();
+        try {
+            if (waiters.isEmpty() && items.size() > 0)
+                return CompletableFuture.completedFuture(extractFirst());
+            waiters.addLast(waiter);
+        } finally {
+            lock.unlock();
+        }
+        future.whenComplete((item, failure) -> {
+            if (failure != null)
+                stopWaiting(waiter);
+        });
+        return future;
+    }
+
+    /**
+     * Subscribes a consumer of the front elements, which receives them once it requests them.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        subscriber.onSubscribe(new Subscription(subscriber));
+    }
+
+    /**
+     * Returns the number of consumers waiting for an element: pending futures and subscriptions
+     * with some demand left.
+     *
+     * @return the number of waiting consumers
+     */
+    public int getWaitingConsumerCount() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void prepend(T value) {
+        Set<Waiter<T>> ready;
+        lock.lock();
+        try {
+            items.prepend(value);
+            ready = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        deliverAll(ready);
+    }
+
+    @Override
+    public void append(T value) {
+        Set<Waiter<T>> ready;
+        lock.lock();
+        try {
+            items.append(value);
+            ready = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        deliverAll(ready);
+    }
+
+    @Override
+    public void deleteFirst() {
+        lock.lock();
+        try {
+            items.deleteFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteLast() {
+        lock.lock();
+        try {
+            items.deleteLast();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T first() {
+        lock.lock();
+        try {
+            return items.first();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T last() {
+        lock.lock();
+        try {
+            return items.last();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T peekFirst() {
+        lock.lock();
+        try {
+            return items.peekFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T peekLast() {
+        lock.lock();
+        try {
+            return items.peekLast();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T pollFirst() {
+        lock.lock();
+        try {
+            return items.pollFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T pollLast() {
+        lock.lock();
+        try {
+            return items.pollLast();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return items.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T get(int index) {
+        lock.lock();
+        try {
+            return items.get(index);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(T value) {
+        lock.lock();
+        try {
+            return items.contains(value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(T value) {
+        lock.lock();
+        try {
+            items.remove(value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        lock.lock();
+        try {
+            items.sort(comparator);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void appendAll(Iterable<? extends T> values) {
+        List<T> buffer = bufferOf(values);
+        Set<Waiter<T>> ready;
+        lock.lock();
+        try {
+            items.appendAll(buffer);
+            ready = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        deliverAll(ready);
+    }
+
+    @Override
+    public void prependAll(Iterable<? extends T> values) {
+        List<T> buffer = bufferOf(values);
+        Set<Waiter<T>> ready;
+        lock.lock();
+        try {
+            items.prependAll(buffer);
+            ready = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        deliverAll(ready);
+    }
+
+    /**
+     * Deletes the elements under the lock and hands them to the consumer after releasing it.
+     */
+    @Override
+    public int drainFirst(int maxElements, Consumer<? super T> consumer) {
+        if (maxElements < 0)
+            throw new IllegalArgumentException("Negative number of elements: " + maxElements);
+        List<T> buffer = new ArrayList<>();
+        lock.lock();
+        try {
+            items.drainFirst(maxElements, buffer::add);
+        } finally {
+            lock.unlock();
+        }
+        buffer.forEach(consumer);
+        return buffer.size();
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        lock.lock();
+        try {
+            return items.removeIf(filter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return Arrays.asList(snapshot()).iterator();
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        T[] snapshot = snapshot();
+        for (int i = 0, j = snapshot.length - 1; i < j; i++, j--) {
+            T aux = snapshot[i];
+            snapshot[i] = snapshot[j];
+            snapshot[j] = aux;
+        }
+        return Arrays.asList(snapshot).iterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(snapshot(), Spliterator.ORDERED);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[] snapshot() {
+        lock.lock();
+        try {
+            Object[] snapshot = new Object[items.size()];
+            int i = 0;
+            for (T item : items)
+                snapshot[i++] = item;
+            return (T[]) snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<T> bufferOf(Iterable<? extends T> values) {
+        List<T> buffer = new ArrayList<>();
+        for (T value : values)
+            buffer.add(value);
+        return buffer;
+    }
+
+    private T extractFirst() {
+        T item = items.first();
+        items.deleteFirst();
+        return item;
+    }
+
+    /**
+     * Hands the front elements to the waiting consumers while there are both. It must be called
+     * holding the lock, and the consumers returned must be delivered to after releasing it.
+     *
+     * @return the consumers that were handed some element, or {@code null} if none was
+     */
+    private Set<Waiter<T>> dispatch() {
+        Set<Waiter<T>> ready = null;
+        while (!waiters.isEmpty() && items.size() > 0) {
+            Waiter<T> waiter = waiters.pollFirst();
+            if (!waiter.isActive())
+                continue;
+            if (waiter.accept(extractFirst()))
+                waiters.addLast(waiter);
+            if (ready == null)
+                ready = new LinkedHashSet<>();
+            ready.add(waiter);
+        }
+        return (ready);
+    }
+
+    private void deliverAll(Set<Waiter<T>> ready) {
+        if (ready != null)
+            ready.forEach(Waiter::deliver);
+    }
+
+    private void stopWaiting(Waiter<T> waiter) {
+        lock.lock();
+        try {
+            waiters.remove(waiter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts back at the front, in the same order, the elements handed to a consumer that stopped
+     * waiting before receiving them, and hands them to the next consumers.
+     */
+    private void requeue(List<T> returned) {
+        Set<Waiter<T>> ready;
+        lock.lock();
+        try {
+            for (int i = returned.size() - 1; i >= 0; i--)
+                items.prepend(returned.get(i));
+            ready = dispatch();
+        } finally {
+            lock.unlock();
+        }
+        deliverAll(ready);
+    }
+
+    /**
+     * A consumer in the waiting queue. {@link #accept(Object)} is called holding the lock and
+     * {@link #deliver()} after releasing it.
+     */
+    private interface Waiter<T> {
+        boolean isActive();
+
+        /**
+         * Takes an element for this consumer.
+         *
+         * @return whether the consumer still waits for more elements
+         */
+        boolean accept(T item);
+
+        void deliver();
+    }
+
+    private final class FutureWaiter implements Waiter<T> {
+        private final CompletableFuture<T> future;
+        private T item;
+
+        private FutureWaiter(CompletableFuture<T> future) {
+            this.future = future;
+        }
+
+        @Override
+        public boolean isActive() {
+            return !future.isDone();
+        }
+
+        @Override
+        public boolean accept(T item) {
+            this.item = item;
+            return false;
+        }
+
+        @Override
+        public void deliver() {
+            if (!future.complete(item))
+                requeue(Collections.singletonList(item));
+        }
+    }
+
+    /**
+     * A subscription whose demand is guarded by the lock of the deque. The elements taken for it
+     * wait in {@code pending} until the single thread that wins {@code signalling} passes them to
+     * the subscriber, so its signals never overlap.
+     */
+    private final class Subscription implements Flow.Subscription, Waiter<T> {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final ConcurrentLinkedQueue<Object[]> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger signalling = new AtomicInteger();
+        private long demand;
+        private boolean waiting;
+        private volatile boolean cancelled;
+        private volatile Throwable failure;
+
+        private Subscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                failure = new IllegalArgumentException("Non-positive request: " + n);
+                cancel();
+                return;
+            }
+            Set<Waiter<T>> ready;
+            lock.lock();
+            try {
+                if (cancelled)
+                    return;
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+                if (!waiting) {
+                    waiting = true;
+                    waiters.addLast(this);
+                }
+                ready = dispatch();
+            } finally {
+                lock.unlock();
+            }
+            deliverAll(ready);
+        }
+
+        @Override
+        public void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                if (waiting) {
+                    waiting = false;
+                    waiters.remove(this);
+                }
+            } finally {
+                lock.unlock();
+            }
+            deliver();
+        }
+
+        @Override
+        public boolean isActive() {
+            return !cancelled;
+        }
+
+        @Override
+        public boolean accept(T item) {
+            pending.add(new Object[] {item});
+            waiting = --demand > 0;
+            return waiting;
+        }
+
+        /**
+         * Passes the pending elements to the subscriber, or back to the deque once the
+         * subscription is cancelled. A thread that finds another one signalling leaves the work
+         * to it.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void deliver() {
+            if (signalling.getAndIncrement() != 0)
+                return;
+            int missed = 1;
+            do {
+                Object[] box;
+                while (!cancelled && (box = pending.poll()) != null) {
+                    try {
+                        subscriber.onNext((T) box[0]);
+                    } catch (RuntimeException e) {
+                        cancel();
+                    }
+                }
+                if (cancelled) {
+                    List<T> returned = new ArrayList<>();
+                    while ((box = pending.poll()) != null)
+                        returned.add((T) box[0]);
+                    if (!returned.isEmpty())
+                        requeue(returned);
+                    Throwable error = failure;
+                    if (error != null) {
+                        failure = null;
+                        subscriber.onError(error);
+                    }
+                }
+                missed = signalling.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
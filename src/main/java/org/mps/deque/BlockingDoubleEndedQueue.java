@@ -0,0 +1,118 @@
+package org.mps.deque;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link DoubleEndedQueue} that can wait for an element to be available before taking it, and
+ * for room to be available before inserting. The {@code poll} and {@code offer} methods report
+ * an empty or full deque through their result instead of throwing an exception.
+ * <p>
+ * Null elements are allowed, so a {@code null} returned by a {@code poll} method is ambiguous
+ * when the deque may hold nulls; the {@code take} methods or {@link #size()} tell both cases
+ * apart. Implementations make {@link #pollFirst()} and {@link #pollLast()} atomic.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public interface BlockingDoubleEndedQueue<T> extends DoubleEndedQueue<T> {
+
+    /**
+     * Inserts the specified element at the front of this deque, waiting for room if necessary.
+     *
+     * @param value the value to be inserted
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void putFirst(T value) throws InterruptedException;
+
+    /**
+     * Inserts the specified element at the end of this deque, waiting for room if necessary.
+     *
+     * @param value the value to be inserted
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void putLast(T value) throws InterruptedException;
+
+    /**
+     * Removes and returns the first element of this deque, waiting for one if necessary.
+     *
+     * @return the first element of this deque
+     * @throws InterruptedException if interrupted while waiting
+     */
+    T takeFirst() throws InterruptedException;
+
+    /**
+     * Removes and returns the last element of this deque, waiting for one if necessary.
+     *
+     * @return the last element of this deque
+     * @throws InterruptedException if interrupted while waiting
+     */
+    T takeLast() throws InterruptedException;
+
+    /**
+     * Inserts the specified element at the front of this deque if there is room.
+     *
+     * @param value the value to be inserted
+     * @return {@code true} if the element was inserted, {@code false} if the deque is full
+     */
+    boolean offerFirst(T value);
+
+    /**
+     * Inserts the specified element at the end of this deque if there is room.
+     *
+     * @param value the value to be inserted
+     * @return {@code true} if the element was inserted, {@code false} if the deque is full
+     */
+    boolean offerLast(T value);
+
+    /**
+     * Inserts the specified element at the front of this deque, waiting up to the specified
+     * time for room if necessary.
+     *
+     * @param value   the value to be inserted
+     * @param timeout how long to wait before giving up
+     * @param unit    the unit of the timeout
+     * @return {@code true} if the element was inserted, {@code false} if the time elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean offerFirst(T value, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Inserts the specified element at the end of this deque, waiting up to the specified time
+     * for room if necessary.
+     *
+     * @param value   the value to be inserted
+     * @param timeout how long to wait before giving up
+     * @param unit    the unit of the timeout
+     * @return {@code true} if the element was inserted, {@code false} if the time elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean offerLast(T value, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Removes and returns the first element of this deque, waiting up to the specified time for
+     * one if necessary.
+     *
+     * @param timeout how long to wait before giving up
+     * @param unit    the unit of the timeout
+     * @return the first element of this deque, or {@code null} if the time elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    T pollFirst(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Removes and returns the last element of this deque, waiting up to the specified time for
+     * one if necessary.
+     *
+     * @param timeout how long to wait before giving up
+     * @param unit    the unit of the timeout
+     * @return the last element of this deque, or {@code null} if the time elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    T pollLast(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Returns the number of elements that can still be inserted without waiting.
+     *
+     * @return the remaining capacity of this deque
+     */
+    int remainingCapacity();
+}
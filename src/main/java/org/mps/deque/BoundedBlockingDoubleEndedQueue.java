@@ -0,0 +1,481 @@
+package org.mps.deque;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Bounded {@link BlockingDoubleEndedQueue} that keeps its elements in a
+ * {@link DoublyLinkedListDeque} guarded by a single lock. Consumers wait on the
+ * {@code notEmpty} condition and producers on the {@code notFull} condition, and every operation
+ * signals a single waiter of the opposite side only, so producers never wake other producers and
+ * consumers never wake other consumers.
+ * <p>
+ * {@link #prepend(Object)} and {@link #append(Object)} throw a {@link DoubleEndedQueueException}
+ * when the deque is full, as the deletions and accessors do when it is empty. The bulk insertions
+ * are all-or-nothing: they throw the same exception, inserting nothing, when the values don't
+ * fit.
+ * <p>
+ * The iterators and the spliterator work on a copy of the elements taken under the lock, so
+ * they never block the deque nor throw {@link java.util.ConcurrentModificationException}.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class BoundedBlockingDoubleEndedQueue<T> implements BlockingDoubleEndedQueue<T> {
+    private final DoublyLinkedListDeque<T> items = new DoublyLinkedListDeque<>();
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    public BoundedBlockingDoubleEndedQueue() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param capacity the maximum number of elements of the deque
+     * @throws IllegalArgumentException if the capacity is lower than one
+     */
+    public BoundedBlockingDoubleEndedQueue(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be positive");
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void prepend(T value) {
+        if (!offerFirst(value))
+            throw new DoubleEndedQueueException("Full deque", false);
+    }
+
+    @Override
+    public void append(T value) {
+        if (!offerLast(value))
+            throw new DoubleEndedQueueException("Full deque", false);
+    }
+
+    @Override
+    public void deleteFirst() {
+        lock.lock();
+        try {
+            items.deleteFirst();
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteLast() {
+        lock.lock();
+        try {
+            items.deleteLast();
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T first() {
+        lock.lock();
+        try {
+            return items.first();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T last() {
+        lock.lock();
+        try {
+            return items.last();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T peekFirst() {
+        lock.lock();
+        try {
+            return items.peekFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T peekLast() {
+        lock.lock();
+        try {
+            return items.peekLast();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return items.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T get(int index) {
+        lock.lock();
+        try {
+            return items.get(index);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(T value) {
+        lock.lock();
+        try {
+            return items.contains(value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(T value) {
+        lock.lock();
+        try {
+            int previousSize = items.size();
+            items.remove(value);
+            if (items.size() < previousSize)
+                notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        lock.lock();
+        try {
+            items.sort(comparator);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void appendAll(Iterable<? extends T> values) {
+        List<T> buffer = bufferOf(values);
+        lock.lock();
+        try {
+            if (capacity - items.size() < buffer.size())
+                throw new DoubleEndedQueueException("Full deque", false);
+            items.appendAll(buffer);
+            if (!buffer.isEmpty())
+                notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void prependAll(Iterable<? extends T> values) {
+        List<T> buffer = bufferOf(values);
+        lock.lock();
+        try {
+            if (capacity - items.size() < buffer.size())
+                throw new DoubleEndedQueueException("Full deque", false);
+            items.prependAll(buffer);
+            if (!buffer.isEmpty())
+                notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the elements under the lock and hands them to the consumer after releasing it.
+     */
+    @Override
+    public int drainFirst(int maxElements, Consumer<? super T> consumer) {
+        if (maxElements < 0)
+            throw new IllegalArgumentException("Negative number of elements: " + maxElements);
+        List<T> buffer = new ArrayList<>();
+        lock.lock();
+        try {
+            items.drainFirst(maxElements, buffer::add);
+            if (!buffer.isEmpty())
+                notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        buffer.forEach(consumer);
+        return buffer.size();
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        lock.lock();
+        int previousSize = items.size();
+        try {
+            return items.removeIf(filter);
+        } finally {
+            if (items.size() < previousSize)
+                notFull.signalAll();
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void putFirst(T value) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (items.size() == capacity)
+                notFull.await();
+            insertFirst(value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void putLast(T value) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (items.size() == capacity)
+                notFull.await();
+            insertLast(value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T takeFirst() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (items.size() == 0)
+                notEmpty.await();
+            return extractFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T takeLast() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (items.size() == 0)
+                notEmpty.await();
+            return extractLast();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offerFirst(T value) {
+        lock.lock();
+        try {
+            if (items.size() == capacity)
+                return false;
+            insertFirst(value);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offerLast(T value) {
+        lock.lock();
+        try {
+            if (items.size() == capacity)
+                return false;
+            insertLast(value);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offerFirst(T value, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (items.size() == capacity) {
+                if (nanos <= 0)
+                    return false;
+                nanos = notFull.awaitNanos(nanos);
+            }
+            insertFirst(value);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean offerLast(T value, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (items.size() == capacity) {
+                if (nanos <= 0)
+                    return false;
+                nanos = notFull.awaitNanos(nanos);
+            }
+            insertLast(value);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T pollFirst() {
+        lock.lock();
+        try {
+            return items.size() == 0 ? null : extractFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T pollLast() {
+        lock.lock();
+        try {
+            return items.size() == 0 ? null : extractLast();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T pollFirst(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (items.size() == 0) {
+                if (nanos <= 0)
+                    return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return extractFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T pollLast(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (items.size() == 0) {
+                if (nanos <= 0)
+                    return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return extractLast();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return capacity - items.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return Arrays.asList(snapshot()).iterator();
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        T[] snapshot = snapshot();
+        for (int i = 0, j = snapshot.length - 1; i < j; i++, j--) {
+            T aux = snapshot[i];
+            snapshot[i] = snapshot[j];
+            snapshot[j] = aux;
+        }
+        return Arrays.asList(snapshot).iterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(snapshot(), Spliterator.ORDERED);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[] snapshot() {
+        lock.lock();
+        try {
+            Object[] snapshot = new Object[items.size()];
+            int i = 0;
+            for (T item : items)
+                snapshot[i++] = item;
+            return (T[]) snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<T> bufferOf(Iterable<? extends T> values) {
+        List<T> buffer = new ArrayList<>();
+        for (T value : values)
+            buffer.add(value);
+        return buffer;
+    }
+
+    private void insertFirst(T value) {
+        items.prepend(value);
+        notEmpty.signal();
+    }
+
+    private void insertLast(T value) {
+        items.append(value);
+        notEmpty.signal();
+    }
+
+    private T extractFirst() {
+        T item = items.first();
+        items.deleteFirst();
+        notFull.signal();
+        return item;
+    }
+
+    private T extractLast() {
+        T item = items.last();
+        items.deleteLast();
+        notFull.signal();
+        return item;
+    }
+}
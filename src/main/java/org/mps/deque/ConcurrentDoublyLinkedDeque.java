@@ -0,0 +1,253 @@
+package org.mps.deque;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe double-ended queue without locks. The nodes are kept in a
+ * {@link ConcurrentLinkedDeque}, a non-blocking doubly linked list that updates its links with
+ * compare-and-set, so {@link #prepend(Object)}, {@link #append(Object)}, {@link #deleteFirst()},
+ * {@link #deleteLast()}, {@link #first()} and {@link #last()} are linearizable and some thread
+ * always makes progress. The {@code peek} and {@code poll} methods are linearizable as well.
+ * Null items are stored as a private marker.
+ * <p>
+ * The complex operations are weakly consistent:
+ * <ul>
+ *     <li>{@link #size()} is the sum of a {@link LongAdder} updated after every insertion and
+ *     deletion; it is exact when the deque is quiescent.</li>
+ *     <li>{@link #get(int)} and {@link #contains(Object)} walk the list once and see every
+ *     element present for the whole walk, and maybe some of those inserted or removed
+ *     meanwhile.</li>
+ *     <li>{@link #remove(Object)} unlinks the first occurrence found by such a walk
+ *     atomically.</li>
+ *     <li>The iterators and the spliterator never throw
+ *     {@link java.util.ConcurrentModificationException}; they see the elements as such a walk
+ *     does. The spliterator is not {@link Spliterator#SIZED}, as the size may change while it
+ *     runs.</li>
+ *     <li>{@link #sort(Comparator)} drains from the front at most as many elements as the size
+ *     seen on entry, sorts the drained snapshot and prepends it again, one element at a time.
+ *     Every element is kept exactly once, but while the sort runs the drained elements are
+ *     missing. Elements appended while the deque is drained may be drained and sorted as well,
+ *     in place of elements that were there on entry, which then stay behind the sorted ones.
+ *     Elements inserted at either end after the drain end up behind the sorted ones, except
+ *     those prepended while the snapshot is prepended again, which may end up among them. The
+ *     snapshot is an array, so this sort allocates.</li>
+ *     <li>{@link #removeIf(Predicate)}, and so {@link #removeAll(java.util.Collection)}, work
+ *     the same way as the sort. The other bulk operations are sequences of atomic operations:
+ *     {@link #drainFirst(int, Consumer)} deletes every element atomically, and
+ *     {@link #appendAll(Iterable)} and {@link #prependAll(Iterable)} may be interleaved with
+ *     other insertions.</li>
+ * </ul>
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class ConcurrentDoublyLinkedDeque<T> implements DoubleEndedQueue<T> {
+    private static final Object NULL_ITEM = new Object();
+
+    private final ConcurrentLinkedDeque<Object> nodes = new ConcurrentLinkedDeque<>();
+    private final LongAdder size = new LongAdder();
+
+    @Override
+    public void prepend(T value) {
+        nodes.offerFirst(mask(value));
+        size.increment();
+    }
+
+    @Override
+    public void append(T value) {
+        nodes.offerLast(mask(value));
+        size.increment();
+    }
+
+    @Override
+    public void deleteFirst() {
+        if (nodes.pollFirst() == null)
+            throw new DoubleEndedQueueException("Empty deque", false);
+        size.decrement();
+    }
+
+    @Override
+    public void deleteLast() {
+        if (nodes.pollLast() == null)
+            throw new DoubleEndedQueueException("Empty deque", false);
+        size.decrement();
+    }
+
+    @Override
+    public T first() {
+        Object item = nodes.peekFirst();
+        if (item == null)
+            throw new DoubleEndedQueueException("No items left", false);
+        return unmask(item);
+    }
+
+    @Override
+    public T last() {
+        Object item = nodes.peekLast();
+        if (item == null)
+            throw new DoubleEndedQueueException("No items left", false);
+        return unmask(item);
+    }
+
+    @Override
+    public T peekFirst() {
+        return unmask(nodes.peekFirst());
+    }
+
+    @Override
+    public T peekLast() {
+        return unmask(nodes.peekLast());
+    }
+
+    @Override
+    public T pollFirst() {
+        Object item = nodes.pollFirst();
+        if (item != null)
+            size.decrement();
+        return unmask(item);
+    }
+
+    @Override
+    public T pollLast() {
+        Object item = nodes.pollLast();
+        if (item != null)
+            size.decrement();
+        return unmask(item);
+    }
+
+    @Override
+    public int size() {
+        long sum = size.sum();
+        return (int) Math.max(0, Math.min(sum, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        Iterator<Object> iterator = nodes.iterator();
+        for (int i = 0; iterator.hasNext(); i++) {
+            Object item = iterator.next();
+            if (i == index)
+                return (unmask(item));
+        }
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public boolean contains(T value) {
+        return (nodes.contains(mask(value)));
+    }
+
+    @Override
+    public void remove(T value) {
+        if (nodes.isEmpty()) {
+            throw new DoubleEndedQueueException("Can't remove from an empty deque", false);
+        }
+        if (nodes.removeFirstOccurrence(mask(value)))
+            size.decrement();
+    }
+
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        List<T> snapshot = drainSnapshot();
+        snapshot.sort(Comparator.nullsFirst(comparator));
+        for (int i = snapshot.size() - 1; i >= 0; i--)
+            prepend(snapshot.get(i));
+    }
+
+    @Override
+    public int drainFirst(int maxElements, Consumer<? super T> consumer) {
+        if (maxElements < 0)
+            throw new IllegalArgumentException("Negative number of elements: " + maxElements);
+        int drained = 0;
+        Object item;
+        while (drained < maxElements && (item = nodes.pollFirst()) != null) {
+            size.decrement();
+            drained++;
+            consumer.accept(unmask(item));
+        }
+        return (drained);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        List<T> snapshot = drainSnapshot();
+        boolean removed;
+        try {
+            removed = snapshot.removeIf(filter);
+        } finally {
+            for (int i = snapshot.size() - 1; i >= 0; i--)
+                prepend(snapshot.get(i));
+        }
+        return (removed);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new UnmaskingIterator(nodes.iterator());
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new UnmaskingIterator(nodes.descendingIterator());
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.CONCURRENT);
+    }
+
+    /**
+     * Deletes from the front at most as many elements as the size seen on entry, so a steady
+     * producer can't keep the drain going, and returns them in order.
+     */
+    private List<T> drainSnapshot() {
+        int limit = size();
+        List<T> snapshot = new ArrayList<>(limit);
+        Object item;
+        while (snapshot.size() < limit && (item = nodes.pollFirst()) != null) {
+            size.decrement();
+            snapshot.add(unmask(item));
+        }
+        return (snapshot);
+    }
+
+    private static Object mask(Object value) {
+        return Objects.requireNonNullElse(value, NULL_ITEM);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T unmask(Object item) {
+        return item == NULL_ITEM ? null : (T) item;
+    }
+
+    private class UnmaskingIterator implements Iterator<T> {
+        private final Iterator<Object> items;
+
+        UnmaskingIterator(Iterator<Object> items) {
+            this.items = items;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (items.hasNext());
+        }
+
+        @Override
+        public T next() {
+            return (unmask(items.next()));
+        }
+    }
+}
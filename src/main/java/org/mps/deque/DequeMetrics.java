@@ -0,0 +1,171 @@
+package org.mps.deque;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the operations made on a deque. They are filled by an
+ * {@link InstrumentedDoubleEndedQueue}, or by a {@link DoublyLinkedListDeque} given them with
+ * {@link DoublyLinkedListDeque#setMetrics(DequeMetrics)}, which also counts the nodes it walks
+ * and the nodes its sort relinks.
+ * <p>
+ * Every counter is a {@link LongAdder}, and the largest size a {@link LongAccumulator}, so
+ * several deques, or several threads on a concurrent deque, can share the counters without
+ * contending. The counters are read one by one, through the getters, a JMX registration or
+ * {@link #snapshot()}, so a read taken while the deque is in use is not atomic.
+ */
+public final class DequeMetrics implements DequeMetricsMBean {
+    private final LongAdder insertions = new LongAdder();
+    private final LongAdder deletions = new LongAdder();
+    private final LongAdder gets = new LongAdder();
+    private final LongAdder containsQueries = new LongAdder();
+    private final LongAdder removes = new LongAdder();
+    private final LongAdder nodesTraversed = new LongAdder();
+    private final LongAccumulator maxSize = new LongAccumulator(Math::max, 0);
+    private final LongAdder emptyAccesses = new LongAdder();
+    private final LongAdder sortComparisons = new LongAdder();
+    private final LongAdder sortSwaps = new LongAdder();
+
+    @Override
+    public long getInsertions() {
+        return insertions.sum();
+    }
+
+    @Override
+    public long getDeletions() {
+        return deletions.sum();
+    }
+
+    @Override
+    public long getGets() {
+        return gets.sum();
+    }
+
+    @Override
+    public long getContainsQueries() {
+        return containsQueries.sum();
+    }
+
+    @Override
+    public long getRemoves() {
+        return removes.sum();
+    }
+
+    @Override
+    public long getNodesTraversed() {
+        return nodesTraversed.sum();
+    }
+
+    @Override
+    public long getMaxSize() {
+        return maxSize.get();
+    }
+
+    @Override
+    public long getEmptyAccesses() {
+        return emptyAccesses.sum();
+    }
+
+    @Override
+    public long getSortComparisons() {
+        return sortComparisons.sum();
+    }
+
+    @Override
+    public long getSortSwaps() {
+        return sortSwaps.sum();
+    }
+
+    @Override
+    public void reset() {
+        insertions.reset();
+        deletions.reset();
+        gets.reset();
+        containsQueries.reset();
+        removes.reset();
+        nodesTraversed.reset();
+        maxSize.reset();
+        emptyAccesses.reset();
+        sortComparisons.reset();
+        sortSwaps.reset();
+    }
+
+    /**
+     * Returns the current value of every counter.
+     *
+     * @return an immutable copy of the counters
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(getInsertions(), getDeletions(), getGets(), getContainsQueries(), getRemoves(),
+                getNodesTraversed(), getMaxSize(), getEmptyAccesses(), getSortComparisons(), getSortSwaps());
+    }
+
+    /**
+     * Registers the counters in the platform MBean server as
+     * {@code org.mps.deque:type=DequeMetrics,name=<name>}. They are unregistered through the
+     * returned name.
+     *
+     * @param name the name that tells the deque apart from the other registered ones
+     * @return the name the counters are registered with
+     * @throws JMException if the name is invalid or already registered
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("org.mps.deque:type=DequeMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return (objectName);
+    }
+
+    void recordInsertions(long count, int size) {
+        insertions.add(count);
+        maxSize.accumulate(size);
+    }
+
+    void recordDeletions(long count) {
+        deletions.add(count);
+    }
+
+    void recordGet(long traversed) {
+        gets.increment();
+        nodesTraversed.add(traversed);
+    }
+
+    void recordContains(long traversed) {
+        containsQueries.increment();
+        nodesTraversed.add(traversed);
+    }
+
+    void recordRemove(long traversed) {
+        removes.increment();
+        nodesTraversed.add(traversed);
+    }
+
+    void recordEmptyAccess() {
+        emptyAccesses.increment();
+    }
+
+    void recordSortSwap() {
+        sortSwaps.increment();
+    }
+
+    /**
+     * Returns a comparator that counts its comparisons before delegating them.
+     */
+    <T> Comparator<T> countingComparator(Comparator<? super T> comparator) {
+        return (item, other) -> {
+            sortComparisons.increment();
+            return comparator.compare(item, other);
+        };
+    }
+
+    /**
+     * Values of the counters of a {@link DequeMetrics} at the time they were read.
+     */
+    public record Snapshot(long insertions, long deletions, long gets, long containsQueries, long removes,
+                           long nodesTraversed, long maxSize, long emptyAccesses, long sortComparisons,
+                           long sortSwaps) {
+    }
+}
@@ -0,0 +1,65 @@
+package org.mps.deque;
+
+/**
+ * Management interface of {@link DequeMetrics}, so the counters of a deque can be read and
+ * reset through JMX.
+ */
+public interface DequeMetricsMBean {
+
+    /**
+     * Returns the number of elements inserted at either end, one by one or in bulk.
+     */
+    long getInsertions();
+
+    /**
+     * Returns the number of elements deleted from either end, one by one or in bulk, and the
+     * number of elements removed by a predicate.
+     */
+    long getDeletions();
+
+    /**
+     * Returns the number of calls to {@link DoubleEndedQueue#get(int)}.
+     */
+    long getGets();
+
+    /**
+     * Returns the number of calls to {@link DoubleEndedQueue#contains(Object)}.
+     */
+    long getContainsQueries();
+
+    /**
+     * Returns the number of calls to {@link DoubleEndedQueue#remove(Object)}.
+     */
+    long getRemoves();
+
+    /**
+     * Returns the number of nodes walked by {@code get}, {@code contains} and {@code remove}.
+     */
+    long getNodesTraversed();
+
+    /**
+     * Returns the largest size reached by the deque since the counters were created or reset.
+     */
+    long getMaxSize();
+
+    /**
+     * Returns the number of {@link DoubleEndedQueueException} thrown because the deque was empty.
+     */
+    long getEmptyAccesses();
+
+    /**
+     * Returns the number of comparisons made by {@link DoubleEndedQueue#sort(java.util.Comparator)}.
+     */
+    long getSortComparisons();
+
+    /**
+     * Returns the number of elements moved by {@link DoubleEndedQueue#sort(java.util.Comparator)}:
+     * swaps of an array or relinked nodes of a list.
+     */
+    long getSortSwaps();
+
+    /**
+     * Sets every counter to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,92 @@
+package org.mps.deque;
+
+import java.util.Arrays;
+
+/**
+ * The class contains methods for a double linked node that holds a fixed-capacity
+ * array of items. The items of a segment are stored contiguously in
+ * {@code items[start, start + count)}.
+ */
+class DequeSegment<T> {
+
+    private final Object[] items;
+    private int start;
+    private int count;
+    private DequeSegment<T> previous;
+    private DequeSegment<T> next;
+
+    DequeSegment(int capacity) {
+        this.items = new Object[capacity];
+    }
+
+    @SuppressWarnings("unchecked")
+    T getItem(int offset) { return (T) items[start + offset]; }
+    void setItem(int offset, T item) { items[start + offset] = item; }
+
+    Object[] getItems() { return items; }
+    int getCapacity() { return items.length; }
+
+    int getStart() { return start; }
+    void setStart(int start) { this.start = start; }
+
+    int getCount() { return count; }
+    void setCount(int count) { this.count = count; }
+
+    DequeSegment<T> getPrevious() { return previous; }
+    void setPrevious(DequeSegment<T> previous) { this.previous = previous; }
+
+    DequeSegment<T> getNext() { return next; }
+    void setNext(DequeSegment<T> next) { this.next = next; }
+
+    boolean isEmpty() { return count == 0; }
+    boolean isFull() { return count == items.length; }
+    boolean hasRoomAtFront() { return start > 0; }
+    boolean hasRoomAtBack() { return start + count < items.length; }
+
+    /**
+     * Moves the items so that they end at the last slot of the array, leaving every free
+     * slot at the front.
+     */
+    void shiftToBack() {
+        int newStart = items.length - count;
+        System.arraycopy(items, start, items, newStart, count);
+        Arrays.fill(items, start, Math.min(newStart, start + count), null);
+        start = newStart;
+    }
+
+    /**
+     * Moves the items so that they begin at the first slot of the array, leaving every free
+     * slot at the back.
+     */
+    void shiftToFront() {
+        System.arraycopy(items, start, items, 0, count);
+        Arrays.fill(items, Math.max(count, start), start + count, null);
+        start = 0;
+    }
+
+    /**
+     * Removes the item at the given offset, closing the gap by moving the shorter side.
+     */
+    void removeAt(int offset) {
+        int index = start + offset;
+        if (offset < count - offset - 1) {
+            System.arraycopy(items, start, items, start + 1, offset);
+            items[start] = null;
+            start++;
+        } else {
+            System.arraycopy(items, index + 1, items, index, count - offset - 1);
+            items[start + count - 1] = null;
+        }
+        count--;
+    }
+
+    /**
+     * Forgets the links and the window of the segment so it can be reused.
+     */
+    void reset(int start) {
+        this.start = start;
+        this.count = 0;
+        this.previous = null;
+        this.next = null;
+    }
+}
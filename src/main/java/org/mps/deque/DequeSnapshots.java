@@ -0,0 +1,224 @@
+package org.mps.deque;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The class contains the binary snapshot format of deques whose elements are encoded by an
+ * {@link ElementCodec}. A snapshot starts with a header holding a magic number, the format
+ * version, the flags and the number of elements, followed by blocks of up to
+ * {@value #BLOCK_SIZE} bytes of elements. Every block is prefixed by its stored length and its
+ * raw length, and holds records made of the encoded length plus one as an unsigned varint, or
+ * zero for a null element, followed by the encoded bytes, so the prefix of an element shorter
+ * than 127 bytes takes a single byte. The blocks of a compressed snapshot are deflated one by
+ * one.
+ * <p>
+ * Every read and write is made on a whole header or block held in a heap buffer, so the
+ * channel is used in large chunks and a reader never consumes bytes past the snapshot.
+ */
+final class DequeSnapshots {
+    static final int MAGIC = 0x4D505351;
+    static final int BLOCK_SIZE = 1 << 16;
+    private static final byte VERSION = 2;
+    private static final byte COMPRESSED = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + 2 + Integer.BYTES;
+    private static final int BLOCK_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int MAX_VARINT_SIZE = 5;
+
+    private DequeSnapshots() {
+    }
+
+    /**
+     * Writes a snapshot of the elements to the channel.
+     *
+     * @param elements   the elements, iterated once
+     * @param count      the number of elements
+     * @param codec      the codec used to encode the elements
+     * @param compressed whether the blocks are deflated
+     * @param channel    the channel to write to
+     * @throws IllegalArgumentException if the encoding of an element is longer than the maximum
+     *                                  length of the codec
+     * @throws IOException              if the channel can't be written
+     */
+    static <T> void write(Iterable<T> elements, int count, ElementCodec<T> codec, boolean compressed,
+                          WritableByteChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).put(VERSION).put(compressed ? COMPRESSED : 0).putInt(count);
+        writeFully(channel, header.flip());
+        ByteBuffer block = ByteBuffer.allocate(Math.max(BLOCK_SIZE, MAX_VARINT_SIZE + codec.maxLength()));
+        ByteBuffer output = ByteBuffer.allocate(BLOCK_HEADER_SIZE + block.capacity());
+        Deflater deflater = compressed ? new Deflater(Deflater.BEST_SPEED) : null;
+        try {
+            for (T value : elements) {
+                int length = ElementSlots.encodedLength(codec, value);
+                if (block.remaining() < MAX_VARINT_SIZE + Math.max(0, length))
+                    output = writeBlock(channel, block, output, deflater);
+                putLength(block, length);
+                if (value != null) {
+                    codec.encode(value, block, block.position());
+                    block.position(block.position() + length);
+                }
+            }
+            if (block.position() > 0)
+                writeBlock(channel, block, output, deflater);
+        } finally {
+            if (deflater != null)
+                deflater.end();
+        }
+    }
+
+    /**
+     * Reads a snapshot from the channel, handing its elements to the consumer in order.
+     *
+     * @param channel  the channel to read from; it is left after the last byte of the snapshot
+     * @param codec    the codec used to decode the elements
+     * @param consumer the consumer of the elements
+     * @return the number of elements read
+     * @throws EOFException if the channel ends before the snapshot
+     * @throws IOException  if the channel can't be read or does not hold a valid snapshot
+     */
+    static <T> int read(ReadableByteChannel channel, ElementCodec<T> codec, Consumer<? super T> consumer)
+            throws IOException {
+        ByteBuffer header = readFully(channel, ByteBuffer.allocate(HEADER_SIZE));
+        if (header.getInt() != MAGIC || header.get() != VERSION)
+            throw new IOException("Not a deque snapshot");
+        boolean compressed = (header.get() & COMPRESSED) != 0;
+        int count = header.getInt();
+        if (count < 0)
+            throw new IOException("Corrupted deque snapshot");
+        ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        ByteBuffer stored = ByteBuffer.allocate(0);
+        ByteBuffer block = ByteBuffer.allocate(0);
+        Inflater inflater = compressed ? new Inflater() : null;
+        try {
+            int read = 0;
+            while (read < count) {
+                readFully(channel, blockHeader.clear());
+                int storedLength = blockHeader.getInt();
+                int rawLength = blockHeader.getInt();
+                if (storedLength <= 0 || rawLength <= 0 || (!compressed && storedLength != rawLength))
+                    throw new IOException("Corrupted deque snapshot");
+                if (stored.capacity() < storedLength)
+                    stored = ByteBuffer.allocate(storedLength);
+                readFully(channel, stored.clear().limit(storedLength));
+                if (compressed) {
+                    if (block.capacity() < rawLength)
+                        block = ByteBuffer.allocate(rawLength);
+                    inflate(inflater, stored, block.clear().limit(rawLength));
+                } else {
+                    block = stored;
+                }
+                while (block.hasRemaining()) {
+                    if (read == count)
+                        throw new IOException("Corrupted deque snapshot");
+                    int length = getLength(block);
+                    if (length < ElementSlots.NULL_LENGTH || length > block.remaining())
+                        throw new IOException("Corrupted deque snapshot");
+                    if (length == ElementSlots.NULL_LENGTH) {
+                        consumer.accept(null);
+                    } else {
+                        consumer.accept(codec.decode(block, block.position(), length));
+                        block.position(block.position() + length);
+                    }
+                    read++;
+                }
+            }
+            return (count);
+        } finally {
+            if (inflater != null)
+                inflater.end();
+        }
+    }
+
+    /**
+     * Writes the length of a record plus one as an unsigned varint: seven bits per byte, lowest
+     * first, with the high bit set on every byte but the last.
+     */
+    private static void putLength(ByteBuffer block, int length) {
+        int value = length + 1;
+        while ((value & ~0x7F) != 0) {
+            block.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        block.put((byte) value);
+    }
+
+    /**
+     * Reads the length of a record written by {@link #putLength(ByteBuffer, int)}.
+     *
+     * @throws IOException if the varint is truncated or longer than an int
+     */
+    private static int getLength(ByteBuffer block) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            if (!block.hasRemaining())
+                throw new IOException("Corrupted deque snapshot");
+            byte b = block.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+                return (value - 1);
+        }
+        throw new IOException("Corrupted deque snapshot");
+    }
+
+    private static ByteBuffer writeBlock(WritableByteChannel channel, ByteBuffer block, ByteBuffer output,
+                                         Deflater deflater) throws IOException {
+        block.flip();
+        int rawLength = block.remaining();
+        output.clear().position(BLOCK_HEADER_SIZE);
+        if (deflater == null) {
+            output.put(block);
+        } else {
+            deflater.reset();
+            deflater.setInput(block);
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (!output.hasRemaining()) {
+                    ByteBuffer larger = ByteBuffer.allocate(output.capacity() * 2);
+                    output = larger.put(output.flip());
+                }
+                deflater.deflate(output);
+            }
+        }
+        output.putInt(0, output.position() - BLOCK_HEADER_SIZE).putInt(Integer.BYTES, rawLength);
+        writeFully(channel, output.flip());
+        block.clear();
+        return (output);
+    }
+
+    private static void inflate(Inflater inflater, ByteBuffer stored, ByteBuffer block) throws IOException {
+        inflater.reset();
+        inflater.setInput(stored);
+        try {
+            while (block.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(block) == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted deque snapshot", e);
+        }
+        if (block.hasRemaining() || !inflater.finished())
+            throw new IOException("Corrupted deque snapshot");
+        block.flip();
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    private static ByteBuffer readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0)
+                throw new EOFException("Truncated deque snapshot");
+        }
+        return (buffer.flip());
+    }
+}
@@ -0,0 +1,50 @@
+package org.mps.deque;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * The class contains methods to release the native memory of direct and mapped buffers
+ * without waiting for the garbage collector. It relies on {@code sun.misc.Unsafe.invokeCleaner};
+ * when that is not available the buffers are left to the garbage collector.
+ */
+final class DirectBuffers {
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private DirectBuffers() {
+    }
+
+    /**
+     * Frees the native memory of the buffer. The buffer must not be used afterwards.
+     *
+     * @param buffer a direct or mapped buffer that is not a slice or duplicate
+     */
+    static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null || buffer == null || !buffer.isDirect())
+            return;
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            // Left to the garbage collector
+        }
+    }
+}
@@ -1,5 +1,18 @@
 package org.mps.deque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A double-ended queue or deque is a linear collection that supports element
@@ -7,7 +20,7 @@ import java.util.Comparator;
  *
  * @param <T> the type of elements held in this deque
  */
-public interface DoubleEndedQueue<T> {
+public interface DoubleEndedQueue<T> extends Iterable<T> {
     // Basic operations
 
     /**
@@ -53,6 +66,56 @@ public interface DoubleEndedQueue<T> {
      */
     T last();
 
+    /**
+     * Returns the first element of this deque without throwing when it is empty.
+     *
+     * @return the first element of this deque, or {@code null} if the deque is empty
+     */
+    default T peekFirst() {
+        return size() == 0 ? null : first();
+    }
+
+    /**
+     * Returns the last element of this deque without throwing when it is empty.
+     *
+     * @return the last element of this deque, or {@code null} if the deque is empty
+     */
+    default T peekLast() {
+        return size() == 0 ? null : last();
+    }
+
+    /**
+     * Removes and returns the first element of this deque without throwing when it is empty.
+     * <p>
+     * A {@code null} result is ambiguous if the deque holds null elements; {@link #size()}
+     * tells both cases apart.
+     *
+     * @return the first element of this deque, or {@code null} if the deque is empty
+     */
+    default T pollFirst() {
+        if (size() == 0)
+            return null;
+        T item = first();
+        deleteFirst();
+        return item;
+    }
+
+    /**
+     * Removes and returns the last element of this deque without throwing when it is empty.
+     * <p>
+     * A {@code null} result is ambiguous if the deque holds null elements; {@link #size()}
+     * tells both cases apart.
+     *
+     * @return the last element of this deque, or {@code null} if the deque is empty
+     */
+    default T pollLast() {
+        if (size() == 0)
+            return null;
+        T item = last();
+        deleteLast();
+        return item;
+    }
+
     /**
      * Returns the number of elements in this deque.
      *
@@ -100,4 +163,147 @@ public interface DoubleEndedQueue<T> {
      * @param comparator the {@code Comparator} used to compare deque elements
      */
     void sort(Comparator<? super T> comparator);
-}
\ No newline at end of file
+
+    // Bulk operations
+
+    /**
+     * Inserts the specified elements at the end of this deque, in iteration order.
+     *
+     * @param values the values to be inserted
+     */
+    default void appendAll(Iterable<? extends T> values) {
+        for (T value : values)
+            append(value);
+    }
+
+    /**
+     * Inserts the specified elements at the front of this deque, keeping their iteration order;
+     * that is, the first value becomes the first element of this deque.
+     *
+     * @param values the values to be inserted
+     */
+    default void prependAll(Iterable<? extends T> values) {
+        List<T> buffer = new ArrayList<>();
+        for (T value : values)
+            buffer.add(value);
+        for (int i = buffer.size() - 1; i >= 0; i--)
+            prepend(buffer.get(i));
+    }
+
+    /**
+     * Deletes up to {@code maxElements} elements from the front of this deque and hands them to
+     * the specified consumer, in order.
+     *
+     * @param maxElements the maximum number of elements to delete
+     * @param consumer    the consumer of the deleted elements
+     * @return the number of elements deleted
+     * @throws IllegalArgumentException if {@code maxElements} is negative
+     */
+    default int drainFirst(int maxElements, Consumer<? super T> consumer) {
+        if (maxElements < 0)
+            throw new IllegalArgumentException("Negative number of elements: " + maxElements);
+        int drained = 0;
+        while (drained < maxElements && size() > 0) {
+            T item = first();
+            deleteFirst();
+            consumer.accept(item);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Removes every occurrence of the elements contained in the specified collection, as
+     * {@link #removeIf(Predicate)} with {@code values::contains}. A collection that is not a
+     * {@link Set} is copied into a {@link HashSet} first, so the whole operation takes time
+     * proportional to the size of this deque plus the size of the collection.
+     *
+     * @param values the values to be removed from this deque
+     * @return {@code true} if any element was removed
+     */
+    default boolean removeAll(Collection<?> values) {
+        Collection<?> lookup = values instanceof Set ? values : new HashSet<>(values);
+        return removeIf(lookup::contains);
+    }
+
+    /**
+     * Removes every element of this deque that satisfies the specified predicate, keeping the
+     * order of the remaining ones.
+     * <p>
+     * The default implementation tests every element first, so the deque is unchanged if the
+     * predicate throws, and then rotates the deque once through its ends.
+     *
+     * @param filter the predicate that returns {@code true} for the elements to be removed
+     * @return {@code true} if any element was removed
+     */
+    default boolean removeIf(Predicate<? super T> filter) {
+        BitSet removed = new BitSet();
+        int size = 0;
+        for (T item : this) {
+            if (filter.test(item))
+                removed.set(size);
+            size++;
+        }
+        if (removed.isEmpty())
+            return false;
+        for (int i = 0; i < size; i++) {
+            T item = first();
+            deleteFirst();
+            if (!removed.get(i))
+                append(item);
+        }
+        return true;
+    }
+
+    // Iteration
+
+    /**
+     * Returns an iterator over the elements of this deque, from first to last.
+     * <p>
+     * Unless the implementation states otherwise, the iterator is fail-fast: once the deque is
+     * modified by anything but the iterator, it throws a
+     * {@link java.util.ConcurrentModificationException} on the next call to {@code next}.
+     *
+     * @return an iterator over the elements of this deque, from first to last
+     */
+    @Override
+    Iterator<T> iterator();
+
+    /**
+     * Returns an iterator over the elements of this deque, from last to first. It behaves as
+     * {@link #iterator()} on concurrent modifications.
+     *
+     * @return an iterator over the elements of this deque, from last to first
+     */
+    Iterator<T> descendingIterator();
+
+    /**
+     * Returns a {@link Spliterator} over the elements of this deque that reports
+     * {@link Spliterator#SIZED} and {@link Spliterator#ORDERED}.
+     *
+     * @return a {@code Spliterator} over the elements of this deque
+     */
+    @Override
+    default Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED);
+    }
+
+    /**
+     * Returns a sequential {@code Stream} over the elements of this deque, from first to last.
+     *
+     * @return a sequential {@code Stream} over the elements of this deque
+     */
+    default Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a possibly parallel {@code Stream} over the elements of this deque. How well it
+     * scales depends on how the {@link #spliterator()} of the implementation splits.
+     *
+     * @return a possibly parallel {@code Stream} over the elements of this deque
+     */
+    default Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+}
@@ -4,4 +4,16 @@ public class DoubleEndedQueueException extends RuntimeException{
     public DoubleEndedQueueException(String msg){
         super(msg);
     }
+
+    /**
+     * Creates the exception without suppression and, if {@code writableStackTrace} is
+     * {@code false}, without filling in the stack trace, which is the costly part of throwing
+     * on a hot path such as an empty deque.
+     *
+     * @param msg                the detail message
+     * @param writableStackTrace whether the stack trace is captured
+     */
+    public DoubleEndedQueueException(String msg, boolean writableStackTrace){
+        super(msg, null, false, writableStackTrace);
+    }
 }
@@ -1,44 +1,111 @@
 package org.mps.deque;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * The class contains methods a double linked list
+ * <p>
+ * Node pooling can be enabled through {@link #DoublyLinkedListDeque(int)}: the nodes unlinked
+ * by {@link #deleteFirst()}, {@link #deleteLast()} and {@link #remove(Object)} are kept in a
+ * bounded free list and reused by {@link #prepend(Object)} and {@link #append(Object)}, so a
+ * deque whose size stays within the pool capacity stops allocating nodes.
+ * <p>
+ * The iterators walk the nodes directly and are fail-fast: every structural modification
+ * increments a modification counter that they check on each step. The spliterator splits off
+ * batches of nodes copied into arrays, so parallel streams spread the work over several threads.
+ * <p>
+ * Operation counters are enabled through {@link #setMetrics(DequeMetrics)}. While they are
+ * disabled every operation only checks that the counters are missing.
  * @author Alba Ruiz Gutiérrez
  * @author José Manuel Sánchez Rico
  */
 public class DoublyLinkedListDeque<T> implements DoubleEndedQueue<T> {
+    private static final int SPLIT_BATCH_UNIT = 1 << 10;
+    private static final int SPLIT_MAX_BATCH = 1 << 25;
+
     private DequeNode<T> first;
     private DequeNode<T> last;
     private int size;
+    private DequeNode<T> cursor;
+    private int cursorIndex;
+    private int modCount;
+    private final int nodePoolCapacity;
+    private DequeNode<T> nodePool;
+    private int pooledNodes;
+    private long nodePoolHits;
+    private long nodePoolMisses;
+    private DequeMetrics metrics;
+
+    public DoublyLinkedListDeque() {
+        this(0);
+    }
+
+    /**
+     * @param nodePoolCapacity maximum number of unlinked nodes kept for reuse; zero disables pooling
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public DoublyLinkedListDeque(int nodePoolCapacity) {
+        if (nodePoolCapacity < 0)
+            throw new IllegalArgumentException("Node pool capacity can't be negative");
+        this.nodePoolCapacity = nodePoolCapacity;
+    }
 
     @Override
     public void prepend(T value) {
-        DequeNode<T> newNode = new DequeNode<>(value, null, first);
+        DequeNode<T> newNode = newNode(value, null, first);
         if (first != null)
             first.setPrevious(newNode);
         if (last == null)
             last = newNode;
         first = newNode;
         size++;
+        modCount++;
+        if (cursor != null)
+            cursorIndex++;
+        if (metrics != null)
+            metrics.recordInsertions(1, size);
     }
 
     @Override
     public void append(T value) {
-        DequeNode<T> newNode = new DequeNode<>(value, last, null);
+        DequeNode<T> newNode = newNode(value, last, null);
         if (last != null)
             last.setNext(newNode);
         if (first == null)
             first = newNode;
         last = newNode;
         size++;
+        modCount++;
+        if (metrics != null)
+            metrics.recordInsertions(1, size);
     }
 
     @Override
     public void deleteFirst() {
-        if (first == null)
-            throw new DoubleEndedQueueException("Empty deque");
+        if (first == null) {
+            if (metrics != null)
+                metrics.recordEmptyAccess();
+            throw new DoubleEndedQueueException("Empty deque", false);
+        }
+        if (cursor == first)
+            cursor = null;
+        else
+            cursorIndex--;
+        DequeNode<T> deletedNode = first;
         if (first.isLastNode()) {
             first = null;
             last = null;
@@ -47,12 +114,22 @@ public class DoublyLinkedListDeque<T> implements DoubleEndedQueue<T> {
             first.setPrevious(null);
         }
         size--;
+        modCount++;
+        releaseNode(deletedNode);
+        if (metrics != null)
+            metrics.recordDeletions(1);
     }
 
     @Override
     public void deleteLast() {
-        if (last == null)
-            throw new DoubleEndedQueueException("Empty deque");
+        if (last == null) {
+            if (metrics != null)
+                metrics.recordEmptyAccess();
+            throw new DoubleEndedQueueException("Empty deque", false);
+        }
+        if (cursor == last)
+            cursor = null;
+        DequeNode<T> deletedNode = last;
         if (last.isFirstNode()) {
             first = null;
             last = null;
@@ -61,39 +138,147 @@ public class DoublyLinkedListDeque<T> implements DoubleEndedQueue<T> {
             last.setNext(null);
         }
         size--;
+        modCount++;
+        releaseNode(deletedNode);
+        if (metrics != null)
+            metrics.recordDeletions(1);
     }
 
     @Override
     public T first() {
-        if (first == null)
-            throw new DoubleEndedQueueException("No items left");
+        if (first == null) {
+            if (metrics != null)
+                metrics.recordEmptyAccess();
+            throw new DoubleEndedQueueException("No items left", false);
+        }
         return first.getItem();
     }
 
     @Override
     public T last() {
-        if (last == null)
-            throw new DoubleEndedQueueException("No items left");
+        if (last == null) {
+            if (metrics != null)
+                metrics.recordEmptyAccess();
+            throw new DoubleEndedQueueException("No items left", false);
+        }
         return last.getItem();
     }
 
+    @Override
+    public T peekFirst() {
+        return first == null ? null : first.getItem();
+    }
+
+    @Override
+    public T peekLast() {
+        return last == null ? null : last.getItem();
+    }
+
+    @Override
+    public T pollFirst() {
+        if (first == null)
+            return null;
+        T item = first.getItem();
+        deleteFirst();
+        return item;
+    }
+
+    @Override
+    public T pollLast() {
+        if (last == null)
+            return null;
+        T item = last.getItem();
+        deleteLast();
+        return item;
+    }
+
     @Override
     public int size() {
         return this.size;
     }
 
+    /**
+     * Returns the maximum number of unlinked nodes kept for reuse.
+     *
+     * @return the node pool capacity, zero if pooling is disabled
+     */
+    public int getNodePoolCapacity() {
+        return this.nodePoolCapacity;
+    }
+
+    /**
+     * Returns the number of nodes taken from the node pool instead of being allocated.
+     *
+     * @return the number of node pool hits
+     */
+    public long getNodePoolHits() {
+        return this.nodePoolHits;
+    }
+
+    /**
+     * Returns the number of nodes allocated because the node pool was empty or disabled.
+     *
+     * @return the number of node pool misses
+     */
+    public long getNodePoolMisses() {
+        return this.nodePoolMisses;
+    }
+
+    /**
+     * Returns the counters this deque records its operations in.
+     *
+     * @return the counters, or {@code null} if they are disabled
+     */
+    public DequeMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Enables or disables the operation counters. Besides the operations, the deque counts the
+     * nodes walked by {@link #get(int)}, {@link #contains(Object)} and {@link #remove(Object)},
+     * and the comparisons made and nodes relinked by {@link #sort(Comparator)}.
+     *
+     * @param metrics the counters to record the operations in, or {@code null} to disable them
+     */
+    public void setMetrics(DequeMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Walks from whichever of the first node, the last node or the node returned by the previous
+     * call is nearer to {@code index}, and remembers the node it reaches, so sequential and
+     * nearby accesses take constant time.
+     */
     public T get(int index) {
         if (size <= index || index < 0) {
             throw new IndexOutOfBoundsException();
         }
         DequeNode<T> iteratorNode = first;
-        for (int i = 0; i < index; i++) {
+        int iteratorIndex = 0;
+        if (size - 1 - index < index) {
+            iteratorNode = last;
+            iteratorIndex = size - 1;
+        }
+        if (cursor != null && Math.abs(index - cursorIndex) < Math.abs(index - iteratorIndex)) {
+            iteratorNode = cursor;
+            iteratorIndex = cursorIndex;
+        }
+        if (metrics != null)
+            metrics.recordGet(Math.abs(index - iteratorIndex));
+        for (; iteratorIndex < index; iteratorIndex++) {
             iteratorNode = iteratorNode.getNext();
         }
+        for (; iteratorIndex > index; iteratorIndex--) {
+            iteratorNode = iteratorNode.getPrevious();
+        }
+        cursor = iteratorNode;
+        cursorIndex = index;
         return (iteratorNode.getItem());
     }
 
     public boolean contains(T value) {
+        if (metrics != null)
+            return (countedContains(value));
         DequeNode<T> iteratorNode = first;
         boolean found = false;
         while (iteratorNode != null && !found) {
@@ -103,41 +288,471 @@ public class DoublyLinkedListDeque<T> implements DoubleEndedQueue<T> {
         return (found);
     }
 
+    /**
+     * Walks the nodes as {@link #contains(Object)} does while counting them, so the walk of a
+     * deque without counters keeps no count.
+     */
+    private boolean countedContains(T value) {
+        DequeNode<T> iteratorNode = first;
+        int traversed = 0;
+        boolean found = false;
+        while (iteratorNode != null && !found) {
+            found = Objects.equals(iteratorNode.getItem(), value);
+            iteratorNode = iteratorNode.getNext();
+            traversed++;
+        }
+        metrics.recordContains(traversed);
+        return (found);
+    }
+
     public void remove(T value) {
         if(size == 0){
-            throw new DoubleEndedQueueException("Can't remove from an empty deque");
+            if (metrics != null)
+                metrics.recordEmptyAccess();
+            throw new DoubleEndedQueueException("Can't remove from an empty deque", false);
         }
         DequeNode<T> iteratorNode = first;
+        int index = 0;
         boolean found = false;
         while (iteratorNode != null && !found) {
             found = Objects.equals(iteratorNode.getItem(), value);
-            if (!found)
+            if (!found) {
                 iteratorNode = iteratorNode.getNext();
+                index++;
+            }
         }
+        if (metrics != null)
+            metrics.recordRemove(found ? index + 1 : index);
         if (found) {
-            if (iteratorNode != first)
-                iteratorNode.getPrevious().setPrevious(iteratorNode.getNext());
-            if (iteratorNode != last)
-                iteratorNode.getNext().setPrevious(iteratorNode.getPrevious());
-            if (iteratorNode == first)
-                first = iteratorNode.getNext();
-            if (iteratorNode == last)
-                last = iteratorNode.getPrevious();
+            if (cursor == iteratorNode)
+                cursor = null;
+            else if (cursorIndex > index)
+                cursorIndex--;
+            unlink(iteratorNode);
             size--;
+            modCount++;
         }
     }
 
+    /**
+     * Sorts the deque with a bottom-up natural merge sort that relinks the nodes instead of
+     * swapping their items. Strictly descending runs are reversed first, so already sorted and
+     * reverse-sorted deques are sorted in linear time. The sort is stable and null items are
+     * placed at the front of the deque.
+     */
     public void sort(Comparator<? super T> comparator){
-        while (!isSorted(comparator)) {
-            DequeNode<T> iteratorNode = first;
+        if (size <= 1)
+            return;
+        cursor = null;
+        modCount++;
+        if (metrics != null)
+            comparator = metrics.countingComparator(comparator);
+        reverseDescendingRuns(comparator);
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            DequeNode<T> runStart = first;
+            while (runStart != null) {
+                DequeNode<T> runEnd = endOfRun(runStart, comparator);
+                DequeNode<T> nextRunStart = runEnd.getNext();
+                if (nextRunStart == null)
+                    break;
+                DequeNode<T> nextRunEnd = endOfRun(nextRunStart, comparator);
+                runStart = merge(runStart, runEnd, nextRunStart, nextRunEnd, comparator).getNext();
+                merged = true;
+            }
+        }
+    }
+
+    /**
+     * Links the values into a chain of nodes first and then splices the whole chain after the
+     * last node, so the deque is only touched once. The deque itself can be appended.
+     */
+    @Override
+    public void appendAll(Iterable<? extends T> values) {
+        DequeNode<T> chainFirst = null;
+        DequeNode<T> chainLast = null;
+        int count = 0;
+        for (T value : values) {
+            DequeNode<T> newNode = newNode(value, chainLast, null);
+            if (chainLast == null)
+                chainFirst = newNode;
+            else
+                chainLast.setNext(newNode);
+            chainLast = newNode;
+            count++;
+        }
+        if (count == 0)
+            return;
+        chainFirst.setPrevious(last);
+        if (last == null)
+            first = chainFirst;
+        else
+            last.setNext(chainFirst);
+        last = chainLast;
+        size += count;
+        modCount++;
+        if (metrics != null)
+            metrics.recordInsertions(count, size);
+    }
+
+    /**
+     * Links the values into a chain of nodes first and then splices the whole chain before the
+     * first node, so the deque is only touched once. The deque itself can be prepended.
+     */
+    @Override
+    public void prependAll(Iterable<? extends T> values) {
+        DequeNode<T> chainFirst = null;
+        DequeNode<T> chainLast = null;
+        int count = 0;
+        for (T value : values) {
+            DequeNode<T> newNode = newNode(value, chainLast, null);
+            if (chainLast == null)
+                chainFirst = newNode;
+            else
+                chainLast.setNext(newNode);
+            chainLast = newNode;
+            count++;
+        }
+        if (count == 0)
+            return;
+        chainLast.setNext(first);
+        if (first == null)
+            last = chainLast;
+        else
+            first.setPrevious(chainLast);
+        first = chainFirst;
+        size += count;
+        modCount++;
+        if (metrics != null)
+            metrics.recordInsertions(count, size);
+        if (cursor != null)
+            cursorIndex += count;
+    }
+
+    /**
+     * Detaches the first nodes as a single chain before handing their items to the consumer,
+     * so the consumer always sees a consistent deque.
+     */
+    @Override
+    public int drainFirst(int maxElements, Consumer<? super T> consumer) {
+        if (maxElements < 0)
+            throw new IllegalArgumentException("Negative number of elements: " + maxElements);
+        int count = Math.min(maxElements, size);
+        if (count == 0)
+            return (0);
+        DequeNode<T> chainFirst = first;
+        DequeNode<T> chainLast = first;
+        for (int i = 1; i < count; i++)
+            chainLast = chainLast.getNext();
+        first = chainLast.getNext();
+        if (first == null)
+            last = null;
+        else
+            first.setPrevious(null);
+        chainLast.setNext(null);
+        size -= count;
+        modCount++;
+        if (metrics != null)
+            metrics.recordDeletions(count);
+        if (cursorIndex < count)
+            cursor = null;
+        else
+            cursorIndex -= count;
+        DequeNode<T> iteratorNode = chainFirst;
+        while (iteratorNode != null) {
+            DequeNode<T> next = iteratorNode.getNext();
+            T item = iteratorNode.getItem();
+            releaseNode(iteratorNode);
+            consumer.accept(item);
+            iteratorNode = next;
+        }
+        return (count);
+    }
+
+    /**
+     * Unlinks the matching nodes in a single walk from the first node. If the predicate throws,
+     * the nodes already unlinked stay removed.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        int removed = 0;
+        DequeNode<T> iteratorNode = first;
+        try {
             while (iteratorNode != null) {
-                if (iteratorNode.getNext() != null
-                        && !isSortedNodes(iteratorNode, iteratorNode.getNext(), comparator))
-                    swapNodesValues(iteratorNode, iteratorNode.getNext());
+                DequeNode<T> next = iteratorNode.getNext();
+                if (filter.test(iteratorNode.getItem())) {
+                    unlink(iteratorNode);
+                    removed++;
+                }
+                iteratorNode = next;
+            }
+        } finally {
+            if (removed > 0) {
+                size -= removed;
+                modCount++;
+                if (metrics != null)
+                    metrics.recordDeletions(removed);
+                cursor = null;
+            }
+        }
+        return (removed > 0);
+    }
+
+    /**
+     * Moves every node of {@code other} to the end of this deque in constant time, leaving
+     * {@code other} empty.
+     *
+     * @param other the deque whose elements are moved
+     * @throws IllegalArgumentException if {@code other} is this deque
+     */
+    public void appendDeque(DoublyLinkedListDeque<T> other) {
+        if (other == this)
+            throw new IllegalArgumentException("Can't append a deque to itself");
+        if (other.size == 0)
+            return;
+        other.first.setPrevious(last);
+        if (last == null)
+            first = other.first;
+        else
+            last.setNext(other.first);
+        last = other.last;
+        size += other.size;
+        modCount++;
+        if (metrics != null)
+            metrics.recordInsertions(other.size, size);
+        other.clearNodes();
+    }
+
+    /**
+     * Moves every node of {@code other} to the front of this deque in constant time, leaving
+     * {@code other} empty.
+     *
+     * @param other the deque whose elements are moved
+     * @throws IllegalArgumentException if {@code other} is this deque
+     */
+    public void prependDeque(DoublyLinkedListDeque<T> other) {
+        if (other == this)
+            throw new IllegalArgumentException("Can't prepend a deque to itself");
+        if (other.size == 0)
+            return;
+        other.last.setNext(first);
+        if (first == null)
+            last = other.last;
+        else
+            first.setPrevious(other.last);
+        first = other.first;
+        size += other.size;
+        modCount++;
+        if (metrics != null)
+            metrics.recordInsertions(other.size, size);
+        if (cursor != null)
+            cursorIndex += other.size;
+        other.clearNodes();
+    }
+
+    /**
+     * Splits this deque at {@code index}: the elements from {@code index} to the end are moved
+     * to a new deque, with the same node pool capacity, and this deque keeps the ones before it.
+     * The split node is reached walking from the nearer end and no node is allocated.
+     *
+     * @param index position of the first element moved to the new deque
+     * @return a new deque holding the elements from {@code index} to the end
+     * @throws IndexOutOfBoundsException if the index is negative or greater than the size
+     */
+    public DoublyLinkedListDeque<T> splitAt(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        DoublyLinkedListDeque<T> tail = new DoublyLinkedListDeque<>(nodePoolCapacity);
+        if (index == size)
+            return (tail);
+        DequeNode<T> iteratorNode;
+        if (index < size - index) {
+            iteratorNode = first;
+            for (int i = 0; i < index; i++)
                 iteratorNode = iteratorNode.getNext();
+        } else {
+            iteratorNode = last;
+            for (int i = size - 1; i > index; i--)
+                iteratorNode = iteratorNode.getPrevious();
+        }
+        tail.first = iteratorNode;
+        tail.last = last;
+        tail.size = size - index;
+        last = iteratorNode.getPrevious();
+        if (last == null)
+            first = null;
+        else
+            last.setNext(null);
+        iteratorNode.setPrevious(null);
+        size = index;
+        modCount++;
+        if (cursorIndex >= index)
+            cursor = null;
+        return (tail);
+    }
 
-            }
+    /**
+     * Writes a compact snapshot of this deque to the channel: a short header followed by blocks
+     * of up to 64 KiB holding every element as its encoded length and its encoding, optionally
+     * deflated block by block. The blocks are built in a buffer, so the channel is written in
+     * large chunks and needs no extra buffering.
+     *
+     * @param channel    the channel to write to; it is not closed
+     * @param codec      the codec used to encode the elements
+     * @param compressed whether the blocks are deflated
+     * @throws IllegalArgumentException if the encoding of an element is longer than the maximum
+     *                                  length of the codec
+     * @throws IOException              if the channel can't be written
+     */
+    public void writeTo(WritableByteChannel channel, ElementCodec<T> codec, boolean compressed) throws IOException {
+        DequeSnapshots.write(this, size, codec, compressed, channel);
+    }
+
+    /**
+     * Writes a compact snapshot of this deque to the stream, as
+     * {@link #writeTo(WritableByteChannel, ElementCodec, boolean)} does.
+     *
+     * @param output the stream to write to; it is neither flushed nor closed
+     */
+    public void writeTo(OutputStream output, ElementCodec<T> codec, boolean compressed) throws IOException {
+        writeTo(Channels.newChannel(output), codec, compressed);
+    }
+
+    /**
+     * Reads a deque from a snapshot written by {@link #writeTo(WritableByteChannel, ElementCodec, boolean)}.
+     * The nodes are linked as the blocks are decoded, in a single pass and without the checks
+     * of {@link #append(Object)}.
+     *
+     * @param channel the channel to read from; it is left after the last byte of the snapshot
+     * @param codec   the codec used to decode the elements
+     * @return a new deque holding the elements of the snapshot
+     * @throws java.io.EOFException if the channel ends before the snapshot
+     * @throws IOException          if the channel can't be read or does not hold a valid snapshot
+     */
+    public static <T> DoublyLinkedListDeque<T> readFrom(ReadableByteChannel channel, ElementCodec<T> codec)
+            throws IOException {
+        DoublyLinkedListDeque<T> deque = new DoublyLinkedListDeque<>();
+        DequeSnapshots.read(channel, codec, deque::linkRestored);
+        return (deque);
+    }
+
+    /**
+     * Reads a deque from a snapshot in the stream, as
+     * {@link #readFrom(ReadableByteChannel, ElementCodec)} does.
+     *
+     * @param input the stream to read from; it is left after the last byte of the snapshot
+     */
+    public static <T> DoublyLinkedListDeque<T> readFrom(InputStream input, ElementCodec<T> codec) throws IOException {
+        return (readFrom(Channels.newChannel(input), codec));
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new NodeIterator(first, false);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new NodeIterator(last, true);
+    }
+
+    /**
+     * Returns a late-binding, fail-fast spliterator that reports {@link Spliterator#SIZED},
+     * {@link Spliterator#SUBSIZED} and {@link Spliterator#ORDERED}. A linked list can't be split
+     * in the middle, so {@code trySplit} copies the next batch of nodes into an array and hands it
+     * over as an array spliterator; every batch is 1024 elements longer than
+     * the previous one, so the first batches are handed over early and the later ones pay for
+     * the walk.
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new NodeSpliterator();
+    }
+
+    private DequeNode<T> newNode(T value, DequeNode<T> previous, DequeNode<T> next) {
+        if (nodePool == null) {
+            nodePoolMisses++;
+            return (new DequeNode<>(value, previous, next));
         }
+        DequeNode<T> node = nodePool;
+        nodePool = node.getNext();
+        pooledNodes--;
+        nodePoolHits++;
+        node.setItem(value);
+        node.setPrevious(previous);
+        node.setNext(next);
+        return (node);
+    }
+
+    private void linkRestored(T value) {
+        DequeNode<T> newNode = new DequeNode<>(value, last, null);
+        if (last == null)
+            first = newNode;
+        else
+            last.setNext(newNode);
+        last = newNode;
+        size++;
+    }
+
+    private void releaseNode(DequeNode<T> node) {
+        if (pooledNodes == nodePoolCapacity)
+            return;
+        node.setItem(null);
+        node.setPrevious(null);
+        node.setNext(nodePool);
+        nodePool = node;
+        pooledNodes++;
+    }
+
+    DequeNode<T> firstNode() {
+        return (first);
+    }
+
+    DequeNode<T> lastNode() {
+        return (last);
+    }
+
+    /**
+     * Unlinks a node of this deque found by other means than a walk, so its position, and the
+     * one of the cursor, is unknown.
+     */
+    void removeNode(DequeNode<T> node) {
+        unlink(node);
+        size--;
+        modCount++;
+        cursor = null;
+    }
+
+    /**
+     * Empties the deque without releasing its nodes, once {@link #appendDeque} or
+     * {@link #prependDeque} moved them to another deque. It is called on the deque the nodes
+     * were moved from, whatever the class of the deque they were moved to, so subclasses that
+     * keep state about their nodes override it to reset that state and call this method.
+     */
+    protected void clearNodes() {
+        first = null;
+        last = null;
+        size = 0;
+        cursor = null;
+        modCount++;
+    }
+
+    /**
+     * Unlinks the node and returns it to the node pool; the caller updates the size.
+     */
+    private void unlink(DequeNode<T> node) {
+        if (node != first)
+            node.getPrevious().setNext(node.getNext());
+        if (node != last)
+            node.getNext().setPrevious(node.getPrevious());
+        if (node == first)
+            first = node.getNext();
+        if (node == last)
+            last = node.getPrevious();
+        releaseNode(node);
     }
 
     private boolean isSortedNodes(DequeNode<T> iteratorNode, DequeNode<T> next, Comparator<? super T> comparator) {
@@ -151,22 +766,192 @@ public class DoublyLinkedListDeque<T> implements DoubleEndedQueue<T> {
 
     }
 
-    private void swapNodesValues(DequeNode<T> first, DequeNode<T> next) {
-        T aux = first.getItem();
-        first.setItem(next.getItem());
-        next.setItem(aux);
+    private DequeNode<T> endOfRun(DequeNode<T> runStart, Comparator<? super T> comparator) {
+        DequeNode<T> iteratorNode = runStart;
+        while (iteratorNode.getNext() != null
+                && isSortedNodes(iteratorNode, iteratorNode.getNext(), comparator))
+            iteratorNode = iteratorNode.getNext();
+        return (iteratorNode);
     }
 
-    private boolean isSorted(Comparator<? super T> comparator) {
-        if (size <= 1)
-            return  true;
-        DequeNode<T> iteratorNode = first.getNext();
-        while (iteratorNode != null) {
-            if (!isSortedNodes(iteratorNode.getPrevious(), iteratorNode, comparator)) {
+    private void reverseDescendingRuns(Comparator<? super T> comparator) {
+        DequeNode<T> runStart = first;
+        while (runStart != null) {
+            DequeNode<T> runEnd = runStart;
+            while (runEnd.getNext() != null && !isSortedNodes(runEnd, runEnd.getNext(), comparator))
+                runEnd = runEnd.getNext();
+            if (runEnd != runStart) {
+                reverseRun(runStart, runEnd);
+                runEnd = runStart;
+            }
+            runStart = runEnd.getNext();
+        }
+    }
+
+    private void reverseRun(DequeNode<T> runStart, DequeNode<T> runEnd) {
+        DequeNode<T> before = runStart.getPrevious();
+        DequeNode<T> after = runEnd.getNext();
+        DequeNode<T> iteratorNode = runStart;
+        while (iteratorNode != after) {
+            DequeNode<T> next = iteratorNode.getNext();
+            iteratorNode.setNext(iteratorNode.getPrevious());
+            iteratorNode.setPrevious(next);
+            iteratorNode = next;
+        }
+        link(before, runEnd);
+        runStart.setNext(after);
+        linkTail(runStart, after);
+    }
+
+    /**
+     * Merges the adjacent runs {@code left..leftEnd} and {@code right..rightEnd} in place,
+     * taking from the left run on ties to keep the sort stable.
+     *
+     * @return the last node of the merged run
+     */
+    private DequeNode<T> merge(DequeNode<T> left, DequeNode<T> leftEnd, DequeNode<T> right,
+                               DequeNode<T> rightEnd, Comparator<? super T> comparator) {
+        DequeNode<T> leftStop = right;
+        DequeNode<T> rightStop = rightEnd.getNext();
+        DequeNode<T> tail = left.getPrevious();
+        while (left != leftStop && right != rightStop) {
+            DequeNode<T> taken;
+            if (isSortedNodes(left, right, comparator)) {
+                taken = left;
+                left = left.getNext();
+            } else {
+                taken = right;
+                right = right.getNext();
+            }
+            link(tail, taken);
+            tail = taken;
+        }
+        if (left != leftStop) {
+            link(tail, left);
+            tail = leftEnd;
+        } else {
+            link(tail, right);
+            tail = rightEnd;
+        }
+        tail.setNext(rightStop);
+        linkTail(tail, rightStop);
+        return (tail);
+    }
+
+    private void link(DequeNode<T> previous, DequeNode<T> node) {
+        if (metrics != null)
+            metrics.recordSortSwap();
+        if (previous == null)
+            first = node;
+        else
+            previous.setNext(node);
+        node.setPrevious(previous);
+    }
+
+    private void linkTail(DequeNode<T> node, DequeNode<T> next) {
+        if (next == null)
+            last = node;
+        else
+            next.setPrevious(node);
+    }
+
+    private class NodeIterator implements Iterator<T> {
+        private DequeNode<T> nextNode;
+        private final boolean descending;
+        private final int expectedModCount = modCount;
+
+        NodeIterator(DequeNode<T> nextNode, boolean descending) {
+            this.nextNode = nextNode;
+            this.descending = descending;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (nextNode != null);
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (nextNode == null)
+                throw new NoSuchElementException();
+            T item = nextNode.getItem();
+            nextNode = descending ? nextNode.getPrevious() : nextNode.getNext();
+            return (item);
+        }
+    }
+
+    private class NodeSpliterator implements Spliterator<T> {
+        private DequeNode<T> current;
+        private int remaining = -1;
+        private int expectedModCount;
+        private int batch;
+
+        private int bind() {
+            if (remaining < 0) {
+                current = first;
+                remaining = size;
+                expectedModCount = modCount;
+            }
+            return (remaining);
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int length = bind();
+            if (length <= 1)
+                return (null);
+            int batchLength = Math.min(Math.min(batch + SPLIT_BATCH_UNIT, SPLIT_MAX_BATCH), length);
+            Object[] items = new Object[batchLength];
+            DequeNode<T> iteratorNode = current;
+            for (int i = 0; i < batchLength; i++) {
+                items[i] = iteratorNode.getItem();
+                iteratorNode = iteratorNode.getNext();
+            }
+            current = iteratorNode;
+            remaining -= batchLength;
+            batch = batchLength;
+            return (Spliterators.spliterator(items, 0, batchLength, Spliterator.ORDERED));
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            if (bind() == 0)
                 return (false);
+            T item = current.getItem();
+            current = current.getNext();
+            remaining--;
+            action.accept(item);
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return (true);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            int length = bind();
+            DequeNode<T> iteratorNode = current;
+            current = null;
+            remaining = 0;
+            for (int i = 0; i < length; i++) {
+                action.accept(iteratorNode.getItem());
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                iteratorNode = iteratorNode.getNext();
             }
-            iteratorNode = iteratorNode.getNext();
         }
-        return  (true);
+
+        @Override
+        public long estimateSize() {
+            return (bind());
+        }
+
+        @Override
+        public int characteristics() {
+            return (Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,155 @@
+package org.mps.deque;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts the elements of a deque to and from bytes so they can be stored outside the heap or
+ * written to snapshots. Codecs read and write with absolute positions, so they never move the
+ * position of the buffer.
+ * Null elements are never passed to a codec; deques store them with their own marker.
+ *
+ * @param <T> the type of elements encoded by this codec
+ */
+public interface ElementCodec<T> {
+
+    /**
+     * Returns the maximum number of bytes that the encoding of an element can take.
+     *
+     * @return the maximum encoded length of an element
+     */
+    int maxLength();
+
+    /**
+     * Returns the number of bytes that the encoding of the specified element takes.
+     *
+     * @param value the element to be encoded, never {@code null}
+     * @return the encoded length of the element
+     */
+    int encodedLength(T value);
+
+    /**
+     * Writes the encoding of the specified element starting at {@code offset}.
+     *
+     * @param value  the element to be encoded, never {@code null}
+     * @param buffer the buffer to write to
+     * @param offset the index of the first byte to write
+     */
+    void encode(T value, ByteBuffer buffer, int offset);
+
+    /**
+     * Reads an element from {@code length} bytes starting at {@code offset}.
+     *
+     * @param buffer the buffer to read from
+     * @param offset the index of the first byte to read
+     * @param length the number of bytes of the encoding
+     * @return the decoded element
+     */
+    T decode(ByteBuffer buffer, int offset, int length);
+
+    /**
+     * Returns a codec that stores integers in four bytes.
+     */
+    static ElementCodec<Integer> ofInteger() {
+        return new ElementCodec<>() {
+            @Override
+            public int maxLength() { return Integer.BYTES; }
+            @Override
+            public int encodedLength(Integer value) { return Integer.BYTES; }
+            @Override
+            public void encode(Integer value, ByteBuffer buffer, int offset) { buffer.putInt(offset, value); }
+            @Override
+            public Integer decode(ByteBuffer buffer, int offset, int length) { return buffer.getInt(offset); }
+        };
+    }
+
+    /**
+     * Returns a codec that stores longs in eight bytes.
+     */
+    static ElementCodec<Long> ofLong() {
+        return new ElementCodec<>() {
+            @Override
+            public int maxLength() { return Long.BYTES; }
+            @Override
+            public int encodedLength(Long value) { return Long.BYTES; }
+            @Override
+            public void encode(Long value, ByteBuffer buffer, int offset) { buffer.putLong(offset, value); }
+            @Override
+            public Long decode(ByteBuffer buffer, int offset, int length) { return buffer.getLong(offset); }
+        };
+    }
+
+    /**
+     * Returns a codec that stores strings in UTF-8. The length and the bytes are computed from
+     * the characters, without encoding the string into an array first; an unpaired surrogate is
+     * stored as {@code '?'}, as {@link String#getBytes(java.nio.charset.Charset)} does.
+     *
+     * @param maxLength the maximum number of bytes of an encoded string
+     */
+    static ElementCodec<String> ofUtf8String(int maxLength) {
+        return new ElementCodec<>() {
+            @Override
+            public int maxLength() { return maxLength; }
+            @Override
+            public int encodedLength(String value) { return utf8Length(value); }
+            @Override
+            public void encode(String value, ByteBuffer buffer, int offset) { encodeUtf8(value, buffer, offset); }
+            @Override
+            public String decode(ByteBuffer buffer, int offset, int length) {
+                byte[] bytes = new byte[length];
+                buffer.get(offset, bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (isSurrogatePair(value, i)) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return (length);
+    }
+
+    private static void encodeUtf8(String value, ByteBuffer buffer, int offset) {
+        int position = offset;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put(position++, (byte) c);
+            } else if (c < 0x800) {
+                buffer.put(position++, (byte) (0xC0 | c >> 6));
+                buffer.put(position++, (byte) (0x80 | c & 0x3F));
+            } else if (isSurrogatePair(value, i)) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put(position++, (byte) (0xF0 | codePoint >> 18));
+                buffer.put(position++, (byte) (0x80 | codePoint >> 12 & 0x3F));
+                buffer.put(position++, (byte) (0x80 | codePoint >> 6 & 0x3F));
+                buffer.put(position++, (byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put(position++, (byte) '?');
+            } else {
+                buffer.put(position++, (byte) (0xE0 | c >> 12));
+                buffer.put(position++, (byte) (0x80 | c >> 6 & 0x3F));
+                buffer.put(position++, (byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private static boolean isSurrogatePair(String value, int index) {
+        return (Character.isHighSurrogate(value.charAt(index)) && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1)));
+    }
+}
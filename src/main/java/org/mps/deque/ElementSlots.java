@@ -0,0 +1,77 @@
+package org.mps.deque;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The class contains the slot layout shared by the deques that store their elements encoded by
+ * an {@link ElementCodec}. Every slot holds the encoded length as an int, or
+ * {@link #NULL_LENGTH} for a null element, followed by up to {@link ElementCodec#maxLength()}
+ * bytes, so all the slots of a deque have the same size.
+ */
+final class ElementSlots {
+    static final int NULL_LENGTH = -1;
+
+    private ElementSlots() {
+    }
+
+    static int slotSize(ElementCodec<?> codec) {
+        return (Integer.BYTES + codec.maxLength());
+    }
+
+    /**
+     * Returns the length to store for the value.
+     *
+     * @throws IllegalArgumentException if the encoding of the value does not fit in a slot
+     */
+    static <T> int encodedLength(ElementCodec<T> codec, T value) {
+        if (value == null)
+            return (NULL_LENGTH);
+        int length = codec.encodedLength(value);
+        if (length < 0 || length > codec.maxLength())
+            throw new IllegalArgumentException("Encoded element does not fit in a slot");
+        return (length);
+    }
+
+    static <T> T read(ElementCodec<T> codec, ByteBuffer buffer, int offset) {
+        int length = buffer.getInt(offset);
+        if (length == NULL_LENGTH)
+            return (null);
+        return (codec.decode(buffer, offset + Integer.BYTES, length));
+    }
+
+    static <T> void write(ElementCodec<T> codec, ByteBuffer buffer, int offset, T value, int length) {
+        buffer.putInt(offset, length);
+        if (value != null)
+            codec.encode(value, buffer, offset + Integer.BYTES);
+    }
+
+    /**
+     * Copies the used bytes of a slot, eight at a time while possible.
+     */
+    static void copy(ByteBuffer source, int sourceOffset, ByteBuffer target, int targetOffset) {
+        int length = Integer.BYTES + Math.max(0, source.getInt(sourceOffset));
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES)
+            target.putLong(targetOffset + i, source.getLong(sourceOffset + i));
+        for (; i < length; i++)
+            target.put(targetOffset + i, source.get(sourceOffset + i));
+    }
+
+    /**
+     * Swaps the used bytes of two slots, eight at a time while possible.
+     */
+    static void swap(ByteBuffer buffer, int offset, ByteBuffer other, int otherOffset) {
+        int length = Integer.BYTES + Math.max(0, Math.max(buffer.getInt(offset), other.getInt(otherOffset)));
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            long aux = buffer.getLong(offset + i);
+            buffer.putLong(offset + i, other.getLong(otherOffset + i));
+            other.putLong(otherOffset + i, aux);
+        }
+        for (; i < length; i++) {
+            byte aux = buffer.get(offset + i);
+            buffer.put(offset + i, other.get(otherOffset + i));
+            other.put(otherOffset + i, aux);
+        }
+    }
+}
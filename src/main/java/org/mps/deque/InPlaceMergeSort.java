@@ -0,0 +1,137 @@
+package org.mps.deque;
+
+/**
+ * The class contains a stable merge sort that needs no buffer: runs of insertion-sorted blocks
+ * are merged with the SymMerge algorithm, which moves elements by rotations. It works on any
+ * indexed sequence that can compare and swap its elements, in O(n log² n) swaps.
+ */
+final class InPlaceMergeSort {
+    private static final int INSERTION_SORT_BLOCK = 20;
+
+    /**
+     * An indexed sequence of elements.
+     */
+    interface Sequence {
+        /**
+         * Returns {@code true} if the element at {@code index} must go strictly before the
+         * element at {@code other}.
+         */
+        boolean isLess(int index, int other);
+
+        /**
+         * Swaps the elements at {@code index} and {@code other}.
+         */
+        void swap(int index, int other);
+    }
+
+    private InPlaceMergeSort() {
+    }
+
+    /**
+     * Sorts the first {@code length} elements of the sequence.
+     */
+    static void sort(Sequence sequence, int length) {
+        int blockSize = INSERTION_SORT_BLOCK;
+        int start = 0;
+        for (; start + blockSize <= length; start += blockSize)
+            insertionSort(sequence, start, start + blockSize);
+        insertionSort(sequence, start, length);
+        for (; blockSize < length; blockSize <<= 1) {
+            start = 0;
+            for (; start + 2 * blockSize <= length; start += 2 * blockSize)
+                symMerge(sequence, start, start + blockSize, start + 2 * blockSize);
+            if (start + blockSize < length)
+                symMerge(sequence, start, start + blockSize, length);
+        }
+    }
+
+    private static void insertionSort(Sequence sequence, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            for (int j = i; j > from && sequence.isLess(j, j - 1); j--)
+                sequence.swap(j, j - 1);
+        }
+    }
+
+    /**
+     * Merges the sorted ranges {@code [from, middle)} and {@code [middle, to)} in place.
+     */
+    private static void symMerge(Sequence sequence, int from, int middle, int to) {
+        if (middle - from == 1) {
+            int i = middle;
+            int j = to;
+            while (i < j) {
+                int h = (i + j) >>> 1;
+                if (sequence.isLess(h, from))
+                    i = h + 1;
+                else
+                    j = h;
+            }
+            for (int k = from; k < i - 1; k++)
+                sequence.swap(k, k + 1);
+            return;
+        }
+        if (to - middle == 1) {
+            int i = from;
+            int j = middle;
+            while (i < j) {
+                int h = (i + j) >>> 1;
+                if (!sequence.isLess(middle, h))
+                    i = h + 1;
+                else
+                    j = h;
+            }
+            for (int k = middle; k > i; k--)
+                sequence.swap(k, k - 1);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        int n = mid + middle;
+        int start;
+        int r;
+        if (middle > mid) {
+            start = n - to;
+            r = mid;
+        } else {
+            start = from;
+            r = middle;
+        }
+        int p = n - 1;
+        while (start < r) {
+            int c = (start + r) >>> 1;
+            if (!sequence.isLess(p - c, c))
+                start = c + 1;
+            else
+                r = c;
+        }
+        int end = n - start;
+        if (start < middle && middle < end)
+            rotate(sequence, start, middle, end);
+        if (from < start && start < mid)
+            symMerge(sequence, from, start, mid);
+        if (mid < end && end < to)
+            symMerge(sequence, mid, end, to);
+    }
+
+    /**
+     * Swaps the ranges {@code [from, middle)} and {@code [middle, to)} by block swaps.
+     */
+    private static void rotate(Sequence sequence, int from, int middle, int to) {
+        int i = middle - from;
+        int j = to - middle;
+        while (i != j) {
+            if (i > j) {
+                swapRange(sequence, middle - i, middle, j);
+                i -= j;
+            } else {
+                swapRange(sequence, middle - i, middle + j - i, i);
+                j -= i;
+            }
+        }
+        swapRange(sequence, middle - i, middle, i);
+    }
+
+    private static void swapRange(Sequence sequence, int from, int other, int length) {
+        for (int i = 0; i < length; i++)
+            sequence.swap(from + i, other + i);
+    }
+}
@@ -0,0 +1,271 @@
+package org.mps.deque;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Doubly linked list deque that keeps a hash index from every value to the nodes holding it, so
+ * {@link #contains(Object)} and {@link #remove(Object)} take expected constant time instead of
+ * walking the list. A value held once maps to its node, and a value held several times maps to
+ * an {@link ArrayDeque} of its nodes in deque order; the first occurrence is always at its
+ * front, so {@code remove} keeps the semantics of {@link DoublyLinkedListDeque}.
+ * <p>
+ * Elements can only be inserted at the ends, so the index is kept in order by adding to and
+ * taking from the ends of those node deques. {@link #sort(Comparator)} and
+ * {@link #removeIf(Predicate)} walk the whole list anyway and rebuild the index afterwards.
+ * The index costs a map entry per distinct value, plus a node deque per repeated value, and it
+ * relies on {@code hashCode} being consistent with {@code equals} and not changing while an
+ * element is held. With the counters of {@link #setMetrics(DequeMetrics)} enabled,
+ * {@code contains} and {@code remove} count no traversed nodes.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class IndexedDoublyLinkedListDeque<T> extends DoublyLinkedListDeque<T> {
+    private final Map<Object, Object> nodesByValue = new HashMap<>();
+
+    public IndexedDoublyLinkedListDeque() {
+        super();
+    }
+
+    /**
+     * @param nodePoolCapacity maximum number of unlinked nodes kept for reuse; zero disables pooling
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public IndexedDoublyLinkedListDeque(int nodePoolCapacity) {
+        super(nodePoolCapacity);
+    }
+
+    @Override
+    public void prepend(T value) {
+        super.prepend(value);
+        indexFirst(firstNode());
+    }
+
+    @Override
+    public void append(T value) {
+        super.append(value);
+        indexLast(lastNode());
+    }
+
+    @Override
+    public void deleteFirst() {
+        T item = peekFirst();
+        super.deleteFirst();
+        unindexFirst(item);
+    }
+
+    @Override
+    public void deleteLast() {
+        T item = peekLast();
+        super.deleteLast();
+        unindexLast(item);
+    }
+
+    @Override
+    public boolean contains(T value) {
+        if (getMetrics() != null)
+            getMetrics().recordContains(0);
+        return (nodesByValue.containsKey(value));
+    }
+
+    @Override
+    public void remove(T value) {
+        if (size() == 0) {
+            if (getMetrics() != null)
+                getMetrics().recordEmptyAccess();
+            throw new DoubleEndedQueueException("Can't remove from an empty deque", false);
+        }
+        if (getMetrics() != null)
+            getMetrics().recordRemove(0);
+        if (nodesByValue.containsKey(value))
+            removeNode(unindexFirst(value));
+    }
+
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        super.sort(comparator);
+        rebuildIndex();
+    }
+
+    @Override
+    public void appendAll(Iterable<? extends T> values) {
+        DequeNode<T> previousLast = lastNode();
+        super.appendAll(values);
+        DequeNode<T> iteratorNode = previousLast == null ? firstNode() : previousLast.getNext();
+        for (; iteratorNode != null; iteratorNode = iteratorNode.getNext())
+            indexLast(iteratorNode);
+    }
+
+    @Override
+    public void prependAll(Iterable<? extends T> values) {
+        DequeNode<T> previousFirst = firstNode();
+        super.prependAll(values);
+        DequeNode<T> iteratorNode = previousFirst == null ? lastNode() : previousFirst.getPrevious();
+        for (; iteratorNode != null; iteratorNode = iteratorNode.getPrevious())
+            indexFirst(iteratorNode);
+    }
+
+    @Override
+    public int drainFirst(int maxElements, Consumer<? super T> consumer) {
+        if (maxElements < 0)
+            throw new IllegalArgumentException("Negative number of elements: " + maxElements);
+        DequeNode<T> iteratorNode = firstNode();
+        for (int i = 0; i < maxElements && iteratorNode != null; i++) {
+            unindexFirst(iteratorNode.getItem());
+            iteratorNode = iteratorNode.getNext();
+        }
+        return (super.drainFirst(maxElements, consumer));
+    }
+
+    /**
+     * Removes the nodes of every value of the collection through the index, so it takes time
+     * proportional to the size of the collection plus the number of elements removed.
+     */
+    @Override
+    public boolean removeAll(Collection<?> values) {
+        int removed = 0;
+        for (Object value : values) {
+            while (nodesByValue.containsKey(value)) {
+                removeNode(unindexFirst(value));
+                removed++;
+            }
+        }
+        if (getMetrics() != null)
+            getMetrics().recordDeletions(removed);
+        return (removed > 0);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        try {
+            return (super.removeIf(filter));
+        } finally {
+            rebuildIndex();
+        }
+    }
+
+    /**
+     * Moves the nodes of {@code other} as {@link DoublyLinkedListDeque#appendDeque} does, and
+     * then indexes them, which takes time proportional to the size of {@code other}.
+     */
+    @Override
+    public void appendDeque(DoublyLinkedListDeque<T> other) {
+        DequeNode<T> previousLast = lastNode();
+        super.appendDeque(other);
+        DequeNode<T> iteratorNode = previousLast == null ? firstNode() : previousLast.getNext();
+        for (; iteratorNode != null; iteratorNode = iteratorNode.getNext())
+            indexLast(iteratorNode);
+    }
+
+    /**
+     * Moves the nodes of {@code other} as {@link DoublyLinkedListDeque#prependDeque} does, and
+     * then indexes them, which takes time proportional to the size of {@code other}.
+     */
+    @Override
+    public void prependDeque(DoublyLinkedListDeque<T> other) {
+        DequeNode<T> previousFirst = firstNode();
+        super.prependDeque(other);
+        DequeNode<T> iteratorNode = previousFirst == null ? lastNode() : previousFirst.getPrevious();
+        for (; iteratorNode != null; iteratorNode = iteratorNode.getPrevious())
+            indexFirst(iteratorNode);
+    }
+
+    /**
+     * Splits the deque as {@link DoublyLinkedListDeque#splitAt(int)} does and returns the tail as
+     * an indexed deque; moving the tail between the indexes takes time proportional to its size.
+     */
+    @Override
+    public IndexedDoublyLinkedListDeque<T> splitAt(int index) {
+        DoublyLinkedListDeque<T> plainTail = super.splitAt(index);
+        for (DequeNode<T> iteratorNode = plainTail.lastNode(); iteratorNode != null;
+             iteratorNode = iteratorNode.getPrevious())
+            unindexLast(iteratorNode.getItem());
+        IndexedDoublyLinkedListDeque<T> tail = new IndexedDoublyLinkedListDeque<>(getNodePoolCapacity());
+        tail.appendDeque(plainTail);
+        return (tail);
+    }
+
+    /**
+     * Clears the index along with the nodes, which now belong to the deque they were moved to.
+     */
+    @Override
+    protected void clearNodes() {
+        super.clearNodes();
+        nodesByValue.clear();
+    }
+
+    private void rebuildIndex() {
+        nodesByValue.clear();
+        for (DequeNode<T> iteratorNode = firstNode(); iteratorNode != null; iteratorNode = iteratorNode.getNext())
+            indexLast(iteratorNode);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void indexFirst(DequeNode<T> node) {
+        Object nodes = nodesByValue.get(node.getItem());
+        if (nodes == null) {
+            nodesByValue.put(node.getItem(), node);
+        } else if (nodes instanceof DequeNode) {
+            ArrayDeque<DequeNode<T>> repeatedNodes = new ArrayDeque<>();
+            repeatedNodes.add(node);
+            repeatedNodes.add((DequeNode<T>) nodes);
+            nodesByValue.put(node.getItem(), repeatedNodes);
+        } else {
+            ((ArrayDeque<DequeNode<T>>) nodes).addFirst(node);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void indexLast(DequeNode<T> node) {
+        Object nodes = nodesByValue.get(node.getItem());
+        if (nodes == null) {
+            nodesByValue.put(node.getItem(), node);
+        } else if (nodes instanceof DequeNode) {
+            ArrayDeque<DequeNode<T>> repeatedNodes = new ArrayDeque<>();
+            repeatedNodes.add((DequeNode<T>) nodes);
+            repeatedNodes.add(node);
+            nodesByValue.put(node.getItem(), repeatedNodes);
+        } else {
+            ((ArrayDeque<DequeNode<T>>) nodes).addLast(node);
+        }
+    }
+
+    /**
+     * Removes the first occurrence of the value from the index and returns its node.
+     */
+    @SuppressWarnings("unchecked")
+    private DequeNode<T> unindexFirst(Object value) {
+        Object nodes = nodesByValue.get(value);
+        if (nodes instanceof DequeNode) {
+            nodesByValue.remove(value);
+            return ((DequeNode<T>) nodes);
+        }
+        ArrayDeque<DequeNode<T>> repeatedNodes = (ArrayDeque<DequeNode<T>>) nodes;
+        DequeNode<T> node = repeatedNodes.pollFirst();
+        if (repeatedNodes.size() == 1)
+            nodesByValue.put(value, repeatedNodes.peekFirst());
+        return (node);
+    }
+
+    /**
+     * Removes the last occurrence of the value from the index and returns its node.
+     */
+    @SuppressWarnings("unchecked")
+    private DequeNode<T> unindexLast(Object value) {
+        Object nodes = nodesByValue.get(value);
+        if (nodes instanceof DequeNode) {
+            nodesByValue.remove(value);
+            return ((DequeNode<T>) nodes);
+        }
+        ArrayDeque<DequeNode<T>> repeatedNodes = (ArrayDeque<DequeNode<T>>) nodes;
+        DequeNode<T> node = repeatedNodes.pollLast();
+        if (repeatedNodes.size() == 1)
+            nodesByValue.put(value, repeatedNodes.peekFirst());
+        return (node);
+    }
+}
@@ -0,0 +1,226 @@
+package org.mps.deque;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Decorator that records the operations made on any {@link DoubleEndedQueue} in a
+ * {@link DequeMetrics}: insertions, deletions, calls to {@link #get(int)},
+ * {@link #contains(Object)} and {@link #remove(Object)}, the largest size, the exceptions
+ * thrown because the deque was empty and the comparisons made by {@link #sort(Comparator)}.
+ * Every operation is delegated, so the decorated deque keeps its complexity and its behavior on
+ * concurrent access; the counters of bulk operations on a concurrent deque come from its size
+ * before and after them and may include other threads' operations.
+ * <p>
+ * The nodes walked and the elements moved by a sort are only known by the deque itself, so the
+ * decorator does not count them; {@link DoublyLinkedListDeque#setMetrics(DequeMetrics)} counts
+ * them without any decorator.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class InstrumentedDoubleEndedQueue<T> implements DoubleEndedQueue<T> {
+    private final DoubleEndedQueue<T> deque;
+    private final DequeMetrics metrics;
+
+    public InstrumentedDoubleEndedQueue(DoubleEndedQueue<T> deque) {
+        this(deque, new DequeMetrics());
+    }
+
+    /**
+     * @param deque   the deque whose operations are recorded
+     * @param metrics the counters to record the operations in, which may be shared
+     */
+    public InstrumentedDoubleEndedQueue(DoubleEndedQueue<T> deque, DequeMetrics metrics) {
+        this.deque = Objects.requireNonNull(deque);
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Returns the counters this deque records its operations in.
+     *
+     * @return the counters of this deque
+     */
+    public DequeMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    @Override
+    public void prepend(T value) {
+        deque.prepend(value);
+        metrics.recordInsertions(1, deque.size());
+    }
+
+    @Override
+    public void append(T value) {
+        deque.append(value);
+        metrics.recordInsertions(1, deque.size());
+    }
+
+    @Override
+    public void deleteFirst() {
+        try {
+            deque.deleteFirst();
+        } catch (DoubleEndedQueueException e) {
+            metrics.recordEmptyAccess();
+            throw e;
+        }
+        metrics.recordDeletions(1);
+    }
+
+    @Override
+    public void deleteLast() {
+        try {
+            deque.deleteLast();
+        } catch (DoubleEndedQueueException e) {
+            metrics.recordEmptyAccess();
+            throw e;
+        }
+        metrics.recordDeletions(1);
+    }
+
+    @Override
+    public T first() {
+        try {
+            return deque.first();
+        } catch (DoubleEndedQueueException e) {
+            metrics.recordEmptyAccess();
+            throw e;
+        }
+    }
+
+    @Override
+    public T last() {
+        try {
+            return deque.last();
+        } catch (DoubleEndedQueueException e) {
+            metrics.recordEmptyAccess();
+            throw e;
+        }
+    }
+
+    @Override
+    public T peekFirst() {
+        return deque.peekFirst();
+    }
+
+    @Override
+    public T peekLast() {
+        return deque.peekLast();
+    }
+
+    @Override
+    public T pollFirst() {
+        int size = deque.size();
+        T item = deque.pollFirst();
+        if (item != null || deque.size() < size)
+            metrics.recordDeletions(1);
+        return item;
+    }
+
+    @Override
+    public T pollLast() {
+        int size = deque.size();
+        T item = deque.pollLast();
+        if (item != null || deque.size() < size)
+            metrics.recordDeletions(1);
+        return item;
+    }
+
+    @Override
+    public int size() {
+        return deque.size();
+    }
+
+    @Override
+    public T get(int index) {
+        metrics.recordGet(0);
+        return (deque.get(index));
+    }
+
+    @Override
+    public boolean contains(T value) {
+        metrics.recordContains(0);
+        return (deque.contains(value));
+    }
+
+    @Override
+    public void remove(T value) {
+        try {
+            deque.remove(value);
+        } catch (DoubleEndedQueueException e) {
+            metrics.recordEmptyAccess();
+            throw e;
+        }
+        metrics.recordRemove(0);
+    }
+
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        deque.sort(metrics.countingComparator(comparator));
+    }
+
+    @Override
+    public void appendAll(Iterable<? extends T> values) {
+        int size = deque.size();
+        deque.appendAll(values);
+        recordResize(size);
+    }
+
+    @Override
+    public void prependAll(Iterable<? extends T> values) {
+        int size = deque.size();
+        deque.prependAll(values);
+        recordResize(size);
+    }
+
+    @Override
+    public int drainFirst(int maxElements, Consumer<? super T> consumer) {
+        int drained = deque.drainFirst(maxElements, consumer);
+        metrics.recordDeletions(drained);
+        return (drained);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> values) {
+        int size = deque.size();
+        boolean removed = deque.removeAll(values);
+        recordResize(size);
+        return (removed);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        int size = deque.size();
+        boolean removed = deque.removeIf(filter);
+        recordResize(size);
+        return (removed);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return deque.iterator();
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return deque.descendingIterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return deque.spliterator();
+    }
+
+    private void recordResize(int previousSize) {
+        int size = deque.size();
+        if (size > previousSize)
+            metrics.recordInsertions(size - previousSize, size);
+        else if (size < previousSize)
+            metrics.recordDeletions(previousSize - size);
+    }
+}
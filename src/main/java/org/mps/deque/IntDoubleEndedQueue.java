@@ -0,0 +1,206 @@
+package org.mps.deque;
+
+import java.util.Arrays;
+
+/**
+ * Double-ended queue of {@code int} values stored without boxing in a circular buffer over an
+ * {@code int[]} whose length is always a power of two. It offers the operations of
+ * {@link DoubleEndedQueue} with primitive arguments and results; both ends and
+ * {@link #get(int)} are O(1).
+ */
+public class IntDoubleEndedQueue {
+    static final int DEFAULT_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private int[] items;
+    private int head;
+    private int size;
+
+    public IntDoubleEndedQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity minimum number of values the deque holds before growing; it is
+     *                        rounded up to a power of two
+     * @throws IllegalArgumentException if the capacity is lower than one or too large
+     */
+    public IntDoubleEndedQueue(int initialCapacity) {
+        if (initialCapacity < 1 || initialCapacity > MAXIMUM_CAPACITY)
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        this.items = new int[initialCapacity == 1 ? 1 : Integer.highestOneBit(initialCapacity - 1) << 1];
+    }
+
+    /**
+     * Inserts the specified value at the front of this deque.
+     *
+     * @param value the value to be inserted
+     */
+    public void prepend(int value) {
+        if (size == items.length)
+            grow();
+        head = (head - 1) & (items.length - 1);
+        items[head] = value;
+        size++;
+    }
+
+    /**
+     * Inserts the specified value at the end of this deque.
+     *
+     * @param value the value to be inserted
+     */
+    public void append(int value) {
+        if (size == items.length)
+            grow();
+        items[(head + size) & (items.length - 1)] = value;
+        size++;
+    }
+
+    /**
+     * Deletes the first value of this deque.
+     *
+     * @throws DoubleEndedQueueException if the deque is empty
+     */
+    public void deleteFirst() {
+        if (size == 0)
+            throw new DoubleEndedQueueException("Empty deque", false);
+        head = (head + 1) & (items.length - 1);
+        size--;
+    }
+
+    /**
+     * Deletes the last value of this deque.
+     *
+     * @throws DoubleEndedQueueException if the deque is empty
+     */
+    public void deleteLast() {
+        if (size == 0)
+            throw new DoubleEndedQueueException("Empty deque", false);
+        size--;
+    }
+
+    /**
+     * Returns the first value of this deque.
+     *
+     * @throws DoubleEndedQueueException if the deque is empty
+     */
+    public int first() {
+        if (size == 0)
+            throw new DoubleEndedQueueException("No items left", false);
+        return items[head];
+    }
+
+    /**
+     * Returns the last value of this deque.
+     *
+     * @throws DoubleEndedQueueException if the deque is empty
+     */
+    public int last() {
+        if (size == 0)
+            throw new DoubleEndedQueueException("No items left", false);
+        return items[(head + size - 1) & (items.length - 1)];
+    }
+
+    /**
+     * Returns the number of values in this deque.
+     *
+     * @return the number of values in this deque
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the value at the specified position in this deque.
+     * Value at the front of the deque is at position 0.
+     *
+     * @param index of the value to return
+     * @return the value at the specified position in this deque
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int get(int index) {
+        if (size <= index || index < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        return (items[(head + index) & (items.length - 1)]);
+    }
+
+    /**
+     * Returns {@code true} if this deque contains the specified value.
+     *
+     * @param value whose presence in this deque is to be tested
+     * @return {@code true} if this deque contains the specified value
+     */
+    public boolean contains(int value) {
+        return (indexOf(value) >= 0);
+    }
+
+    /**
+     * Removes the first occurrence of the specified value from this deque, if it is present.
+     *
+     * @param value to be removed from this deque, if present
+     * @throws DoubleEndedQueueException if the deque is empty
+     */
+    public void remove(int value) {
+        if (size == 0) {
+            throw new DoubleEndedQueueException("Can't remove from an empty deque", false);
+        }
+        int index = indexOf(value);
+        if (index < 0)
+            return;
+        int mask = items.length - 1;
+        if (index < size - index - 1) {
+            for (int i = index; i > 0; i--)
+                items[(head + i) & mask] = items[(head + i - 1) & mask];
+            head = (head + 1) & mask;
+        } else {
+            for (int i = index; i < size - 1; i++)
+                items[(head + i) & mask] = items[(head + i + 1) & mask];
+        }
+        size--;
+    }
+
+    /**
+     * Sorts this deque in ascending numerical order. The buffer is rotated in place so the
+     * values are contiguous and then sorted with {@link Arrays#sort(int[], int, int)}.
+     */
+    public void sort() {
+        if (size <= 1)
+            return;
+        if (head + size > items.length) {
+            reverse(0, head);
+            reverse(head, items.length);
+            reverse(0, items.length);
+            head = 0;
+        }
+        Arrays.sort(items, head, head + size);
+    }
+
+    private int indexOf(int value) {
+        int mask = items.length - 1;
+        for (int i = 0; i < size; i++) {
+            if (items[(head + i) & mask] == value)
+                return (i);
+        }
+        return (-1);
+    }
+
+    private void grow() {
+        if (items.length == MAXIMUM_CAPACITY)
+            throw new IllegalStateException("Deque too big");
+        int[] newItems = new int[items.length << 1];
+        int firstPart = items.length - head;
+        System.arraycopy(items, head, newItems, 0, firstPart);
+        System.arraycopy(items, 0, newItems, firstPart, head);
+        items = newItems;
+        head = 0;
+    }
+
+    private void reverse(int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int aux = items[i];
+            items[i] = items[j];
+            items[j] = aux;
+        }
+    }
+}
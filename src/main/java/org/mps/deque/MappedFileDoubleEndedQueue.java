@@ -0,0 +1,537 @@
+package org.mps.deque;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Persistent double-ended queue stored in a directory of memory-mapped files. The elements are
+ * encoded by an {@link ElementCodec} into the fixed-size slots of {@link ElementSlots}, which
+ * fill segment files of the same number of slots. A header page holds the layout and the
+ * absolute positions of the first and the next to last slot, so reopening a deque reads the
+ * header only and maps the segments as they are reached; no element is scanned.
+ * <p>
+ * Elements are encoded straight into the mapped segments and decoded straight from them. A
+ * segment file is created when an end reaches it, and released once neither end covers it
+ * anymore; the last released segment is kept as a spare file and renamed to the next segment
+ * needed, so a deque used as a queue keeps reusing a few files.
+ * <p>
+ * The positions of the ends are only written to the header by {@link #force()}, which is also
+ * called by {@link #close()}: it writes the segments to the storage device, then the
+ * directory, then the header, so the header on the device never covers slots or files that
+ * are not there. The files of the segments released since the previous checkpoint are only
+ * recycled or deleted after the header stops covering them. Reopening a deque after a crash of
+ * the process or of the system restores the positions of the last checkpoint; the slots between
+ * them hold the elements of that checkpoint unless they were overwritten afterwards, which only
+ * happens to slots rewritten in place by a prepend after deleting from the front, an append
+ * after deleting from the back, a {@link #remove(Object)} or a {@link #sort(Comparator)}. A
+ * directory can only be opened by one deque at a time; the header file is locked while the deque
+ * is open.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class MappedFileDoubleEndedQueue<T> implements DoubleEndedQueue<T>, AutoCloseable {
+    static final int DEFAULT_SLOTS_PER_SEGMENT = 1 << 16;
+    static final String HEADER_FILE = "deque.header";
+    static final String SPARE_FILE = "spare.segment";
+    private static final String SEGMENT_SUFFIX = ".segment";
+    private static final int HEADER_SIZE = 4096;
+    private static final int MAGIC = 0x4D505344;
+    private static final int VERSION = 1;
+    private static final int SLOT_SIZE_OFFSET = 8;
+    private static final int SLOTS_PER_SEGMENT_OFFSET = 12;
+    private static final int HEAD_OFFSET = 16;
+    private static final int TAIL_OFFSET = 24;
+
+    private final Path directory;
+    private final ElementCodec<T> codec;
+    private final int slotSize;
+    private final int slotsPerSegment;
+    private final InPlaceMergeSort.Sequence sortView = new SortView();
+    private final Map<Long, MappedByteBuffer> segments = new HashMap<>();
+    private final Set<Long> releasedSegments = new HashSet<>();
+    private FileChannel headerChannel;
+    private FileLock headerLock;
+    private MappedByteBuffer header;
+    private long head;
+    private long tail;
+    private int modCount;
+    private boolean closed;
+    private Comparator<? super T> sortComparator;
+
+    /**
+     * Opens the deque stored in the directory, or creates an empty one with
+     * {@value #DEFAULT_SLOTS_PER_SEGMENT} slots per segment.
+     *
+     * @see #MappedFileDoubleEndedQueue(Path, ElementCodec, int)
+     */
+    public MappedFileDoubleEndedQueue(Path directory, ElementCodec<T> codec) throws IOException {
+        this(directory, codec, DEFAULT_SLOTS_PER_SEGMENT);
+    }
+
+    /**
+     * Opens the deque stored in the directory, or creates an empty one if the directory holds no
+     * deque. An existing deque keeps the number of slots per segment it was created with.
+     *
+     * @param directory       the directory of the deque files; it is created if missing
+     * @param codec           the codec used to store the elements
+     * @param slotsPerSegment number of elements stored in every segment of a new deque
+     * @throws IllegalArgumentException if the layout is invalid or, for an existing deque, the
+     *                                  slots of the codec don't have the stored size
+     * @throws IOException              if the files can't be read or written, or the directory
+     *                                  is already open
+     */
+    public MappedFileDoubleEndedQueue(Path directory, ElementCodec<T> codec, int slotsPerSegment) throws IOException {
+        this.directory = Objects.requireNonNull(directory);
+        this.codec = Objects.requireNonNull(codec);
+        if (slotsPerSegment < 1 || codec.maxLength() < 0)
+            throw new IllegalArgumentException("Illegal segment layout");
+        this.slotSize = ElementSlots.slotSize(codec);
+        Files.createDirectories(directory);
+        Path headerFile = directory.resolve(HEADER_FILE);
+        boolean created = !Files.exists(headerFile);
+        headerChannel = FileChannel.open(headerFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            headerLock = headerChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            headerLock = null;
+        }
+        if (headerLock == null) {
+            headerChannel.close();
+            throw new IOException("Deque directory is already open: " + directory);
+        }
+        try {
+            header = headerChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.BIG_ENDIAN);
+            if (created || header.getInt(0) != MAGIC) {
+                this.slotsPerSegment = slotsPerSegment;
+                checkLayout();
+                header.putInt(4, VERSION);
+                header.putInt(SLOT_SIZE_OFFSET, slotSize);
+                header.putInt(SLOTS_PER_SEGMENT_OFFSET, slotsPerSegment);
+                header.putLong(HEAD_OFFSET, 0);
+                header.putLong(TAIL_OFFSET, 0);
+                header.putInt(0, MAGIC);
+            } else {
+                if (header.getInt(4) != VERSION || header.getInt(SLOT_SIZE_OFFSET) != slotSize)
+                    throw new IllegalArgumentException("Deque layout does not match the codec");
+                this.slotsPerSegment = header.getInt(SLOTS_PER_SEGMENT_OFFSET);
+                checkLayout();
+                head = header.getLong(HEAD_OFFSET);
+                tail = header.getLong(TAIL_OFFSET);
+                findReleasedSegments();
+            }
+        } catch (IOException | RuntimeException e) {
+            releaseHeader();
+            throw e;
+        }
+    }
+
+    @Override
+    public void prepend(T value) {
+        ensureOpen();
+        int length = ElementSlots.encodedLength(codec, value);
+        ensureRoom();
+        long position = head - 1;
+        ElementSlots.write(codec, segmentOf(position), offsetOf(position), value, length);
+        head = position;
+        modCount++;
+    }
+
+    @Override
+    public void append(T value) {
+        ensureOpen();
+        int length = ElementSlots.encodedLength(codec, value);
+        ensureRoom();
+        ElementSlots.write(codec, segmentOf(tail), offsetOf(tail), value, length);
+        tail++;
+        modCount++;
+    }
+
+    @Override
+    public void deleteFirst() {
+        ensureOpen();
+        if (head == tail)
+            throw new DoubleEndedQueueException("Empty deque", false);
+        dropFirstSlot();
+    }
+
+    @Override
+    public void deleteLast() {
+        ensureOpen();
+        if (head == tail)
+            throw new DoubleEndedQueueException("Empty deque", false);
+        dropLastSlot();
+    }
+
+    @Override
+    public T first() {
+        ensureOpen();
+        if (head == tail)
+            throw new DoubleEndedQueueException("No items left", false);
+        return readSlot(head);
+    }
+
+    @Override
+    public T last() {
+        ensureOpen();
+        if (head == tail)
+            throw new DoubleEndedQueueException("No items left", false);
+        return readSlot(tail - 1);
+    }
+
+    @Override
+    public int size() {
+        return (int) (tail - head);
+    }
+
+    @Override
+    public T get(int index) {
+        ensureOpen();
+        if (size() <= index || index < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        return (readSlot(head + index));
+    }
+
+    @Override
+    public boolean contains(T value) {
+        ensureOpen();
+        return (indexOf(value) >= 0);
+    }
+
+    @Override
+    public void remove(T value) {
+        ensureOpen();
+        if (head == tail) {
+            throw new DoubleEndedQueueException("Can't remove from an empty deque", false);
+        }
+        int index = indexOf(value);
+        if (index < 0)
+            return;
+        int size = size();
+        if (index < size - index - 1) {
+            for (long position = head + index; position > head; position--)
+                copySlot(position - 1, position);
+            dropFirstSlot();
+        } else {
+            for (long position = head + index; position < tail - 1; position++)
+                copySlot(position + 1, position);
+            dropLastSlot();
+        }
+    }
+
+    /**
+     * Sorts the slots in place with {@link InPlaceMergeSort}, as {@link OffHeapDoubleEndedQueue}
+     * does; only the decoded elements handed to the comparator are allocated. Null elements are
+     * placed at the front of the deque.
+     */
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        ensureOpen();
+        if (size() <= 1)
+            return;
+        modCount++;
+        sortComparator = comparator;
+        try {
+            InPlaceMergeSort.sort(sortView, size());
+        } finally {
+            sortComparator = null;
+        }
+    }
+
+    /**
+     * Returns a fail-fast iterator that decodes every element as it is reached. Closing the
+     * deque counts as a modification.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        ensureOpen();
+        return new SlotIterator(false);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        ensureOpen();
+        return new SlotIterator(true);
+    }
+
+    /**
+     * Makes a checkpoint of the deque: writes the mapped segments and the directory to the
+     * storage device, then the positions of the ends to the header and the header to the device,
+     * and finally recycles or deletes the files of the segments released since the previous
+     * checkpoint.
+     *
+     * @throws UncheckedIOException if the files can't be written
+     */
+    public void force() {
+        ensureOpen();
+        for (MappedByteBuffer segment : segments.values())
+            segment.force();
+        try {
+            syncDirectory();
+            header.putLong(HEAD_OFFSET, head);
+            header.putLong(TAIL_OFFSET, tail);
+            header.force();
+            if (!releasedSegments.isEmpty()) {
+                for (long segmentId : releasedSegments)
+                    recycleSegmentFile(segmentId);
+                releasedSegments.clear();
+                syncDirectory();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Makes a checkpoint with {@link #force()}, then unmaps the files and unlocks the directory,
+     * which can then be opened again. Closing an already closed deque has no effect.
+     *
+     * @throws UncheckedIOException if the files can't be written; the deque is closed anyway
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        try {
+            force();
+        } finally {
+            unmap();
+        }
+    }
+
+    private void unmap() {
+        for (MappedByteBuffer segment : segments.values())
+            DirectBuffers.free(segment);
+        segments.clear();
+        releaseHeader();
+        modCount++;
+        closed = true;
+    }
+
+    private void checkLayout() {
+        if (slotsPerSegment < 1 || (long) slotsPerSegment * slotSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Illegal segment layout");
+    }
+
+    private void releaseHeader() {
+        DirectBuffers.free(header);
+        header = null;
+        try {
+            headerChannel.close();
+        } catch (IOException e) {
+            // The lock is released with the channel anyway
+        }
+        headerChannel = null;
+        headerLock = null;
+    }
+
+    private void ensureOpen() {
+        if (closed)
+            throw new IllegalStateException("Deque is closed");
+    }
+
+    private void ensureRoom() {
+        if (tail - head == Integer.MAX_VALUE)
+            throw new IllegalStateException("Deque too big");
+    }
+
+    private long segmentIdOf(long position) {
+        return (Math.floorDiv(position, slotsPerSegment));
+    }
+
+    private int offsetOf(long position) {
+        return (Math.floorMod(position, slotsPerSegment) * slotSize);
+    }
+
+    private Path segmentFile(long segmentId) {
+        return (directory.resolve(segmentId + SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Adds the segment files left outside the ends by a previous run to the released segments,
+     * so the next checkpoint recycles them.
+     */
+    private void findReleasedSegments() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    long segmentId = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                    if (head == tail || segmentId < segmentIdOf(head) || segmentId > segmentIdOf(tail - 1))
+                        releasedSegments.add(segmentId);
+                } catch (NumberFormatException e) {
+                    // The spare file or a file that is not a segment
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the entries of the directory to the storage device, so the segment files created,
+     * renamed or deleted are there before the header that relies on them. Platforms that can't
+     * open a directory as a file don't need it.
+     */
+    private void syncDirectory() throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Returns the mapped segment holding the position, mapping its file, or the spare file, or a
+     * new file if needed.
+     */
+    private MappedByteBuffer segmentOf(long position) {
+        long segmentId = segmentIdOf(position);
+        MappedByteBuffer segment = segments.get(segmentId);
+        if (segment != null)
+            return (segment);
+        releasedSegments.remove(segmentId);
+        Path file = segmentFile(segmentId);
+        Path spare = directory.resolve(SPARE_FILE);
+        try {
+            if (!Files.exists(file) && Files.exists(spare))
+                Files.move(spare, file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) slotsPerSegment * slotSize);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segment.order(ByteOrder.nativeOrder());
+        segments.put(segmentId, segment);
+        return (segment);
+    }
+
+    /**
+     * Unmaps a segment that no end covers anymore. Its file is kept until the next checkpoint,
+     * as the header on the storage device may still cover it.
+     */
+    private void releaseSegment(long segmentId) {
+        DirectBuffers.free(segments.remove(segmentId));
+        releasedSegments.add(segmentId);
+    }
+
+    /**
+     * Keeps the file of a released segment as the spare, or deletes it if there is a spare
+     * already.
+     */
+    private void recycleSegmentFile(long segmentId) throws IOException {
+        Path file = segmentFile(segmentId);
+        Path spare = directory.resolve(SPARE_FILE);
+        if (Files.exists(spare))
+            Files.deleteIfExists(file);
+        else if (Files.exists(file))
+            Files.move(file, spare, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private T readSlot(long position) {
+        return (ElementSlots.read(codec, segmentOf(position), offsetOf(position)));
+    }
+
+    private void copySlot(long from, long to) {
+        ElementSlots.copy(segmentOf(from), offsetOf(from), segmentOf(to), offsetOf(to));
+    }
+
+    private int indexOf(T value) {
+        for (long position = head; position < tail; position++) {
+            if (Objects.equals(readSlot(position), value))
+                return ((int) (position - head));
+        }
+        return (-1);
+    }
+
+    private void dropFirstSlot() {
+        long segmentId = segmentIdOf(head);
+        head++;
+        modCount++;
+        if (head == tail || segmentIdOf(head) != segmentId)
+            releaseSegment(segmentId);
+    }
+
+    private void dropLastSlot() {
+        long segmentId = segmentIdOf(tail - 1);
+        tail--;
+        modCount++;
+        if (head == tail || segmentIdOf(tail - 1) != segmentId)
+            releaseSegment(segmentId);
+    }
+
+    private class SlotIterator implements Iterator<T> {
+        private long position;
+        private int remaining = size();
+        private final boolean descending;
+        private final int expectedModCount = modCount;
+
+        SlotIterator(boolean descending) {
+            this.descending = descending;
+            this.position = descending ? tail - 1 : head;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (remaining > 0);
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining == 0)
+                throw new NoSuchElementException();
+            T item = readSlot(position);
+            position += descending ? -1 : 1;
+            remaining--;
+            return (item);
+        }
+    }
+
+    private class SortView implements InPlaceMergeSort.Sequence {
+        @Override
+        public boolean isLess(int index, int other) {
+            T otherItem = readSlot(head + other);
+            if (otherItem == null)
+                return (false);
+            T item = readSlot(head + index);
+            if (item == null)
+                return (true);
+            return (sortComparator.compare(item, otherItem) < 0);
+        }
+
+        @Override
+        public void swap(int index, int other) {
+            long position = head + index;
+            long otherPosition = head + other;
+            ElementSlots.swap(segmentOf(position), offsetOf(position), segmentOf(otherPosition),
+                    offsetOf(otherPosition));
+        }
+    }
+}
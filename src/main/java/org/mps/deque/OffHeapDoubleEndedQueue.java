@@ -0,0 +1,376 @@
+package org.mps.deque;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Double-ended queue that keeps its elements outside the heap, encoded by an
+ * {@link ElementCodec} into fixed-size slots of direct {@link ByteBuffer} chunks. Every slot holds
+ * the encoded length followed by up to {@link ElementCodec#maxLength()} bytes, so an element is
+ * found by arithmetic and both ends and {@link #get(int)} are O(1). The chunks form a ring that
+ * gains a chunk when an end runs out of slots and frees it when it empties.
+ * <p>
+ * The native memory is freed by {@link #close()}; any later operation throws
+ * {@link IllegalStateException}. Elements are decoded into new objects whenever they are read,
+ * including the comparisons made by {@link #sort(Comparator)}, which otherwise moves the slots
+ * in place.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class OffHeapDoubleEndedQueue<T> implements DoubleEndedQueue<T>, AutoCloseable {
+    static final int DEFAULT_SLOTS_PER_CHUNK = 1024;
+    private static final int INITIAL_CHUNK_SLOTS = 8;
+
+    private final ElementCodec<T> codec;
+    private final int slotSize;
+    private final int slotShift;
+    private final int slotsPerChunk;
+    private final InPlaceMergeSort.Sequence sortView = new SortView();
+    private ByteBuffer[] chunks = new ByteBuffer[INITIAL_CHUNK_SLOTS];
+    private ByteBuffer spareChunk;
+    private int firstChunk;
+    private int chunkCount;
+    private int headSlot;
+    private int size;
+    private int modCount;
+    private boolean closed;
+    private Comparator<? super T> sortComparator;
+
+    public OffHeapDoubleEndedQueue(ElementCodec<T> codec) {
+        this(codec, DEFAULT_SLOTS_PER_CHUNK);
+    }
+
+    /**
+     * @param codec         the codec used to store the elements
+     * @param slotsPerChunk minimum number of elements stored in every chunk; it is rounded up to
+     *                      a power of two
+     * @throws IllegalArgumentException if the number of slots is lower than one or the chunks
+     *                                  would be too large
+     */
+    public OffHeapDoubleEndedQueue(ElementCodec<T> codec, int slotsPerChunk) {
+        this.codec = Objects.requireNonNull(codec);
+        if (slotsPerChunk < 1 || codec.maxLength() < 0)
+            throw new IllegalArgumentException("Illegal chunk layout");
+        this.slotShift = 32 - Integer.numberOfLeadingZeros(slotsPerChunk - 1);
+        this.slotsPerChunk = 1 << slotShift;
+        this.slotSize = ElementSlots.slotSize(codec);
+        if ((long) this.slotsPerChunk * slotSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Illegal chunk layout");
+    }
+
+    @Override
+    public void prepend(T value) {
+        ensureOpen();
+        int length = ElementSlots.encodedLength(codec, value);
+        if (headSlot == 0)
+            addFirstChunk();
+        headSlot--;
+        size++;
+        modCount++;
+        writeSlot(0, value, length);
+    }
+
+    @Override
+    public void append(T value) {
+        ensureOpen();
+        int length = ElementSlots.encodedLength(codec, value);
+        if (headSlot + size == chunkCount << slotShift)
+            addLastChunk();
+        size++;
+        modCount++;
+        writeSlot(size - 1, value, length);
+    }
+
+    @Override
+    public void deleteFirst() {
+        ensureOpen();
+        if (size == 0)
+            throw new DoubleEndedQueueException("Empty deque", false);
+        dropFirstSlot();
+    }
+
+    @Override
+    public void deleteLast() {
+        ensureOpen();
+        if (size == 0)
+            throw new DoubleEndedQueueException("Empty deque", false);
+        dropLastSlot();
+    }
+
+    @Override
+    public T first() {
+        ensureOpen();
+        if (size == 0)
+            throw new DoubleEndedQueueException("No items left", false);
+        return readSlot(0);
+    }
+
+    @Override
+    public T last() {
+        ensureOpen();
+        if (size == 0)
+            throw new DoubleEndedQueueException("No items left", false);
+        return readSlot(size - 1);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public T get(int index) {
+        ensureOpen();
+        if (size <= index || index < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        return (readSlot(index));
+    }
+
+    @Override
+    public boolean contains(T value) {
+        ensureOpen();
+        return (indexOf(value) >= 0);
+    }
+
+    @Override
+    public void remove(T value) {
+        ensureOpen();
+        if (size == 0) {
+            throw new DoubleEndedQueueException("Can't remove from an empty deque", false);
+        }
+        int index = indexOf(value);
+        if (index < 0)
+            return;
+        if (index < size - index - 1) {
+            for (int i = index; i > 0; i--)
+                copySlot(i - 1, i);
+            dropFirstSlot();
+        } else {
+            for (int i = index; i < size - 1; i++)
+                copySlot(i + 1, i);
+            dropLastSlot();
+        }
+    }
+
+    /**
+     * Sorts the slots in place with {@link InPlaceMergeSort}, so the sort is stable and needs no
+     * buffer; only the decoded elements handed to the comparator are allocated. Null elements
+     * are placed at the front of the deque.
+     */
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        ensureOpen();
+        if (size <= 1)
+            return;
+        modCount++;
+        sortComparator = comparator;
+        try {
+            InPlaceMergeSort.sort(sortView, size);
+        } finally {
+            sortComparator = null;
+        }
+    }
+
+    /**
+     * Returns a fail-fast iterator that decodes every element as it is reached. Closing the
+     * deque counts as a modification.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        ensureOpen();
+        return new SlotIterator(false);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        ensureOpen();
+        return new SlotIterator(true);
+    }
+
+    /**
+     * Frees the native memory of the deque. Closing an already closed deque has no effect.
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        while (chunkCount > 0)
+            removeLastChunk();
+        DirectBuffers.free(spareChunk);
+        spareChunk = null;
+        chunks = null;
+        size = 0;
+        modCount++;
+        closed = true;
+    }
+
+    private void ensureOpen() {
+        if (closed)
+            throw new IllegalStateException("Deque is closed");
+    }
+
+    private ByteBuffer chunkOf(int index) {
+        return chunks[(firstChunk + ((headSlot + index) >>> slotShift)) & (chunks.length - 1)];
+    }
+
+    private int offsetOf(int index) {
+        return ((headSlot + index) & (slotsPerChunk - 1)) * slotSize;
+    }
+
+    private T readSlot(int index) {
+        return (ElementSlots.read(codec, chunkOf(index), offsetOf(index)));
+    }
+
+    private void writeSlot(int index, T value, int length) {
+        ElementSlots.write(codec, chunkOf(index), offsetOf(index), value, length);
+    }
+
+    private void copySlot(int from, int to) {
+        ElementSlots.copy(chunkOf(from), offsetOf(from), chunkOf(to), offsetOf(to));
+    }
+
+    private void swapSlots(int index, int other) {
+        ElementSlots.swap(chunkOf(index), offsetOf(index), chunkOf(other), offsetOf(other));
+    }
+
+    private int indexOf(T value) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(readSlot(i), value))
+                return (i);
+        }
+        return (-1);
+    }
+
+    private void dropFirstSlot() {
+        headSlot++;
+        size--;
+        modCount++;
+        if (size == 0)
+            removeAllChunks();
+        else if (headSlot == slotsPerChunk)
+            removeFirstChunk();
+    }
+
+    private void dropLastSlot() {
+        size--;
+        modCount++;
+        if (size == 0)
+            removeAllChunks();
+        else if (headSlot + size <= (chunkCount - 1) << slotShift)
+            removeLastChunk();
+    }
+
+    private void addFirstChunk() {
+        ensureChunkCapacity();
+        firstChunk = (firstChunk - 1) & (chunks.length - 1);
+        chunks[firstChunk] = takeChunk();
+        chunkCount++;
+        headSlot += slotsPerChunk;
+    }
+
+    private void addLastChunk() {
+        ensureChunkCapacity();
+        chunks[(firstChunk + chunkCount) & (chunks.length - 1)] = takeChunk();
+        chunkCount++;
+    }
+
+    private void removeFirstChunk() {
+        releaseChunk(chunks[firstChunk]);
+        chunks[firstChunk] = null;
+        firstChunk = (firstChunk + 1) & (chunks.length - 1);
+        chunkCount--;
+        headSlot -= slotsPerChunk;
+    }
+
+    private void removeLastChunk() {
+        int lastChunk = (firstChunk + chunkCount - 1) & (chunks.length - 1);
+        releaseChunk(chunks[lastChunk]);
+        chunks[lastChunk] = null;
+        chunkCount--;
+    }
+
+    private void removeAllChunks() {
+        while (chunkCount > 0)
+            removeLastChunk();
+        firstChunk = 0;
+        headSlot = 0;
+    }
+
+    private void ensureChunkCapacity() {
+        if (chunkCount < chunks.length)
+            return;
+        ByteBuffer[] newChunks = new ByteBuffer[chunks.length << 1];
+        for (int i = 0; i < chunkCount; i++)
+            newChunks[i] = chunks[(firstChunk + i) & (chunks.length - 1)];
+        chunks = newChunks;
+        firstChunk = 0;
+    }
+
+    private ByteBuffer takeChunk() {
+        ByteBuffer chunk = spareChunk;
+        spareChunk = null;
+        if (chunk == null)
+            chunk = ByteBuffer.allocateDirect(slotsPerChunk * slotSize).order(ByteOrder.nativeOrder());
+        return (chunk);
+    }
+
+    private void releaseChunk(ByteBuffer chunk) {
+        if (spareChunk == null)
+            spareChunk = chunk;
+        else
+            DirectBuffers.free(chunk);
+    }
+
+    private class SortView implements InPlaceMergeSort.Sequence {
+        @Override
+        public boolean isLess(int index, int other) {
+            T otherItem = readSlot(other);
+            if (otherItem == null)
+                return (false);
+            T item = readSlot(index);
+            if (item == null)
+                return (true);
+            return (sortComparator.compare(item, otherItem) < 0);
+        }
+
+        @Override
+        public void swap(int index, int other) {
+            swapSlots(index, other);
+        }
+    }
+
+    private class SlotIterator implements Iterator<T> {
+        private int index;
+        private int remaining = size;
+        private final boolean descending;
+        private final int expectedModCount = modCount;
+
+        SlotIterator(boolean descending) {
+            this.descending = descending;
+            this.index = descending ? size - 1 : 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (remaining > 0);
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining == 0)
+                throw new NoSuchElementException();
+            T item = readSlot(index);
+            index += descending ? -1 : 1;
+            remaining--;
+            return (item);
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package org.mps.deque;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe double-ended queue that spreads its elements over several shards, every one a
+ * {@link DoublyLinkedListDeque} guarded by its own lock, so concurrent producers don't contend
+ * on a single end. Every thread has a home shard, first chosen from its id; an insertion locks
+ * the home shard if it is free, and otherwise moves the home of the thread to the next free
+ * shard, so contending producers spread over the shards by themselves. {@link #size()} is the
+ * sum of a {@link LongAdder}, exact when the deque is quiescent.
+ * <p>
+ * The order is relaxed: every shard is a deque on its own, but there is no order between
+ * shards. {@link #first()}, {@link #deleteFirst()} and the other accessors at either end work
+ * on the home shard of the thread and, when it is empty, steal from the first non-empty shard,
+ * skipping the empty ones without locking them. A thread that works alone keeps a single home
+ * shard and sees a strict deque; the elements of a producer keep their order as long as its
+ * home does not move. An end accessor only reports an empty deque after finding every shard
+ * empty, which may miss elements inserted meanwhile.
+ * <p>
+ * The operations on the whole deque see the shards one after another, from the first to the
+ * last: {@link #get(int)} and the iteration order is the elements of the first shard followed
+ * by those of the next ones, and the iterators and the spliterator work on a copy taken that
+ * way, so they never throw {@link java.util.ConcurrentModificationException}.
+ * {@link #sort(Comparator)} locks every shard, in order, splices all of them into one list and
+ * leaves the sorted list in the home shard of the calling thread.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class ShardedDoubleEndedQueue<T> implements DoubleEndedQueue<T> {
+    static final int MAX_SHARDS = 1 << 16;
+    private static final Object NO_ITEM = new Object();
+
+    private final Shard<T>[] shards;
+    private final int mask;
+    private final LongAdder size = new LongAdder();
+    private final ThreadLocal<int[]> home;
+
+    /**
+     * Creates a deque with a shard per available processor, rounded up to a power of two.
+     */
+    public ShardedDoubleEndedQueue() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param shardCount minimum number of shards; it is rounded up to a power of two
+     * @throws IllegalArgumentException if the number of shards is lower than one or greater than
+     *                                  {@value #MAX_SHARDS}
+     */
+    public ShardedDoubleEndedQueue(int shardCount) {
+        if (shardCount < 1 || shardCount > MAX_SHARDS)
+            throw new IllegalArgumentException("Illegal number of shards: " + shardCount);
+        int count = 1 << (32 - Integer.numberOfLeadingZeros(shardCount - 1));
+        @SuppressWarnings("unchecked")
+        Shard<T>[] created = (Shard<T>[]) new Shard<?>[count];
+        for (int i = 0; i < count; i++)
+            created[i] = new Shard<>();
+        this.shards = created;
+        this.mask = count - 1;
+        this.home = ThreadLocal.withInitial(() -> new int[] {spread(Thread.currentThread().getId()) & mask});
+    }
+
+    /**
+     * Returns the number of shards of this deque.
+     *
+     * @return the number of shards
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    @Override
+    public void prepend(T value) {
+        Shard<T> shard = lockHomeShard();
+        try {
+            shard.items.prepend(value);
+            shard.count++;
+        } finally {
+            shard.lock.unlock();
+        }
+        size.increment();
+    }
+
+    @Override
+    public void append(T value) {
+        Shard<T> shard = lockHomeShard();
+        try {
+            shard.items.append(value);
+            shard.count++;
+        } finally {
+            shard.lock.unlock();
+        }
+        size.increment();
+    }
+
+    @Override
+    public void deleteFirst() {
+        if (take(true, true) == NO_ITEM)
+            throw new DoubleEndedQueueException("Empty deque", false);
+    }
+
+    @Override
+    public void deleteLast() {
+        if (take(false, true) == NO_ITEM)
+            throw new DoubleEndedQueueException("Empty deque", false);
+    }
+
+    @Override
+    public T first() {
+        Object item = take(true, false);
+        if (item == NO_ITEM)
+            throw new DoubleEndedQueueException("No items left", false);
+        return unmask(item);
+    }
+
+    @Override
+    public T last() {
+        Object item = take(false, false);
+        if (item == NO_ITEM)
+            throw new DoubleEndedQueueException("No items left", false);
+        return unmask(item);
+    }
+
+    @Override
+    public T peekFirst() {
+        return unmask(take(true, false));
+    }
+
+    @Override
+    public T peekLast() {
+        return unmask(take(false, false));
+    }
+
+    @Override
+    public T pollFirst() {
+        return unmask(take(true, true));
+    }
+
+    @Override
+    public T pollLast() {
+        return unmask(take(false, true));
+    }
+
+    @Override
+    public int size() {
+        long sum = size.sum();
+        return (int) Math.max(0, Math.min(sum, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        for (Shard<T> shard : shards) {
+            shard.lock.lock();
+            try {
+                if (index < shard.count)
+                    return (shard.items.get(index));
+                index -= shard.count;
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        throw new IndexOutOfBoundsException();
+    }
+
+    @Override
+    public boolean contains(T value) {
+        for (Shard<T> shard : shards) {
+            if (shard.count == 0)
+                continue;
+            shard.lock.lock();
+            try {
+                if (shard.items.contains(value))
+                    return (true);
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return (false);
+    }
+
+    @Override
+    public void remove(T value) {
+        if (size.sum() <= 0) {
+            throw new DoubleEndedQueueException("Can't remove from an empty deque", false);
+        }
+        for (Shard<T> shard : shards) {
+            if (shard.count == 0)
+                continue;
+            shard.lock.lock();
+            try {
+                if (shard.count > 0) {
+                    shard.items.remove(value);
+                    if (shard.items.size() < shard.count) {
+                        shard.count--;
+                        size.decrement();
+                        return;
+                    }
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        for (Shard<T> shard : shards)
+            shard.lock.lock();
+        try {
+            Shard<T> target = shards[home.get()[0]];
+            for (Shard<T> shard : shards) {
+                if (shard != target) {
+                    target.items.appendDeque(shard.items);
+                    target.count += shard.count;
+                    shard.count = 0;
+                }
+            }
+            target.items.sort(comparator);
+        } finally {
+            for (int i = shards.length - 1; i >= 0; i--)
+                shards[i].lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts every value into the home shard of the thread, taking its lock once.
+     */
+    @Override
+    public void appendAll(Iterable<? extends T> values) {
+        Shard<T> shard = lockHomeShard();
+        int added;
+        try {
+            shard.items.appendAll(values);
+            added = shard.items.size() - shard.count;
+            shard.count += added;
+        } finally {
+            shard.lock.unlock();
+        }
+        size.add(added);
+    }
+
+    /**
+     * Inserts every value into the home shard of the thread, taking its lock once.
+     */
+    @Override
+    public void prependAll(Iterable<? extends T> values) {
+        Shard<T> shard = lockHomeShard();
+        int added;
+        try {
+            shard.items.prependAll(values);
+            added = shard.items.size() - shard.count;
+            shard.count += added;
+        } finally {
+            shard.lock.unlock();
+        }
+        size.add(added);
+    }
+
+    /**
+     * Drains the home shard of the thread first and then the other shards, taking every lock
+     * once. The elements of a shard are handed to the consumer after its lock is released.
+     */
+    @Override
+    public int drainFirst(int maxElements, Consumer<? super T> consumer) {
+        if (maxElements < 0)
+            throw new IllegalArgumentException("Negative number of elements: " + maxElements);
+        int start = home.get()[0];
+        int drained = 0;
+        for (int i = 0; i < shards.length && drained < maxElements; i++) {
+            Shard<T> shard = shards[(start + i) & mask];
+            if (shard.count == 0)
+                continue;
+            DoublyLinkedListDeque<T> batch;
+            shard.lock.lock();
+            try {
+                int count = Math.min(maxElements - drained, shard.count);
+                batch = shard.items;
+                if (count < shard.count) {
+                    shard.items = batch.splitAt(count);
+                } else {
+                    shard.items = new DoublyLinkedListDeque<>();
+                }
+                shard.count -= count;
+            } finally {
+                shard.lock.unlock();
+            }
+            size.add(-batch.size());
+            drained += batch.size();
+            batch.forEach(consumer);
+        }
+        return (drained);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        boolean removed = false;
+        for (Shard<T> shard : shards) {
+            if (shard.count == 0)
+                continue;
+            shard.lock.lock();
+            try {
+                if (shard.items.removeIf(filter)) {
+                    size.add(shard.items.size() - shard.count);
+                    shard.count = shard.items.size();
+                    removed = true;
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return (removed);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return Arrays.asList(snapshot()).iterator();
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        T[] snapshot = snapshot();
+        for (int i = 0, j = snapshot.length - 1; i < j; i++, j--) {
+            T aux = snapshot[i];
+            snapshot[i] = snapshot[j];
+            snapshot[j] = aux;
+        }
+        return Arrays.asList(snapshot).iterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(snapshot(), Spliterator.ORDERED);
+    }
+
+    private static int spread(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T unmask(Object item) {
+        return item == NO_ITEM ? null : (T) item;
+    }
+
+    /**
+     * Locks the home shard of the thread if it is free, or else the next free shard, which
+     * becomes the new home. If every shard is busy it waits for the home shard.
+     */
+    private Shard<T> lockHomeShard() {
+        int[] hint = home.get();
+        for (int i = 0; i < shards.length; i++) {
+            int index = (hint[0] + i) & mask;
+            if (shards[index].lock.tryLock()) {
+                hint[0] = index;
+                return (shards[index]);
+            }
+        }
+        Shard<T> shard = shards[hint[0]];
+        shard.lock.lock();
+        return (shard);
+    }
+
+    /**
+     * Returns the item at the front or the back of the home shard of the thread, or of the
+     * first non-empty shard after it, deleting it if {@code delete} is set.
+     *
+     * @return the item, or {@link #NO_ITEM} if every shard was empty
+     */
+    private Object take(boolean front, boolean delete) {
+        int start = home.get()[0];
+        for (int i = 0; i < shards.length; i++) {
+            Shard<T> shard = shards[(start + i) & mask];
+            if (shard.count == 0)
+                continue;
+            shard.lock.lock();
+            try {
+                if (shard.count == 0)
+                    continue;
+                T item = front ? shard.items.first() : shard.items.last();
+                if (delete) {
+                    if (front)
+                        shard.items.deleteFirst();
+                    else
+                        shard.items.deleteLast();
+                    shard.count--;
+                    size.decrement();
+                }
+                return (item);
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return (NO_ITEM);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[] snapshot() {
+        Object[] snapshot = new Object[0];
+        int length = 0;
+        for (Shard<T> shard : shards) {
+            if (shard.count == 0)
+                continue;
+            shard.lock.lock();
+            try {
+                if (snapshot.length - length < shard.count)
+                    snapshot = Arrays.copyOf(snapshot, length + shard.count);
+                for (T item : shard.items)
+                    snapshot[length++] = item;
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return (T[]) Arrays.copyOf(snapshot, length);
+    }
+
+    /**
+     * A deque and its lock. The count mirrors the size of the deque; it is only written under
+     * the lock and is volatile so that empty shards are skipped without locking them.
+     */
+    private static final class Shard<T> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private DoublyLinkedListDeque<T> items = new DoublyLinkedListDeque<>();
+        private volatile int count;
+    }
+}
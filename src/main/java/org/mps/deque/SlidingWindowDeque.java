@@ -0,0 +1,437 @@
+package org.mps.deque;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Doubly linked list deque used as a sliding window: after every insertion it evicts elements
+ * from the front while the window breaks one of its limits, a maximum number of elements, a
+ * maximum total weight or a maximum age. Every limit is disabled until it is set, so a new window
+ * behaves as a {@link DoublyLinkedListDeque}.
+ * <p>
+ * The age of an element is measured with the timestamps given by
+ * {@link #setMaxAge(long, ToLongFunction)}: an element expires when the newest timestamp inserted,
+ * or given to {@link #evictExpired(long)}, is later than its own by more than the maximum age.
+ * Elements are expected to be appended in timestamp order; eviction stops at the first front
+ * element within every limit, so an element older than the ones before it waits behind them.
+ * <p>
+ * Eviction walks the expired front elements once and detaches all of them as a single chain,
+ * so it takes time proportional to the number of elements evicted and the bulk insertions
+ * evict once for the whole batch. The {@link EvictionListener} is told about every evicted
+ * element, in deque order, after the chain is detached; if it throws, the exception reaches the
+ * insertion and the remaining evicted elements are not reported. The total weight is kept up to
+ * date by every operation; {@link #remove(Object)} and {@link #removeIf(Predicate)} weigh the
+ * remaining elements again, which they walk anyway.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class SlidingWindowDeque<T> extends DoublyLinkedListDeque<T> {
+    private int maxSize = Integer.MAX_VALUE;
+    private long maxWeight = Long.MAX_VALUE;
+    private ToLongFunction<? super T> weigher;
+    private long totalWeight;
+    private long maxAge = Long.MAX_VALUE;
+    private ToLongFunction<? super T> timestamp;
+    private long newestTimestamp = Long.MIN_VALUE;
+    private EvictionListener<? super T> listener;
+
+    public SlidingWindowDeque() {
+        super();
+    }
+
+    /**
+     * @param maxSize maximum number of elements of the window
+     * @throws IllegalArgumentException if the maximum size is negative
+     */
+    public SlidingWindowDeque(int maxSize) {
+        super();
+        if (maxSize < 0)
+            throw new IllegalArgumentException("Negative maximum size: " + maxSize);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the maximum number of elements of the window.
+     *
+     * @return the maximum size, {@link Integer#MAX_VALUE} if it is not limited
+     */
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Limits the number of elements of the window, evicting the front elements that exceed it.
+     *
+     * @param maxSize maximum number of elements of the window
+     * @throws IllegalArgumentException if the maximum size is negative
+     */
+    public void setMaxSize(int maxSize) {
+        if (maxSize < 0)
+            throw new IllegalArgumentException("Negative maximum size: " + maxSize);
+        this.maxSize = maxSize;
+        evict();
+    }
+
+    /**
+     * Returns the maximum total weight of the window.
+     *
+     * @return the maximum weight, {@link Long#MAX_VALUE} if it is not limited
+     */
+    public long getMaxWeight() {
+        return this.maxWeight;
+    }
+
+    /**
+     * Returns the sum of the weights of the elements, or zero if the weight is not limited.
+     *
+     * @return the total weight of the window
+     */
+    public long getTotalWeight() {
+        return this.totalWeight;
+    }
+
+    /**
+     * Limits the total weight of the window, weighing every element held and evicting the front
+     * elements until the total weight fits.
+     *
+     * @param maxWeight maximum sum of the weights of the elements
+     * @param weigher   function giving the weight of an element, which must not be negative
+     * @throws IllegalArgumentException if the maximum weight or the weight of an element is
+     *                                  negative
+     */
+    public void setMaxWeight(long maxWeight, ToLongFunction<? super T> weigher) {
+        if (maxWeight < 0)
+            throw new IllegalArgumentException("Negative maximum weight: " + maxWeight);
+        Objects.requireNonNull(weigher);
+        ToLongFunction<? super T> previousWeigher = this.weigher;
+        this.weigher = weigher;
+        try {
+            this.totalWeight = weighAll();
+        } catch (IllegalArgumentException e) {
+            this.weigher = previousWeigher;
+            throw e;
+        }
+        this.maxWeight = maxWeight;
+        evict();
+    }
+
+    /**
+     * Returns the maximum age of the elements of the window.
+     *
+     * @return the maximum age, {@link Long#MAX_VALUE} if it is not limited
+     */
+    public long getMaxAge() {
+        return this.maxAge;
+    }
+
+    /**
+     * Limits the age of the elements of the window, taking the newest timestamp of the elements
+     * held as the current time and evicting the front elements that expired.
+     *
+     * @param maxAge    maximum difference between the newest timestamp and the one of an element
+     * @param timestamp function giving the timestamp of an element
+     * @throws IllegalArgumentException if the maximum age is negative
+     */
+    public void setMaxAge(long maxAge, ToLongFunction<? super T> timestamp) {
+        if (maxAge < 0)
+            throw new IllegalArgumentException("Negative maximum age: " + maxAge);
+        this.timestamp = Objects.requireNonNull(timestamp);
+        this.maxAge = maxAge;
+        for (T item : this)
+            newestTimestamp = Math.max(newestTimestamp, timestamp.applyAsLong(item));
+        evict();
+    }
+
+    /**
+     * Sets the listener told about every evicted element.
+     *
+     * @param listener the listener, or {@code null} to stop reporting evictions
+     */
+    public void setEvictionListener(EvictionListener<? super T> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Advances the current time of the window without inserting and evicts the front elements
+     * that expired. A time earlier than the newest timestamp inserted is ignored.
+     *
+     * @param now the current time, in the unit of the timestamps
+     * @throws IllegalStateException if the age is not limited
+     */
+    public void evictExpired(long now) {
+        if (timestamp == null)
+            throw new IllegalStateException("The age of the window is not limited");
+        newestTimestamp = Math.max(newestTimestamp, now);
+        evict();
+    }
+
+    @Override
+    public void prepend(T value) {
+        long weight = weigh(value);
+        super.prepend(value);
+        inserted(value, weight);
+        evict();
+    }
+
+    @Override
+    public void append(T value) {
+        long weight = weigh(value);
+        super.append(value);
+        inserted(value, weight);
+        evict();
+    }
+
+    @Override
+    public void deleteFirst() {
+        T item = peekFirst();
+        super.deleteFirst();
+        totalWeight -= weigh(item);
+    }
+
+    @Override
+    public void deleteLast() {
+        T item = peekLast();
+        super.deleteLast();
+        totalWeight -= weigh(item);
+    }
+
+    @Override
+    public void remove(T value) {
+        int previousSize = size();
+        super.remove(value);
+        if (size() < previousSize)
+            totalWeight = weighAll();
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        try {
+            return (super.removeIf(filter));
+        } finally {
+            totalWeight = weighAll();
+        }
+    }
+
+    /**
+     * Inserts every value at the back as {@link DoublyLinkedListDeque#appendAll} does and then
+     * evicts once.
+     */
+    @Override
+    public void appendAll(Iterable<? extends T> values) {
+        List<T> buffer = new ArrayList<>();
+        long weight = weighInto(values, buffer);
+        super.appendAll(buffer);
+        insertedAll(buffer, weight);
+        evict();
+    }
+
+    /**
+     * Inserts every value at the front as {@link DoublyLinkedListDeque#prependAll} does and then
+     * evicts once.
+     */
+    @Override
+    public void prependAll(Iterable<? extends T> values) {
+        List<T> buffer = new ArrayList<>();
+        long weight = weighInto(values, buffer);
+        super.prependAll(buffer);
+        insertedAll(buffer, weight);
+        evict();
+    }
+
+    /**
+     * Weighs the first elements and then drains them as {@link DoublyLinkedListDeque#drainFirst}
+     * does.
+     */
+    @Override
+    public int drainFirst(int maxElements, Consumer<? super T> consumer) {
+        if (maxElements < 0)
+            throw new IllegalArgumentException("Negative number of elements: " + maxElements);
+        DequeNode<T> iteratorNode = firstNode();
+        for (int i = 0; i < maxElements && iteratorNode != null; i++) {
+            totalWeight -= weigh(iteratorNode.getItem());
+            iteratorNode = iteratorNode.getNext();
+        }
+        return (super.drainFirst(maxElements, consumer));
+    }
+
+    /**
+     * Moves the nodes of {@code other} as {@link DoublyLinkedListDeque#appendDeque} does, weighing
+     * them first, and then evicts once.
+     */
+    @Override
+    public void appendDeque(DoublyLinkedListDeque<T> other) {
+        List<T> moved = new ArrayList<>();
+        long weight = other == this ? 0 : weighInto(other, moved);
+        super.appendDeque(other);
+        insertedAll(moved, weight);
+        evict();
+    }
+
+    /**
+     * Moves the nodes of {@code other} as {@link DoublyLinkedListDeque#prependDeque} does,
+     * weighing them first, and then evicts once.
+     */
+    @Override
+    public void prependDeque(DoublyLinkedListDeque<T> other) {
+        List<T> moved = new ArrayList<>();
+        long weight = other == this ? 0 : weighInto(other, moved);
+        super.prependDeque(other);
+        insertedAll(moved, weight);
+        evict();
+    }
+
+    /**
+     * Splits the deque as {@link DoublyLinkedListDeque#splitAt(int)} does; the tail is returned
+     * as a plain deque without limits.
+     */
+    @Override
+    public DoublyLinkedListDeque<T> splitAt(int index) {
+        DoublyLinkedListDeque<T> tail = super.splitAt(index);
+        if (weigher != null)
+            for (T item : tail)
+                totalWeight -= weigh(item);
+        return (tail);
+    }
+
+    /**
+     * Resets the total weight along with the nodes, which now belong to the deque they were
+     * moved to.
+     */
+    @Override
+    protected void clearNodes() {
+        super.clearNodes();
+        totalWeight = 0;
+    }
+
+    private long weigh(T value) {
+        if (weigher == null)
+            return (0);
+        long weight = weigher.applyAsLong(value);
+        if (weight < 0)
+            throw new IllegalArgumentException("Negative weight: " + weight);
+        return (weight);
+    }
+
+    private long weighAll() {
+        long weight = 0;
+        if (weigher != null)
+            for (T item : this)
+                weight += weigh(item);
+        return (weight);
+    }
+
+    /**
+     * Copies the values into the buffer, weighing them before anything is inserted.
+     *
+     * @return the sum of their weights
+     */
+    private long weighInto(Iterable<? extends T> values, List<T> buffer) {
+        long weight = 0;
+        for (T value : values) {
+            weight += weigh(value);
+            buffer.add(value);
+        }
+        return (weight);
+    }
+
+    private void inserted(T value, long weight) {
+        totalWeight += weight;
+        if (timestamp != null)
+            newestTimestamp = Math.max(newestTimestamp, timestamp.applyAsLong(value));
+    }
+
+    private void insertedAll(List<T> values, long weight) {
+        totalWeight += weight;
+        if (timestamp != null)
+            for (T value : values)
+                newestTimestamp = Math.max(newestTimestamp, timestamp.applyAsLong(value));
+    }
+
+    /**
+     * Returns the limit the window breaks while it holds the given element at its front along
+     * with {@code size - 1} elements after it, weighing {@code weight} in total.
+     *
+     * @return the cause of the eviction of the element, or {@code null} if it is kept
+     */
+    private EvictionCause causeOf(T item, int size, long weight) {
+        if (size > maxSize)
+            return (EvictionCause.SIZE);
+        if (weight > maxWeight)
+            return (EvictionCause.WEIGHT);
+        if (timestamp != null && newestTimestamp - timestamp.applyAsLong(item) > maxAge)
+            return (EvictionCause.AGE);
+        return (null);
+    }
+
+    /**
+     * Walks the front nodes while the window breaks a limit and detaches them at once.
+     */
+    private void evict() {
+        int count = 0;
+        long evictedWeight = 0;
+        List<EvictionCause> causes = null;
+        for (DequeNode<T> iteratorNode = firstNode(); iteratorNode != null;
+             iteratorNode = iteratorNode.getNext()) {
+            T item = iteratorNode.getItem();
+            EvictionCause cause = causeOf(item, size() - count, totalWeight - evictedWeight);
+            if (cause == null)
+                break;
+            if (listener != null) {
+                if (causes == null)
+                    causes = new ArrayList<>();
+                causes.add(cause);
+            }
+            evictedWeight += weigh(item);
+            count++;
+        }
+        if (count == 0)
+            return;
+        totalWeight -= evictedWeight;
+        if (causes == null) {
+            super.drainFirst(count, item -> { });
+        } else {
+            List<T> evicted = new ArrayList<>(count);
+            super.drainFirst(count, evicted::add);
+            for (int i = 0; i < count; i++)
+                listener.onEviction(evicted.get(i), causes.get(i));
+        }
+    }
+
+    /**
+     * The limit an evicted element broke.
+     */
+    public enum EvictionCause {
+        /**
+         * The window held more elements than its maximum size.
+         */
+        SIZE,
+        /**
+         * The total weight of the window was greater than its maximum weight.
+         */
+        WEIGHT,
+        /**
+         * The element was older than the maximum age.
+         */
+        AGE
+    }
+
+    /**
+     * Listener told about the elements evicted from a window.
+     *
+     * @param <T> the type of elements evicted
+     */
+    @FunctionalInterface
+    public interface EvictionListener<T> {
+        /**
+         * Called for every evicted element, in deque order, once it is no longer in the window.
+         *
+         * @param item  the evicted element
+         * @param cause the limit the window broke
+         */
+        void onEviction(T item, EvictionCause cause);
+    }
+}
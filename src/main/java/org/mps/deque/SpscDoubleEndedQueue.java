@@ -0,0 +1,406 @@
+package org.mps.deque;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Bounded deque for exactly one producer thread, which appends at the back, and one consumer
+ * thread, which reads and deletes at the front. The elements are kept in a circular array
+ * between the {@code head} index, owned by the consumer, and the {@code tail} index, owned by the
+ * producer; neither operation locks, compares-and-sets or waits.
+ * <p>
+ * Every index lives in its own padded object, next to the last value of the other index its
+ * owner has read, so the two threads never write to the same cache line. An index is published
+ * with a release store (a lazy set) after the slots it covers are written or cleared, and it is
+ * read with an acquire load only when the cached value of the other side says that the array is
+ * full, for the producer, or empty, for the consumer; so most operations read no shared index at
+ * all. {@link #appendAll(Iterable)} and {@link #drainFirst(int, Consumer)} publish the index once
+ * for the whole batch.
+ * <p>
+ * The producer operations are {@link #append(Object)}, {@link #offerLast(Object)} and
+ * {@link #appendAll(Iterable)}, which throw a {@link DoubleEndedQueueException} when the deque is
+ * full, as the deletions and accessors do when it is empty. Every other operation belongs to the
+ * consumer, except {@link #size()}, which any thread may call. {@link #get(int)},
+ * {@link #contains(Object)}, the iterators and the spliterator see the elements present when they
+ * start. Inserting at the front, deleting at the back and removing from the middle don't fit a
+ * single producer and a single consumer, so {@link #prepend(Object)}, {@link #deleteLast()},
+ * {@link #remove(Object)}, {@link #sort(Comparator)} and the operations built on them throw
+ * {@link UnsupportedOperationException}.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class SpscDoubleEndedQueue<T> implements DoubleEndedQueue<T> {
+    static final int DEFAULT_CAPACITY = 1024;
+    private static final Object NO_ITEM = new Object();
+
+    private final Object[] slots;
+    private final int mask;
+    private final Index head = new Index();
+    private final Index tail = new Index();
+
+    public SpscDoubleEndedQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity minimum number of elements the deque holds; it is rounded up to a power of
+     *                 two
+     * @throws IllegalArgumentException if the capacity is lower than one or too large
+     */
+    public SpscDoubleEndedQueue(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30)
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        this.slots = new Object[1 << (32 - Integer.numberOfLeadingZeros(capacity - 1))];
+        this.mask = slots.length - 1;
+    }
+
+    /**
+     * Returns the maximum number of elements of this deque.
+     *
+     * @return the capacity of this deque
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Inserts the value at the back of the deque if it is not full. Only the producer may call
+     * it.
+     *
+     * @return whether the value was inserted
+     */
+    public boolean offerLast(T value) {
+        long t = tail.value;
+        if (t >= tail.limit) {
+            tail.limit = (long) Index.VALUE.getAcquire(head) + slots.length;
+            if (t >= tail.limit)
+                return false;
+        }
+        slots[(int) t & mask] = value;
+        Index.VALUE.setRelease(tail, t + 1);
+        return true;
+    }
+
+    /**
+     * Inserts the value at the back of the deque. Only the producer may call it.
+     *
+     * @throws DoubleEndedQueueException if the deque is full
+     */
+    @Override
+    public void append(T value) {
+        if (!offerLast(value))
+            throw new DoubleEndedQueueException("Full deque", false);
+    }
+
+    /**
+     * Not supported: only the producer inserts, and only at the back.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void prepend(T value) {
+        throw new UnsupportedOperationException("Can't prepend to a single-producer deque");
+    }
+
+    @Override
+    public void deleteFirst() {
+        if (take() == NO_ITEM)
+            throw new DoubleEndedQueueException("Empty deque", false);
+    }
+
+    /**
+     * Not supported: only the consumer deletes, and only at the front.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void deleteLast() {
+        throw new UnsupportedOperationException("Can't delete the last element of a single-consumer deque");
+    }
+
+    @Override
+    public T first() {
+        Object item = peek();
+        if (item == NO_ITEM)
+            throw new DoubleEndedQueueException("No items left", false);
+        return unmask(item);
+    }
+
+    /**
+     * Returns the last element published by the producer.
+     */
+    @Override
+    public T last() {
+        long h = head.value;
+        long t = refreshTail();
+        if (h >= t)
+            throw new DoubleEndedQueueException("No items left", false);
+        return unmask(slots[(int) (t - 1) & mask]);
+    }
+
+    @Override
+    public T peekFirst() {
+        return unmask(peek());
+    }
+
+    @Override
+    public T peekLast() {
+        long h = head.value;
+        long t = refreshTail();
+        return h >= t ? null : unmask(slots[(int) (t - 1) & mask]);
+    }
+
+    @Override
+    public T pollFirst() {
+        return unmask(take());
+    }
+
+    /**
+     * Not supported: only the consumer deletes, and only at the front.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public T pollLast() {
+        throw new UnsupportedOperationException("Can't delete the last element of a single-consumer deque");
+    }
+
+    /**
+     * Returns the number of elements, which is exact for the consumer when the producer is not
+     * appending and for the producer when the consumer is not deleting.
+     */
+    @Override
+    public int size() {
+        long h = (long) Index.VALUE.getAcquire(head);
+        long t = (long) Index.VALUE.getAcquire(tail);
+        return (int) Math.max(0, t - h);
+    }
+
+    @Override
+    public T get(int index) {
+        long h = head.value;
+        long t = refreshTail();
+        if (t - h <= index || index < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        return (unmask(slots[(int) (h + index) & mask]));
+    }
+
+    @Override
+    public boolean contains(T value) {
+        for (T item : snapshot())
+            if (Objects.equals(item, value))
+                return (true);
+        return (false);
+    }
+
+    /**
+     * Not supported: elements can't be taken from the middle of the array.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void remove(T value) {
+        throw new UnsupportedOperationException("Can't remove from the middle of a single-consumer deque");
+    }
+
+    /**
+     * Not supported: the producer may be writing the array.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        throw new UnsupportedOperationException("Can't sort a single-consumer deque");
+    }
+
+    /**
+     * Inserts every value at the back and publishes them at once. Only the producer may call it.
+     * It is all-or-nothing: nothing is inserted if the values don't fit.
+     *
+     * @throws DoubleEndedQueueException if the values don't fit in the deque
+     */
+    @Override
+    public void appendAll(Iterable<? extends T> values) {
+        List<T> buffer = new ArrayList<>();
+        for (T value : values)
+            buffer.add(value);
+        long t = tail.value;
+        if (t + buffer.size() > tail.limit) {
+            tail.limit = (long) Index.VALUE.getAcquire(head) + slots.length;
+            if (t + buffer.size() > tail.limit)
+                throw new DoubleEndedQueueException("Full deque", false);
+        }
+        for (T value : buffer)
+            slots[(int) t++ & mask] = value;
+        Index.VALUE.setRelease(tail, t);
+    }
+
+    /**
+     * Not supported: only the producer inserts, and only at the back.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void prependAll(Iterable<? extends T> values) {
+        throw new UnsupportedOperationException("Can't prepend to a single-producer deque");
+    }
+
+    /**
+     * Deletes up to {@code maxElements} front elements, reading the index of the producer once
+     * and publishing the index of the consumer once.
+     */
+    @Override
+    public int drainFirst(int maxElements, Consumer<? super T> consumer) {
+        if (maxElements < 0)
+            throw new IllegalArgumentException("Negative number of elements: " + maxElements);
+        long h = head.value;
+        long available = refreshTail() - h;
+        int count = (int) Math.min(maxElements, available);
+        int drained = 0;
+        try {
+            while (drained < count) {
+                int index = (int) (h + drained) & mask;
+                T item = unmask(slots[index]);
+                slots[index] = null;
+                drained++;
+                consumer.accept(item);
+            }
+        } finally {
+            if (drained > 0)
+                Index.VALUE.setRelease(head, h + drained);
+        }
+        return (drained);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> values) {
+        throw new UnsupportedOperationException("Can't remove from the middle of a single-consumer deque");
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        throw new UnsupportedOperationException("Can't remove from the middle of a single-consumer deque");
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return Arrays.asList(snapshot()).iterator();
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        T[] snapshot = snapshot();
+        for (int i = 0, j = snapshot.length - 1; i < j; i++, j--) {
+            T aux = snapshot[i];
+            snapshot[i] = snapshot[j];
+            snapshot[j] = aux;
+        }
+        return Arrays.asList(snapshot).iterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(snapshot(), Spliterator.ORDERED);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T unmask(Object item) {
+        return item == NO_ITEM ? null : (T) item;
+    }
+
+    /**
+     * Reads the index of the producer and caches it for the consumer.
+     */
+    private long refreshTail() {
+        return head.limit = (long) Index.VALUE.getAcquire(tail);
+    }
+
+    /**
+     * Returns the front element, reading the index of the producer only if the cached one says
+     * the deque is empty.
+     *
+     * @return the element, or {@link #NO_ITEM} if the deque was empty
+     */
+    private Object peek() {
+        long h = head.value;
+        if (h >= head.limit && h >= refreshTail())
+            return NO_ITEM;
+        return slots[(int) h & mask];
+    }
+
+    /**
+     * Deletes the front element, clearing its slot before publishing the new index, so that the
+     * producer only reuses the slot once the consumer is done with it.
+     *
+     * @return the element, or {@link #NO_ITEM} if the deque was empty
+     */
+    private Object take() {
+        long h = head.value;
+        if (h >= head.limit && h >= refreshTail())
+            return NO_ITEM;
+        int index = (int) h & mask;
+        Object item = slots[index];
+        slots[index] = null;
+        Index.VALUE.setRelease(head, h + 1);
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[] snapshot() {
+        long h = head.value;
+        long t = refreshTail();
+        Object[] snapshot = new Object[(int) (t - h)];
+        for (int i = 0; i < snapshot.length; i++)
+            snapshot[i] = slots[(int) (h + i) & mask];
+        return (T[]) snapshot;
+    }
+
+    /**
+     * Fields laid out before those of {@link Index}, as the JVM places the fields of a superclass
+     * first, so that nothing else shares their cache lines.
+     */
+    @SuppressWarnings("unused")
+    private abstract static class LeftPadding {
+        private long p00, p01, p02, p03, p04, p05, p06, p07;
+        private long p08, p09, p10, p11, p12, p13, p14, p15;
+    }
+
+    /**
+     * The index owned by one thread, and {@code limit}, its owner's cached view of the other
+     * index: for the producer the first index it can't write, for the consumer the first one it
+     * can't read. {@code value} is written with a release store and read by the other thread with
+     * an acquire load; {@code limit} is only read and written by the owner.
+     */
+    private abstract static class IndexFields extends LeftPadding {
+        static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(IndexFields.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        long value;
+        long limit;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Index extends IndexFields {
+        private long p16, p17, p18, p19, p20, p21, p22, p23;
+        private long p24, p25, p26, p27, p28, p29, p30, p31;
+    }
+}
@@ -0,0 +1,416 @@
+package org.mps.deque;
+
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Double-ended queue implemented as an unrolled doubly linked list: every node is a
+ * {@link DequeSegment} holding a fixed-capacity array of items, so the per-element overhead
+ * is a single array slot instead of a whole node.
+ * <p>
+ * The deque keeps up to two empty segments as spares. They are reused when an end segment
+ * fills up or empties, and they are the buffers that let {@link #sort(Comparator)} merge
+ * segments without allocating.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class UnrolledDoubleEndedQueue<T> implements DoubleEndedQueue<T> {
+    static final int DEFAULT_SEGMENT_CAPACITY = 64;
+    private static final int SPARE_SEGMENTS = 2;
+
+    private final int segmentCapacity;
+    private DequeSegment<T> first;
+    private DequeSegment<T> last;
+    private DequeSegment<T> spares;
+    private int spareCount;
+    private int segmentCount;
+    private int size;
+    private int modCount;
+
+    public UnrolledDoubleEndedQueue() {
+        this(DEFAULT_SEGMENT_CAPACITY);
+    }
+
+    /**
+     * @param segmentCapacity number of items held by every segment
+     * @throws IllegalArgumentException if the capacity is lower than one
+     */
+    public UnrolledDoubleEndedQueue(int segmentCapacity) {
+        if (segmentCapacity < 1)
+            throw new IllegalArgumentException("Segment capacity must be positive");
+        this.segmentCapacity = segmentCapacity;
+    }
+
+    @Override
+    public void prepend(T value) {
+        if (first == null) {
+            first = newSegment(segmentCapacity);
+            last = first;
+        } else if (!first.hasRoomAtFront()) {
+            if (first.isFull()) {
+                DequeSegment<T> newSegment = newSegment(segmentCapacity);
+                newSegment.setNext(first);
+                first.setPrevious(newSegment);
+                first = newSegment;
+            } else {
+                first.shiftToBack();
+            }
+        }
+        first.setStart(first.getStart() - 1);
+        first.setCount(first.getCount() + 1);
+        first.setItem(0, value);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void append(T value) {
+        if (last == null) {
+            last = newSegment(0);
+            first = last;
+        } else if (!last.hasRoomAtBack()) {
+            if (last.isFull()) {
+                DequeSegment<T> newSegment = newSegment(0);
+                newSegment.setPrevious(last);
+                last.setNext(newSegment);
+                last = newSegment;
+            } else {
+                last.shiftToFront();
+            }
+        }
+        last.setCount(last.getCount() + 1);
+        last.setItem(last.getCount() - 1, value);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void deleteFirst() {
+        if (first == null)
+            throw new DoubleEndedQueueException("Empty deque", false);
+        first.removeAt(0);
+        if (first.isEmpty())
+            unlink(first);
+        size--;
+        modCount++;
+    }
+
+    @Override
+    public void deleteLast() {
+        if (last == null)
+            throw new DoubleEndedQueueException("Empty deque", false);
+        last.removeAt(last.getCount() - 1);
+        if (last.isEmpty())
+            unlink(last);
+        size--;
+        modCount++;
+    }
+
+    @Override
+    public T first() {
+        if (first == null)
+            throw new DoubleEndedQueueException("No items left", false);
+        return first.getItem(0);
+    }
+
+    @Override
+    public T last() {
+        if (last == null)
+            throw new DoubleEndedQueueException("No items left", false);
+        return last.getItem(last.getCount() - 1);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public T get(int index) {
+        if (size <= index || index < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        DequeSegment<T> iteratorSegment;
+        if (index < size / 2) {
+            iteratorSegment = first;
+            while (index >= iteratorSegment.getCount()) {
+                index -= iteratorSegment.getCount();
+                iteratorSegment = iteratorSegment.getNext();
+            }
+        } else {
+            index = size - 1 - index;
+            iteratorSegment = last;
+            while (index >= iteratorSegment.getCount()) {
+                index -= iteratorSegment.getCount();
+                iteratorSegment = iteratorSegment.getPrevious();
+            }
+            index = iteratorSegment.getCount() - 1 - index;
+        }
+        return (iteratorSegment.getItem(index));
+    }
+
+    @Override
+    public boolean contains(T value) {
+        DequeSegment<T> iteratorSegment = first;
+        while (iteratorSegment != null) {
+            if (indexInSegment(iteratorSegment, value) >= 0)
+                return (true);
+            iteratorSegment = iteratorSegment.getNext();
+        }
+        return (false);
+    }
+
+    @Override
+    public void remove(T value) {
+        if (size == 0) {
+            throw new DoubleEndedQueueException("Can't remove from an empty deque", false);
+        }
+        DequeSegment<T> iteratorSegment = first;
+        while (iteratorSegment != null) {
+            int offset = indexInSegment(iteratorSegment, value);
+            if (offset >= 0) {
+                iteratorSegment.removeAt(offset);
+                if (iteratorSegment.isEmpty())
+                    unlink(iteratorSegment);
+                size--;
+                modCount++;
+                return;
+            }
+            iteratorSegment = iteratorSegment.getNext();
+        }
+    }
+
+    /**
+     * Sorts every segment with an insertion sort and then merges runs of segments bottom-up,
+     * writing the merged items into spare segments and recycling the input segments as they
+     * are consumed. Adjacent runs that are already in order are not merged, so a sorted deque
+     * is sorted in linear time. The sort is stable and null items are placed at the front of
+     * the deque.
+     */
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        if (size <= 1)
+            return;
+        modCount++;
+        DequeSegment<T> iteratorSegment = first;
+        while (iteratorSegment != null) {
+            insertionSort(iteratorSegment, comparator);
+            iteratorSegment = iteratorSegment.getNext();
+        }
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            DequeSegment<T> runStart = first;
+            while (runStart != null) {
+                DequeSegment<T> runEnd = endOfRun(runStart, comparator);
+                DequeSegment<T> nextRunStart = runEnd.getNext();
+                if (nextRunStart == null)
+                    break;
+                DequeSegment<T> nextRunEnd = endOfRun(nextRunStart, comparator);
+                runStart = merge(runStart, runEnd, nextRunStart, nextRunEnd, comparator).getNext();
+                merged = true;
+            }
+        }
+        trimSpares();
+    }
+
+    /**
+     * Returns a fail-fast iterator that walks the segments and reads their arrays directly.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new SegmentIterator(false);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new SegmentIterator(true);
+    }
+
+    private int indexInSegment(DequeSegment<T> segment, T value) {
+        Object[] items = segment.getItems();
+        int end = segment.getStart() + segment.getCount();
+        for (int i = segment.getStart(); i < end; i++) {
+            if (Objects.equals(items[i], value))
+                return (i - segment.getStart());
+        }
+        return (-1);
+    }
+
+    private boolean isSortedItems(T item, T next, Comparator<? super T> comparator) {
+        if (item == null)
+            return (true);
+        else if (next == null)
+            return (false);
+        else
+            return (comparator.compare(item, next) <= 0);
+    }
+
+    private void insertionSort(DequeSegment<T> segment, Comparator<? super T> comparator) {
+        for (int i = 1; i < segment.getCount(); i++) {
+            T item = segment.getItem(i);
+            int j = i;
+            while (j > 0 && !isSortedItems(segment.getItem(j - 1), item, comparator)) {
+                segment.setItem(j, segment.getItem(j - 1));
+                j--;
+            }
+            segment.setItem(j, item);
+        }
+    }
+
+    private DequeSegment<T> endOfRun(DequeSegment<T> runStart, Comparator<? super T> comparator) {
+        DequeSegment<T> iteratorSegment = runStart;
+        while (iteratorSegment.getNext() != null
+                && isSortedItems(iteratorSegment.getItem(iteratorSegment.getCount() - 1),
+                iteratorSegment.getNext().getItem(0), comparator))
+            iteratorSegment = iteratorSegment.getNext();
+        return (iteratorSegment);
+    }
+
+    /**
+     * Merges the adjacent runs of segments {@code left..leftEnd} and {@code right..rightEnd}.
+     * Items are moved into spare segments, and every input segment goes back to the spares
+     * once it has been consumed. Both runs are consumed completely, so the merged run never
+     * needs more segments than it frees plus the two spares.
+     *
+     * @return the last segment of the merged run
+     */
+    private DequeSegment<T> merge(DequeSegment<T> left, DequeSegment<T> leftEnd, DequeSegment<T> right,
+                                  DequeSegment<T> rightEnd, Comparator<? super T> comparator) {
+        DequeSegment<T> before = left.getPrevious();
+        DequeSegment<T> after = rightEnd.getNext();
+        DequeSegment<T> output = null;
+        DequeSegment<T> outputFirst = null;
+        while (left != null || right != null) {
+            T item;
+            if (right == null || (left != null && isSortedItems(left.getItem(0), right.getItem(0), comparator))) {
+                item = left.getItem(0);
+                left.removeAt(0);
+                if (left.isEmpty())
+                    left = releaseRunSegment(left, leftEnd);
+            } else {
+                item = right.getItem(0);
+                right.removeAt(0);
+                if (right.isEmpty())
+                    right = releaseRunSegment(right, rightEnd);
+            }
+            if (output == null || output.isFull()) {
+                DequeSegment<T> newSegment = takeSpare(0);
+                segmentCount++;
+                if (output == null) {
+                    outputFirst = newSegment;
+                } else {
+                    output.setNext(newSegment);
+                    newSegment.setPrevious(output);
+                }
+                output = newSegment;
+            }
+            output.setCount(output.getCount() + 1);
+            output.setItem(output.getCount() - 1, item);
+        }
+        DequeSegment<T> mergedLast = output;
+        outputFirst.setPrevious(before);
+        if (before == null)
+            first = outputFirst;
+        else
+            before.setNext(outputFirst);
+        mergedLast.setNext(after);
+        if (after == null)
+            last = mergedLast;
+        else
+            after.setPrevious(mergedLast);
+        return (mergedLast);
+    }
+
+    private DequeSegment<T> releaseRunSegment(DequeSegment<T> segment, DequeSegment<T> runEnd) {
+        DequeSegment<T> next = segment == runEnd ? null : segment.getNext();
+        segmentCount--;
+        pushSpare(segment);
+        return (next);
+    }
+
+    private DequeSegment<T> newSegment(int start) {
+        DequeSegment<T> segment = spares != null ? takeSpare(start) : new DequeSegment<>(segmentCapacity);
+        segment.setStart(start);
+        segmentCount++;
+        while (segmentCount > 1 && spareCount < SPARE_SEGMENTS)
+            pushSpare(new DequeSegment<>(segmentCapacity));
+        return (segment);
+    }
+
+    private void unlink(DequeSegment<T> segment) {
+        if (segment.getPrevious() == null)
+            first = segment.getNext();
+        else
+            segment.getPrevious().setNext(segment.getNext());
+        if (segment.getNext() == null)
+            last = segment.getPrevious();
+        else
+            segment.getNext().setPrevious(segment.getPrevious());
+        segmentCount--;
+        if (spareCount < SPARE_SEGMENTS)
+            pushSpare(segment);
+    }
+
+    private void pushSpare(DequeSegment<T> segment) {
+        segment.reset(0);
+        segment.setNext(spares);
+        spares = segment;
+        spareCount++;
+    }
+
+    private DequeSegment<T> takeSpare(int start) {
+        DequeSegment<T> segment = spares;
+        spares = segment.getNext();
+        spareCount--;
+        segment.reset(start);
+        return (segment);
+    }
+
+    private void trimSpares() {
+        while (spareCount > SPARE_SEGMENTS)
+            takeSpare(0);
+    }
+
+    private class SegmentIterator implements Iterator<T> {
+        private DequeSegment<T> segment;
+        private int offset;
+        private int remaining = size;
+        private final boolean descending;
+        private final int expectedModCount = modCount;
+
+        SegmentIterator(boolean descending) {
+            this.descending = descending;
+            this.segment = descending ? last : first;
+            this.offset = descending && last != null ? last.getCount() - 1 : 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (remaining > 0);
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining == 0)
+                throw new NoSuchElementException();
+            T item = segment.getItem(offset);
+            remaining--;
+            if (descending) {
+                if (--offset < 0 && remaining > 0) {
+                    segment = segment.getPrevious();
+                    offset = segment.getCount() - 1;
+                }
+            } else if (++offset == segment.getCount() && remaining > 0) {
+                segment = segment.getNext();
+                offset = 0;
+            }
+            return (item);
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package org.mps.deque;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Double-ended queue implemented as a weight-balanced binary tree ordered by position. Every
+ * node stores the size of its subtree, so the node at any index is found by descending from the
+ * root, and {@link #get(int)}, {@link #insertAt(int, Object)} and {@link #removeAt(int)} take
+ * O(log n). The ends are positions as well: {@link #prepend(Object)}, {@link #append(Object)},
+ * the deletions and the accessors also take O(log n).
+ * <p>
+ * The tree is kept balanced as in Adams' trees: after an insertion or deletion every node on
+ * the path is rotated when one of its subtrees holds more than three times the elements of the
+ * other, with a double rotation when the inner grandchild is the larger one.
+ * {@link #sort(Comparator)} flattens the tree into a list through its right links, merge sorts
+ * the list and builds a perfectly balanced tree again, reusing the nodes.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class WeightBalancedTreeDeque<T> implements DoubleEndedQueue<T> {
+    private static final int DELTA = 3;
+    private static final int RATIO = 2;
+
+    private TreeNode<T> root;
+    private int modCount;
+    private TreeNode<T> buildCursor;
+
+    @Override
+    public void prepend(T value) {
+        insertAt(0, value);
+    }
+
+    @Override
+    public void append(T value) {
+        insertAt(size(), value);
+    }
+
+    @Override
+    public void deleteFirst() {
+        if (root == null)
+            throw new DoubleEndedQueueException("Empty deque", false);
+        removeAt(0);
+    }
+
+    @Override
+    public void deleteLast() {
+        if (root == null)
+            throw new DoubleEndedQueueException("Empty deque", false);
+        removeAt(size() - 1);
+    }
+
+    @Override
+    public T first() {
+        if (root == null)
+            throw new DoubleEndedQueueException("No items left", false);
+        TreeNode<T> node = root;
+        while (node.left != null)
+            node = node.left;
+        return node.item;
+    }
+
+    @Override
+    public T last() {
+        if (root == null)
+            throw new DoubleEndedQueueException("No items left", false);
+        TreeNode<T> node = root;
+        while (node.right != null)
+            node = node.right;
+        return node.item;
+    }
+
+    @Override
+    public int size() {
+        return (sizeOf(root));
+    }
+
+    @Override
+    public T get(int index) {
+        if (size() <= index || index < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        return (nodeAt(index).item);
+    }
+
+    /**
+     * Inserts the specified element at the specified position, shifting the element at that
+     * position and the following ones one position towards the end.
+     *
+     * @param index position of the inserted element, from zero to the size of the deque
+     * @param value the value to be inserted
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void insertAt(int index, T value) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException();
+        }
+        root = insert(root, index, new TreeNode<>(value));
+        modCount++;
+    }
+
+    /**
+     * Removes the element at the specified position, shifting the following elements one
+     * position towards the front.
+     *
+     * @param index position of the element to remove
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public T removeAt(int index) {
+        if (size() <= index || index < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        T item = nodeAt(index).item;
+        root = delete(root, index);
+        modCount++;
+        return (item);
+    }
+
+    @Override
+    public boolean contains(T value) {
+        return (indexOf(root, value, 0) >= 0);
+    }
+
+    @Override
+    public void remove(T value) {
+        if (root == null) {
+            throw new DoubleEndedQueueException("Can't remove from an empty deque", false);
+        }
+        int index = indexOf(root, value, 0);
+        if (index >= 0)
+            removeAt(index);
+    }
+
+    /**
+     * Turns the tree into a list linked through the right links with right rotations, sorts the
+     * list with a bottom-up merge sort and rebuilds a perfectly balanced tree from it, all in
+     * O(n log n) and reusing the nodes. The sort is stable and null items are placed at the front
+     * of the deque.
+     */
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        int size = size();
+        if (size <= 1)
+            return;
+        modCount++;
+        buildCursor = sortList(flatten(root), comparator);
+        root = build(size);
+        buildCursor = null;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new TreeIterator(false);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new TreeIterator(true);
+    }
+
+    private static int sizeOf(TreeNode<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private TreeNode<T> nodeAt(int index) {
+        TreeNode<T> node = root;
+        int leftSize = sizeOf(node.left);
+        while (index != leftSize) {
+            if (index < leftSize) {
+                node = node.left;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+            leftSize = sizeOf(node.left);
+        }
+        return (node);
+    }
+
+    private int indexOf(TreeNode<T> node, T value, int offset) {
+        if (node == null)
+            return (-1);
+        int index = indexOf(node.left, value, offset);
+        if (index >= 0)
+            return (index);
+        int nodeIndex = offset + sizeOf(node.left);
+        if (Objects.equals(node.item, value))
+            return (nodeIndex);
+        return (indexOf(node.right, value, nodeIndex + 1));
+    }
+
+    private TreeNode<T> insert(TreeNode<T> node, int index, TreeNode<T> newNode) {
+        if (node == null)
+            return (newNode);
+        int leftSize = sizeOf(node.left);
+        if (index <= leftSize)
+            node.left = insert(node.left, index, newNode);
+        else
+            node.right = insert(node.right, index - leftSize - 1, newNode);
+        return (balance(node));
+    }
+
+    private TreeNode<T> delete(TreeNode<T> node, int index) {
+        int leftSize = sizeOf(node.left);
+        if (index < leftSize) {
+            node.left = delete(node.left, index);
+            return (balance(node));
+        } else if (index > leftSize) {
+            node.right = delete(node.right, index - leftSize - 1);
+            return (balance(node));
+        }
+        if (node.left == null)
+            return (node.right);
+        if (node.right == null)
+            return (node.left);
+        TreeNode<T> replacement;
+        if (sizeOf(node.left) > sizeOf(node.right)) {
+            replacement = node.left;
+            while (replacement.right != null)
+                replacement = replacement.right;
+            replacement.left = delete(node.left, leftSize - 1);
+            replacement.right = node.right;
+        } else {
+            replacement = node.right;
+            while (replacement.left != null)
+                replacement = replacement.left;
+            replacement.right = delete(node.right, 0);
+            replacement.left = node.left;
+        }
+        return (balance(replacement));
+    }
+
+    private TreeNode<T> balance(TreeNode<T> node) {
+        int leftSize = sizeOf(node.left);
+        int rightSize = sizeOf(node.right);
+        if (leftSize + rightSize >= 2) {
+            if (rightSize > DELTA * leftSize) {
+                if (sizeOf(node.right.left) >= RATIO * sizeOf(node.right.right))
+                    node.right = rotateRight(node.right);
+                return (rotateLeft(node));
+            } else if (leftSize > DELTA * rightSize) {
+                if (sizeOf(node.left.right) >= RATIO * sizeOf(node.left.left))
+                    node.left = rotateLeft(node.left);
+                return (rotateRight(node));
+            }
+        }
+        node.size = leftSize + rightSize + 1;
+        return (node);
+    }
+
+    private TreeNode<T> rotateLeft(TreeNode<T> node) {
+        TreeNode<T> right = node.right;
+        node.right = right.left;
+        node.size = sizeOf(node.left) + sizeOf(node.right) + 1;
+        right.left = node;
+        right.size = node.size + sizeOf(right.right) + 1;
+        return (right);
+    }
+
+    private TreeNode<T> rotateRight(TreeNode<T> node) {
+        TreeNode<T> left = node.left;
+        node.left = left.right;
+        node.size = sizeOf(node.left) + sizeOf(node.right) + 1;
+        left.right = node;
+        left.size = sizeOf(left.left) + node.size + 1;
+        return (left);
+    }
+
+    /**
+     * Links the nodes in order through their right links, rotating right every node that still
+     * has a left child.
+     *
+     * @return the first node of the list
+     */
+    private TreeNode<T> flatten(TreeNode<T> node) {
+        TreeNode<T> listFirst = null;
+        TreeNode<T> listLast = null;
+        while (node != null) {
+            if (node.left != null) {
+                TreeNode<T> left = node.left;
+                node.left = left.right;
+                left.right = node;
+                node = left;
+            } else {
+                if (listLast == null)
+                    listFirst = node;
+                else
+                    listLast.right = node;
+                listLast = node;
+                node = node.right;
+            }
+        }
+        return (listFirst);
+    }
+
+    private boolean isSortedNodes(TreeNode<T> node, TreeNode<T> next, Comparator<? super T> comparator) {
+        if (node.item == null)
+            return (true);
+        else if (next.item == null)
+            return (false);
+        else
+            return (comparator.compare(node.item, next.item) <= 0);
+    }
+
+    /**
+     * Bottom-up merge sort of the list linked through the right links, merging runs of doubling
+     * length and taking from the left run on ties.
+     *
+     * @return the first node of the sorted list
+     */
+    private TreeNode<T> sortList(TreeNode<T> list, Comparator<? super T> comparator) {
+        for (int runLength = 1; ; runLength *= 2) {
+            TreeNode<T> left = list;
+            TreeNode<T> tail = null;
+            int merges = 0;
+            list = null;
+            while (left != null) {
+                merges++;
+                TreeNode<T> right = left;
+                int leftLength = 0;
+                while (leftLength < runLength && right != null) {
+                    leftLength++;
+                    right = right.right;
+                }
+                int rightLength = runLength;
+                while (leftLength > 0 || (rightLength > 0 && right != null)) {
+                    TreeNode<T> taken;
+                    if (leftLength > 0 && (rightLength == 0 || right == null
+                            || isSortedNodes(left, right, comparator))) {
+                        taken = left;
+                        left = left.right;
+                        leftLength--;
+                    } else {
+                        taken = right;
+                        right = right.right;
+                        rightLength--;
+                    }
+                    if (tail == null)
+                        list = taken;
+                    else
+                        tail.right = taken;
+                    tail = taken;
+                }
+                left = right;
+            }
+            tail.right = null;
+            if (merges <= 1)
+                return (list);
+        }
+    }
+
+    /**
+     * Builds a perfectly balanced tree from the next {@code count} nodes of the sorted list.
+     */
+    private TreeNode<T> build(int count) {
+        if (count == 0)
+            return (null);
+        int leftCount = (count - 1) / 2;
+        TreeNode<T> left = build(leftCount);
+        TreeNode<T> node = buildCursor;
+        buildCursor = node.right;
+        node.left = left;
+        node.right = build(count - 1 - leftCount);
+        node.size = count;
+        return (node);
+    }
+
+    private static class TreeNode<T> {
+        private final T item;
+        private TreeNode<T> left;
+        private TreeNode<T> right;
+        private int size = 1;
+
+        TreeNode(T item) {
+            this.item = item;
+        }
+    }
+
+    /**
+     * In-order walk that keeps the pending ancestors on a stack, so every step takes amortized
+     * constant time.
+     */
+    private class TreeIterator implements Iterator<T> {
+        private final ArrayDeque<TreeNode<T>> ancestors = new ArrayDeque<>();
+        private final boolean descending;
+        private final int expectedModCount = modCount;
+
+        TreeIterator(boolean descending) {
+            this.descending = descending;
+            pushBranch(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (!ancestors.isEmpty());
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (ancestors.isEmpty())
+                throw new NoSuchElementException();
+            TreeNode<T> node = ancestors.pop();
+            pushBranch(descending ? node.left : node.right);
+            return (node.item);
+        }
+
+        private void pushBranch(TreeNode<T> node) {
+            while (node != null) {
+                ancestors.push(node);
+                node = descending ? node.right : node.left;
+            }
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package org.mps.deque;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Chase-Lev work-stealing deque: a single owner thread inserts and deletes at the front, as a
+ * stack, and any number of thief threads delete from the back, in the order the owner inserted
+ * the elements. The elements are kept in a circular array between the {@code top} index, the
+ * back, and the {@code bottom} index, the front; the owner grows the array when it is full.
+ * <p>
+ * The owner operations, {@link #prepend(Object)}, {@link #deleteFirst()}, {@link #pollFirst()},
+ * {@link #first()} and {@link #peekFirst()}, use no lock nor compare-and-set, except when the
+ * owner deletes the last element and may race with a thief for it, and they never wait. The
+ * steal operations, {@link #deleteLast()} and {@link #pollLast()}, claim the back element with a
+ * compare-and-set on {@code top} and retry while they lose it to other thieves.
+ * {@link #last()} and {@link #peekLast()} may be called by any thread too. The memory ordering
+ * follows Lê, Pop, Cohen and Zappa Nardelli, <i>Correct and Efficient Work-Stealing for Weak
+ * Memory Models</i>; the full fences are the one of the owner deletion and the one every steal
+ * issues between reading {@code top} and {@code bottom}.
+ * <p>
+ * {@link #get(int)}, {@link #contains(Object)}, the iterators and the spliterator must be
+ * called by the owner, and see the elements present when they start, some of which may have
+ * been stolen meanwhile; they never throw {@link java.util.ConcurrentModificationException}.
+ * Inserting at the back and removing from the middle don't fit the algorithm, so
+ * {@link #append(Object)}, {@link #remove(Object)}, {@link #sort(Comparator)} and the bulk
+ * operations built on them throw {@link UnsupportedOperationException}. Null items are stored as
+ * a private marker.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class WorkStealingDeque<T> implements DoubleEndedQueue<T> {
+    static final int DEFAULT_CAPACITY = 64;
+    private static final Object NULL_ITEM = new Object();
+    private static final VarHandle TOP;
+    private static final VarHandle BOTTOM;
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TOP = lookup.findVarHandle(WorkStealingDeque.class, "top", long.class);
+            BOTTOM = lookup.findVarHandle(WorkStealingDeque.class, "bottom", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long top;
+    private volatile long bottom;
+    private volatile Object[] slots;
+
+    public WorkStealingDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity minimum number of elements held before the array grows; it is
+     *                        rounded up to a power of two
+     * @throws IllegalArgumentException if the capacity is lower than one or too large
+     */
+    public WorkStealingDeque(int initialCapacity) {
+        if (initialCapacity < 1 || initialCapacity > 1 << 30)
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        this.slots = new Object[1 << (32 - Integer.numberOfLeadingZeros(initialCapacity - 1))];
+    }
+
+    /**
+     * Pushes the value at the front of the deque. Only the owner may call it.
+     */
+    @Override
+    public void prepend(T value) {
+        long b = (long) BOTTOM.getOpaque(this);
+        long t = (long) TOP.getAcquire(this);
+        Object[] array = slots;
+        if (b - t >= array.length)
+            array = grow(array, t, b);
+        SLOTS.setOpaque(array, (int) b & (array.length - 1), mask(value));
+        BOTTOM.setRelease(this, b + 1);
+    }
+
+    /**
+     * Not supported: only thieves work at the back, and they only delete.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void append(T value) {
+        throw new UnsupportedOperationException("Can't append to a work-stealing deque");
+    }
+
+    /**
+     * Pops the front element. Only the owner may call it.
+     */
+    @Override
+    public void deleteFirst() {
+        if (take() == null)
+            throw new DoubleEndedQueueException("Empty deque", false);
+    }
+
+    /**
+     * Steals the back element. Any thread may call it.
+     */
+    @Override
+    public void deleteLast() {
+        if (steal() == null)
+            throw new DoubleEndedQueueException("Empty deque", false);
+    }
+
+    /**
+     * Returns the front element. Only the owner may call it.
+     */
+    @Override
+    public T first() {
+        long b = (long) BOTTOM.getOpaque(this);
+        long t = (long) TOP.getAcquire(this);
+        if (b <= t)
+            throw new DoubleEndedQueueException("No items left", false);
+        Object[] array = slots;
+        return unmask(SLOTS.getOpaque(array, (int) (b - 1) & (array.length - 1)));
+    }
+
+    /**
+     * Returns the back element, which may be stolen right afterwards. Any thread may call it.
+     */
+    @Override
+    public T last() {
+        Object item = peekTop();
+        if (item == null)
+            throw new DoubleEndedQueueException("No items left", false);
+        return unmask(item);
+    }
+
+    @Override
+    public T peekFirst() {
+        long b = (long) BOTTOM.getOpaque(this);
+        long t = (long) TOP.getAcquire(this);
+        if (b <= t)
+            return null;
+        Object[] array = slots;
+        return unmask(SLOTS.getOpaque(array, (int) (b - 1) & (array.length - 1)));
+    }
+
+    @Override
+    public T peekLast() {
+        return unmask(peekTop());
+    }
+
+    @Override
+    public T pollFirst() {
+        return unmask(take());
+    }
+
+    @Override
+    public T pollLast() {
+        return unmask(steal());
+    }
+
+    /**
+     * Returns the number of elements, which is exact for the owner when no thief is stealing.
+     */
+    @Override
+    public int size() {
+        long size = bottom - top;
+        return (int) Math.max(0, Math.min(size, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public T get(int index) {
+        long b = bottom;
+        long t = top;
+        if (b - t <= index || index < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        Object[] array = slots;
+        return (unmask(SLOTS.getAcquire(array, (int) (b - 1 - index) & (array.length - 1))));
+    }
+
+    @Override
+    public boolean contains(T value) {
+        for (T item : snapshot())
+            if (Objects.equals(item, value))
+                return (true);
+        return (false);
+    }
+
+    /**
+     * Not supported: elements can't be taken from the middle of the array.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void remove(T value) {
+        throw new UnsupportedOperationException("Can't remove from the middle of a work-stealing deque");
+    }
+
+    /**
+     * Not supported: thieves may be reading the array.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        throw new UnsupportedOperationException("Can't sort a work-stealing deque");
+    }
+
+    /**
+     * Pops up to {@code maxElements} elements from the front. Only the owner may call it.
+     */
+    @Override
+    public int drainFirst(int maxElements, Consumer<? super T> consumer) {
+        if (maxElements < 0)
+            throw new IllegalArgumentException("Negative number of elements: " + maxElements);
+        int drained = 0;
+        Object item;
+        while (drained < maxElements && (item = take()) != null) {
+            drained++;
+            consumer.accept(unmask(item));
+        }
+        return (drained);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> values) {
+        throw new UnsupportedOperationException("Can't remove from the middle of a work-stealing deque");
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        throw new UnsupportedOperationException("Can't remove from the middle of a work-stealing deque");
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return Arrays.asList(snapshot()).iterator();
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        T[] snapshot = snapshot();
+        for (int i = 0, j = snapshot.length - 1; i < j; i++, j--) {
+            T aux = snapshot[i];
+            snapshot[i] = snapshot[j];
+            snapshot[j] = aux;
+        }
+        return Arrays.asList(snapshot).iterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(snapshot(), Spliterator.ORDERED);
+    }
+
+    private static Object mask(Object value) {
+        return Objects.requireNonNullElse(value, NULL_ITEM);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T unmask(Object item) {
+        return item == NULL_ITEM ? null : (T) item;
+    }
+
+    /**
+     * Pops the front element on behalf of the owner. Bottom is decremented before top is read,
+     * with a full fence in between, so a thief that reads the same element either sees the new
+     * bottom or is beaten by the compare-and-set on top, which only the last element needs.
+     *
+     * @return the masked element, or {@code null} if the deque was empty
+     */
+    private Object take() {
+        long b = (long) BOTTOM.getOpaque(this) - 1;
+        Object[] array = slots;
+        BOTTOM.setOpaque(this, b);
+        VarHandle.fullFence();
+        long t = (long) TOP.getOpaque(this);
+        if (t > b) {
+            BOTTOM.setOpaque(this, b + 1);
+            return null;
+        }
+        int index = (int) b & (array.length - 1);
+        Object item = SLOTS.getOpaque(array, index);
+        if (t == b) {
+            boolean won = TOP.compareAndSet(this, t, t + 1);
+            BOTTOM.setOpaque(this, b + 1);
+            if (!won)
+                return null;
+        }
+        SLOTS.setOpaque(array, index, null);
+        return item;
+    }
+
+    /**
+     * Steals the back element, retrying while other thieves or the owner win it first.
+     *
+     * @return the masked element, or {@code null} if the deque was empty
+     */
+    private Object steal() {
+        while (true) {
+            long t = (long) TOP.getAcquire(this);
+            VarHandle.fullFence();
+            long b = (long) BOTTOM.getAcquire(this);
+            if (t >= b)
+                return null;
+            Object[] array = slots;
+            Object item = SLOTS.getAcquire(array, (int) t & (array.length - 1));
+            if (TOP.compareAndSet(this, t, t + 1))
+                return item;
+        }
+    }
+
+    private Object peekTop() {
+        while (true) {
+            long t = (long) TOP.getAcquire(this);
+            long b = (long) BOTTOM.getAcquire(this);
+            if (t >= b)
+                return null;
+            Object[] array = slots;
+            Object item = SLOTS.getAcquire(array, (int) t & (array.length - 1));
+            if ((long) TOP.getAcquire(this) == t)
+                return item;
+        }
+    }
+
+    /**
+     * Copies the elements from {@code top} to {@code bottom} into an array twice as large and
+     * publishes it. Thieves still reading the old array find the same elements there.
+     */
+    private Object[] grow(Object[] array, long t, long b) {
+        if (array.length == 1 << 30)
+            throw new IllegalStateException("Deque too big");
+        Object[] grown = new Object[array.length << 1];
+        for (long i = t; i < b; i++)
+            grown[(int) i & (grown.length - 1)] = array[(int) i & (array.length - 1)];
+        slots = grown;
+        return grown;
+    }
+
+    /**
+     * Copies the elements from the front to the back.
+     */
+    @SuppressWarnings("unchecked")
+    private T[] snapshot() {
+        long b = bottom;
+        long t = top;
+        Object[] array = slots;
+        Object[] snapshot = new Object[(int) Math.max(0, b - t)];
+        for (int i = 0; i < snapshot.length; i++)
+            snapshot[i] = unmask(SLOTS.getAcquire(array, (int) (b - 1 - i) & (array.length - 1)));
+        return (T[]) snapshot;
+    }
+}
@@ -0,0 +1,119 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class runs the behavioral suite of {@link DoublyLinkedListDequeTest} against the
+ * circular buffer deque and adds the cases specific to the backing array:
+ *<h3>Circular buffer</h3>
+ * - elements keep their order when the deque wraps around the end of the array
+ * - the array grows when it is full
+ * - the array shrinks when it becomes a quarter full, if shrinking is enabled
+ * - removing an element from a wrapped deque closes the gap
+ * - sorting a wrapped deque sorts it
+ */
+class ArrayRingDequeTest extends DoublyLinkedListDequeTest {
+    @Override
+    <E> DoubleEndedQueue<E> createDeque() {
+        return new ArrayRingDeque<>(2);
+    }
+
+    private ArrayRingDeque<Integer> createWrappedDeque() {
+        ArrayRingDeque<Integer> deque = new ArrayRingDeque<>(8);
+        for (int i = 3; i < 8; i++) {
+            deque.append(i);
+        }
+        for (int i = 2; i >= 0; i--) {
+            deque.prepend(i);
+        }
+        return deque;
+    }
+
+    @Nested
+    @DisplayName("On a circular buffer deque")
+    class CircularBufferTest {
+        @DisplayName("elements keep their order when the deque wraps around the end of the array")
+        @Test
+        void wrappedDequeKeepsTheOrder() {
+            ArrayRingDeque<Integer> deque = createWrappedDeque();
+
+            for (int i = 0; i < 8; i++) {
+                assertEquals(i, deque.get(i));
+            }
+            assertEquals(0, deque.first());
+            assertEquals(7, deque.last());
+        }
+
+        @DisplayName("the array grows when it is full")
+        @Test
+        void fullDequeGrows() {
+            ArrayRingDeque<Integer> deque = createWrappedDeque();
+
+            deque.append(8);
+            deque.prepend(-1);
+
+            assertEquals(10, deque.size());
+            assertEquals(-1, deque.first());
+            assertEquals(8, deque.last());
+            assertEquals(3, deque.get(4));
+        }
+
+        @DisplayName("the array shrinks when it becomes a quarter full, if shrinking is enabled")
+        @Test
+        void shrinkingDequeKeepsItsElements() {
+            ArrayRingDeque<Integer> deque = new ArrayRingDeque<>(2, true);
+            for (int i = 0; i < 64; i++) {
+                deque.append(i);
+            }
+
+            for (int i = 0; i < 60; i++) {
+                deque.deleteFirst();
+            }
+
+            assertEquals(4, deque.size());
+            assertEquals(60, deque.first());
+            assertEquals(63, deque.last());
+            assertEquals(61, deque.get(1));
+        }
+
+        @DisplayName("removing an element from a wrapped deque closes the gap")
+        @Test
+        void removingFromAWrappedDequeClosesTheGap() {
+            ArrayRingDeque<Integer> deque = createWrappedDeque();
+
+            deque.remove(1);
+            deque.remove(6);
+
+            assertEquals(6, deque.size());
+            int[] expected = {0, 2, 3, 4, 5, 7};
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], deque.get(i));
+            }
+        }
+
+        @DisplayName("sorting a wrapped deque sorts it")
+        @Test
+        void sortingAWrappedDequeSortsIt() {
+            ArrayRingDeque<Integer> deque = new ArrayRingDeque<>(8);
+            for (int i = 0; i < 4; i++) {
+                deque.append(i * 3 % 7);
+                deque.prepend(i * 5 % 7 + 7);
+            }
+
+            deque.sort(Integer::compareTo);
+
+            for (int i = 1; i < deque.size(); i++) {
+                assertTrue(deque.get(i - 1) <= deque.get(i));
+            }
+            assertEquals(8, deque.size());
+        }
+
+        @DisplayName("a capacity lower than one is rejected")
+        @Test
+        void nonPositiveCapacityThrowsAnException() {
+            assertThrows(IllegalArgumentException.class, () -> new ArrayRingDeque<Integer>(0));
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class runs the behavioral suite of {@link DoublyLinkedListDequeTest} against the async
+ * facade over a linked list and adds the cases specific to the asynchronous consumers:
+ *<h3>Async consumers</h3>
+ * - taking from a non-empty deque completes at once with the front element
+ * - pending takes are completed in the order they were made as elements are inserted
+ * - a cancelled take stops waiting and leaves the element in the deque
+ * - a null element handed to a take cancelled before delivery is put back in the deque
+ * - a subscriber receives as many front elements as it requests
+ * - takes and subscriptions share the elements in the order they started waiting
+ * - a cancelled subscription receives nothing else
+ * - a non-positive request signals an error
+ * - every element appended by concurrent producers reaches exactly one pending take
+ */
+class AsyncDoubleEndedQueueTest extends DoublyLinkedListDequeTest {
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final int CONSUMERS = 2_000;
+    private static final int PRODUCERS = 4;
+
+    @Override
+    <E> DoubleEndedQueue<E> createDeque() {
+        return new AsyncDoubleEndedQueue<>();
+    }
+
+    @Override
+    boolean hasFailFastIterators() {
+        return false;
+    }
+
+    /**
+     * Subscriber that records every signal and requests the given number of elements when it is
+     * subscribed.
+     */
+    private static final class RecordingSubscriber implements Flow.Subscriber<Integer> {
+        private final long initialRequest;
+        private final List<Integer> received = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private Throwable error;
+
+        RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest != 0)
+                subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    @Nested
+    @DisplayName("On the async consumers")
+    class AsyncConsumersTest {
+        private AsyncDoubleEndedQueue<Integer> deque;
+
+        @BeforeEach
+        void setup() {
+            deque = new AsyncDoubleEndedQueue<>();
+        }
+
+        @DisplayName("taking from a non-empty deque completes at once with the front element")
+        @Test
+        void takeCompletesAtOnce() {
+            deque.appendAll(Arrays.asList(1, 2));
+
+            CompletableFuture<Integer> future = deque.takeFirstAsync();
+
+            assertTrue(future.isDone());
+            assertEquals(1, future.join());
+            assertEquals(1, deque.size());
+            assertEquals(0, deque.getWaitingConsumerCount());
+        }
+
+        @DisplayName("pending takes are completed in the order they were made as elements are inserted")
+        @Test
+        void pendingTakesAreCompletedInOrder() {
+            CompletableFuture<Integer> firstTake = deque.takeFirstAsync();
+            CompletableFuture<Integer> secondTake = deque.takeFirstAsync();
+            CompletableFuture<Integer> thirdTake = deque.takeFirstAsync();
+            assertFalse(firstTake.isDone());
+            assertEquals(3, deque.getWaitingConsumerCount());
+
+            deque.append(1);
+            deque.appendAll(Arrays.asList(2, 3, 4));
+
+            assertEquals(1, firstTake.join());
+            assertEquals(2, secondTake.join());
+            assertEquals(3, thirdTake.join());
+            assertEquals(1, deque.size());
+            assertEquals(4, deque.first());
+            assertEquals(0, deque.getWaitingConsumerCount());
+        }
+
+        @DisplayName("a cancelled take stops waiting and leaves the element in the deque")
+        @Test
+        void cancelledTakeStopsWaiting() {
+            CompletableFuture<Integer> cancelled = deque.takeFirstAsync();
+            CompletableFuture<Integer> pending = deque.takeFirstAsync();
+
+            cancelled.cancel(false);
+            assertEquals(1, deque.getWaitingConsumerCount());
+            deque.append(1);
+            deque.append(2);
+
+            assertEquals(1, pending.join());
+            assertEquals(1, deque.size());
+            assertEquals(2, deque.first());
+        }
+
+        @DisplayName("a null element handed to a take cancelled before delivery is put back in the deque")
+        @Test
+        void nullElementOfCancelledTakeIsPutBack() {
+            CompletableFuture<Integer> firstTake = deque.takeFirstAsync();
+            CompletableFuture<Integer> secondTake = deque.takeFirstAsync();
+            firstTake.thenRun(() -> secondTake.cancel(false));
+
+            deque.appendAll(Arrays.asList(1, null));
+
+            assertEquals(1, firstTake.join());
+            assertTrue(secondTake.isCancelled());
+            assertEquals(1, deque.size());
+            assertTrue(deque.contains(null));
+            assertEquals(0, deque.getWaitingConsumerCount());
+        }
+
+        @DisplayName("a subscriber receives as many front elements as it requests")
+        @Test
+        void subscriberReceivesWhatItRequests() {
+            deque.append(1);
+            RecordingSubscriber subscriber = new RecordingSubscriber(2);
+
+            deque.subscribe(subscriber);
+            deque.appendAll(Arrays.asList(2, 3, 4));
+
+            assertEquals(Arrays.asList(1, 2), subscriber.received);
+            assertEquals(2, deque.size());
+            assertEquals(0, deque.getWaitingConsumerCount());
+
+            subscriber.subscription.request(5);
+            deque.append(5);
+
+            assertEquals(Arrays.asList(1, 2, 3, 4, 5), subscriber.received);
+            assertEquals(0, deque.size());
+            assertEquals(1, deque.getWaitingConsumerCount());
+        }
+
+        @DisplayName("takes and subscriptions share the elements in the order they started waiting")
+        @Test
+        void consumersShareTheElements() {
+            RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+            deque.subscribe(subscriber);
+            CompletableFuture<Integer> take = deque.takeFirstAsync();
+
+            deque.appendAll(Arrays.asList(1, 2, 3, 4));
+
+            assertEquals(2, take.join());
+            assertEquals(Arrays.asList(1, 3, 4), subscriber.received);
+            assertEquals(0, deque.size());
+        }
+
+        @DisplayName("a cancelled subscription receives nothing else")
+        @Test
+        void cancelledSubscriptionReceivesNothing() {
+            RecordingSubscriber subscriber = new RecordingSubscriber(10);
+            deque.subscribe(subscriber);
+            deque.append(1);
+
+            subscriber.subscription.cancel();
+            deque.append(2);
+            subscriber.subscription.request(1);
+
+            assertEquals(List.of(1), subscriber.received);
+            assertEquals(1, deque.size());
+            assertEquals(0, deque.getWaitingConsumerCount());
+            assertNull(subscriber.error);
+        }
+
+        @DisplayName("a non-positive request signals an error")
+        @Test
+        void nonPositiveRequestSignalsAnError() {
+            RecordingSubscriber subscriber = new RecordingSubscriber(0);
+            deque.subscribe(subscriber);
+
+            subscriber.subscription.request(0);
+            deque.append(1);
+
+            assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+            assertTrue(subscriber.received.isEmpty());
+            assertEquals(1, deque.size());
+            assertThrows(NullPointerException.class, () -> deque.subscribe(null));
+        }
+
+        @DisplayName("every element appended by concurrent producers reaches exactly one pending take")
+        @Test
+        void everyElementReachesOneTake() throws Exception {
+            List<CompletableFuture<Integer>> takes = new ArrayList<>();
+            for (int i = 0; i < CONSUMERS; i++)
+                takes.add(deque.takeFirstAsync());
+
+            ConcurrentDoublyLinkedDequeTest.runConcurrently(PRODUCERS, thread -> {
+                for (int i = thread; i < CONSUMERS; i += PRODUCERS)
+                    deque.append(i);
+            });
+
+            BitSet seen = new BitSet();
+            for (CompletableFuture<Integer> take : takes) {
+                int item = take.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                assertFalse(seen.get(item), "Taken twice: " + item);
+                seen.set(item);
+            }
+            assertEquals(CONSUMERS, seen.cardinality());
+            assertEquals(0, deque.size());
+        }
+    }
+}
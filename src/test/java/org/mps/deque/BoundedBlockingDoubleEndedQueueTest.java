@@ -0,0 +1,154 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class runs the behavioral suite of {@link DoublyLinkedListDequeTest} against an unbounded
+ * blocking deque and adds the cases specific to waiting:
+ *<h3>Bounded blocking deque</h3>
+ * - poll returns null and offer returns false instead of throwing
+ * - prepend and append on a full deque throw an exception
+ * - bulk insertions that don't fit throw an exception and insert nothing
+ * - take waits until an element is put
+ * - put waits until an element is taken
+ * - timed poll and offer give up when the time elapses
+ * - an interrupted wait throws an exception
+ */
+class BoundedBlockingDoubleEndedQueueTest extends DoublyLinkedListDequeTest {
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Override
+    <E> DoubleEndedQueue<E> createDeque() {
+        return new BoundedBlockingDoubleEndedQueue<>();
+    }
+
+    @Override
+    boolean hasFailFastIterators() {
+        return false;
+    }
+
+    @Nested
+    @DisplayName("On a bounded blocking deque")
+    class BlockingTest {
+        BoundedBlockingDoubleEndedQueue<Integer> deque;
+
+        @BeforeEach
+        void setUp() {
+            deque = new BoundedBlockingDoubleEndedQueue<>(2);
+        }
+
+        @DisplayName("poll returns null and offer returns false instead of throwing")
+        @Test
+        void pollAndOfferDoNotThrow() {
+            assertNull(deque.pollFirst());
+            assertNull(deque.pollLast());
+
+            assertTrue(deque.offerLast(1));
+            assertTrue(deque.offerFirst(0));
+
+            assertFalse(deque.offerLast(2));
+            assertFalse(deque.offerFirst(2));
+            assertEquals(0, deque.remainingCapacity());
+            assertEquals(0, deque.pollFirst());
+            assertEquals(1, deque.pollLast());
+        }
+
+        @DisplayName("prepend and append on a full deque throw an exception")
+        @Test
+        void insertingOnAFullDequeThrowsAnException() {
+            deque.append(1);
+            deque.append(2);
+
+            assertThrows(DoubleEndedQueueException.class, () -> deque.prepend(0));
+            assertThrows(DoubleEndedQueueException.class, () -> deque.append(3));
+        }
+
+        @DisplayName("bulk insertions that don't fit throw an exception and insert nothing")
+        @Test
+        void bulkInsertionsThatDoNotFitInsertNothing() {
+            deque.append(1);
+
+            assertThrows(DoubleEndedQueueException.class, () -> deque.appendAll(Arrays.asList(2, 3)));
+            assertThrows(DoubleEndedQueueException.class, () -> deque.prependAll(Arrays.asList(-1, 0)));
+            deque.prependAll(List.of(0));
+
+            assertEquals(2, deque.size());
+            assertEquals(0, deque.first());
+            assertEquals(1, deque.last());
+        }
+
+        @DisplayName("take waits until an element is put")
+        @Test
+        void takeWaitsForAnElement() throws Exception {
+            CompletableFuture<Integer> taken = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return deque.takeFirst();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            deque.putLast(7);
+
+            assertEquals(7, taken.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertEquals(0, deque.size());
+        }
+
+        @DisplayName("put waits until an element is taken")
+        @Test
+        void putWaitsForRoom() throws Exception {
+            deque.putLast(1);
+            deque.putLast(2);
+            CompletableFuture<Void> put = CompletableFuture.runAsync(() -> {
+                try {
+                    deque.putFirst(0);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            assertEquals(2, deque.takeLast());
+
+            put.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertEquals(0, deque.first());
+            assertEquals(1, deque.last());
+        }
+
+        @DisplayName("timed poll and offer give up when the time elapses")
+        @Test
+        void timedOperationsGiveUp() throws InterruptedException {
+            assertNull(deque.pollFirst(10, TimeUnit.MILLISECONDS));
+            assertNull(deque.pollLast(10, TimeUnit.MILLISECONDS));
+
+            deque.append(1);
+            deque.append(2);
+
+            assertFalse(deque.offerFirst(0, 10, TimeUnit.MILLISECONDS));
+            assertFalse(deque.offerLast(3, 10, TimeUnit.MILLISECONDS));
+            assertEquals(1, deque.pollFirst(10, TimeUnit.MILLISECONDS));
+            assertTrue(deque.offerLast(3, 10, TimeUnit.MILLISECONDS));
+        }
+
+        @DisplayName("an interrupted wait throws an exception")
+        @Test
+        void interruptedWaitThrowsAnException() {
+            Thread.currentThread().interrupt();
+
+            assertThrows(InterruptedException.class, () -> deque.takeFirst());
+            assertFalse(Thread.interrupted());
+        }
+
+        @DisplayName("a capacity lower than one is rejected")
+        @Test
+        void nonPositiveCapacityThrowsAnException() {
+            assertThrows(IllegalArgumentException.class, () -> new BoundedBlockingDoubleEndedQueue<Integer>(0));
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class runs the behavioral suite of {@link DoublyLinkedListDequeTest} against the
+ * concurrent deque and adds stress tests that check the end operations under contention:
+ *<h3>Concurrent access</h3>
+ * - every element appended by concurrent producers is either deleted once or still present,
+ *   and the elements of every producer keep their order
+ * - the size matches the successful insertions minus the successful deletions at both ends
+ * - elements prepended and appended concurrently keep the order of every producer
+ * - sorting while a producer keeps appending returns and keeps every element once
+ *<h3>Linearizability</h3>
+ * - the checker accepts a history explained by an order of its overlapping operations
+ * - the checker rejects a history that no sequential order explains
+ * - every recorded history of concurrent insertions and deletions at both ends is linearizable
+ *<br/>
+ * A history records every operation with the ticks of a shared clock read before its call and
+ * after its return. It is linearizable if some order of its operations that keeps the real time
+ * order of those that don't overlap yields the same results on an {@link ArrayDeque}; the order
+ * is searched depth-first, remembering the states that failed.
+ */
+class ConcurrentDoublyLinkedDequeTest extends DoublyLinkedListDequeTest {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 20_000;
+    private static final int HISTORIES = 300;
+    private static final int HISTORY_THREADS = 3;
+    private static final int HISTORY_OPERATIONS = 6;
+
+    @Override
+    <E> DoubleEndedQueue<E> createDeque() {
+        return new ConcurrentDoublyLinkedDeque<>();
+    }
+
+    @Override
+    boolean hasFailFastIterators() {
+        return false;
+    }
+
+    static void runConcurrently(int threads, ThrowingTask task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run(id);
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertTrue(failures.isEmpty(), () -> "Worker failed: " + failures);
+    }
+
+    private static void assertProducerOrder(DoubleEndedQueue<Integer> deque, int producers, boolean ascending) {
+        int[] lastSeen = new int[producers];
+        Arrays.fill(lastSeen, ascending ? -1 : Integer.MAX_VALUE);
+        while (deque.size() > 0) {
+            int value = deque.first();
+            deque.deleteFirst();
+            int producer = value % producers;
+            if (ascending)
+                assertTrue(value > lastSeen[producer], "Order of producer " + producer + " broken");
+            else
+                assertTrue(value < lastSeen[producer], "Order of producer " + producer + " broken");
+            lastSeen[producer] = value;
+        }
+    }
+
+    interface ThrowingTask {
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * End operation of a recorded history, applied to the sequential model by
+     * {@link #appliesTo(ArrayDeque, Integer)}, which tells whether the model gives the recorded
+     * result.
+     */
+    enum Kind {
+        PREPEND, APPEND, POLL_FIRST, POLL_LAST, PEEK_FIRST, PEEK_LAST;
+
+        boolean appliesTo(ArrayDeque<Integer> model, Integer value) {
+            switch (this) {
+                case PREPEND -> model.addFirst(value);
+                case APPEND -> model.addLast(value);
+                case POLL_FIRST -> { return Objects.equals(model.pollFirst(), value); }
+                case POLL_LAST -> { return Objects.equals(model.pollLast(), value); }
+                case PEEK_FIRST -> { return Objects.equals(model.peekFirst(), value); }
+                default -> { return Objects.equals(model.peekLast(), value); }
+            }
+            return (true);
+        }
+    }
+
+    /**
+     * Operation of a recorded history: the inserted element or the returned one, and the ticks
+     * of the clock read before the call and after the return.
+     */
+    record Operation(Kind kind, Integer value, long invoked, long returned) {
+    }
+
+    static boolean isLinearizable(List<Operation> history) {
+        return (linearize(history, 0, new ArrayDeque<>(), new HashSet<>()));
+    }
+
+    private static boolean linearize(List<Operation> history, long done, ArrayDeque<Integer> model,
+                                     Set<String> failed) {
+        if (done == (1L << history.size()) - 1)
+            return (true);
+        String state = done + " " + model;
+        if (failed.contains(state))
+            return (false);
+        long firstReturn = Long.MAX_VALUE;
+        for (int i = 0; i < history.size(); i++) {
+            if ((done & 1L << i) == 0)
+                firstReturn = Math.min(firstReturn, history.get(i).returned());
+        }
+        for (int i = 0; i < history.size(); i++) {
+            Operation operation = history.get(i);
+            if ((done & 1L << i) != 0 || operation.invoked() > firstReturn)
+                continue;
+            ArrayDeque<Integer> next = model.clone();
+            if (operation.kind().appliesTo(next, operation.value()) && linearize(history, done | 1L << i, next, failed))
+                return (true);
+        }
+        failed.add(state);
+        return (false);
+    }
+
+    private static List<Operation> recordHistory(ConcurrentDoublyLinkedDeque<Integer> deque) throws InterruptedException {
+        AtomicLong clock = new AtomicLong();
+        List<Operation> history = new ArrayList<>();
+        runConcurrently(HISTORY_THREADS, thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            List<Operation> operations = new ArrayList<>();
+            for (int i = 0; i < HISTORY_OPERATIONS; i++) {
+                Kind kind = Kind.values()[random.nextInt(Kind.values().length)];
+                Integer value = i * HISTORY_THREADS + thread;
+                long invoked = clock.getAndIncrement();
+                switch (kind) {
+                    case PREPEND -> deque.prepend(value);
+                    case APPEND -> deque.append(value);
+                    case POLL_FIRST -> value = deque.pollFirst();
+                    case POLL_LAST -> value = deque.pollLast();
+                    case PEEK_FIRST -> value = deque.peekFirst();
+                    default -> value = deque.peekLast();
+                }
+                operations.add(new Operation(kind, value, invoked, clock.getAndIncrement()));
+            }
+            synchronized (history) {
+                history.addAll(operations);
+            }
+        });
+        return (history);
+    }
+
+    @Nested
+    @DisplayName("On concurrent access to the deque")
+    class ConcurrentAccessTest {
+        @DisplayName("elements appended by producers are deleted once or still present, in producer order")
+        @Test
+        void producersAndConsumersKeepEveryElement() throws InterruptedException {
+            ConcurrentDoublyLinkedDeque<Integer> deque = new ConcurrentDoublyLinkedDeque<>();
+            int producers = THREADS / 2;
+            AtomicLong deleted = new AtomicLong();
+
+            runConcurrently(THREADS, thread -> {
+                if (thread < producers) {
+                    for (int i = 0; i < OPERATIONS; i++)
+                        deque.append(i * producers + thread);
+                } else {
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        try {
+                            deque.deleteFirst();
+                            deleted.incrementAndGet();
+                        } catch (DoubleEndedQueueException e) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+
+            assertEquals((long) producers * OPERATIONS, deleted.get() + deque.size());
+            assertProducerOrder(deque, producers, true);
+        }
+
+        @DisplayName("the size matches the successful insertions minus the successful deletions")
+        @Test
+        void sizeMatchesTheSuccessfulOperations() throws InterruptedException {
+            ConcurrentDoublyLinkedDeque<Integer> deque = new ConcurrentDoublyLinkedDeque<>();
+            AtomicLong balance = new AtomicLong();
+
+            runConcurrently(THREADS, thread -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS; i++) {
+                    try {
+                        switch (random.nextInt(4)) {
+                            case 0 -> { deque.prepend(i); balance.incrementAndGet(); }
+                            case 1 -> { deque.append(i); balance.incrementAndGet(); }
+                            case 2 -> { deque.deleteFirst(); balance.decrementAndGet(); }
+                            default -> { deque.deleteLast(); balance.decrementAndGet(); }
+                        }
+                    } catch (DoubleEndedQueueException e) {
+                        // The deque was empty
+                    }
+                }
+            });
+
+            assertEquals(balance.get(), deque.size());
+            int deleted = 0;
+            while (deque.size() > 0) {
+                deque.deleteLast();
+                deleted++;
+            }
+            assertEquals(balance.get(), deleted);
+            assertThrows(DoubleEndedQueueException.class, deque::deleteFirst);
+        }
+
+        @DisplayName("elements prepended and appended concurrently keep the order of every producer")
+        @Test
+        void prependAndAppendKeepTheOrderOfEveryProducer() throws InterruptedException {
+            ConcurrentDoublyLinkedDeque<Integer> deque = new ConcurrentDoublyLinkedDeque<>();
+            int producers = THREADS;
+
+            runConcurrently(THREADS, thread -> {
+                for (int i = 0; i < OPERATIONS / 4; i++) {
+                    if (thread % 2 == 0)
+                        deque.append(i * producers + thread);
+                    else
+                        deque.prepend(i * producers + thread);
+                }
+            });
+
+            assertEquals(OPERATIONS / 4 * producers, deque.size());
+            ConcurrentDoublyLinkedDeque<Integer> appended = new ConcurrentDoublyLinkedDeque<>();
+            ConcurrentDoublyLinkedDeque<Integer> prepended = new ConcurrentDoublyLinkedDeque<>();
+            while (deque.size() > 0) {
+                int value = deque.first();
+                deque.deleteFirst();
+                if (value % producers % 2 == 0)
+                    appended.append(value);
+                else
+                    prepended.append(value);
+            }
+            assertProducerOrder(appended, producers, true);
+            assertProducerOrder(prepended, producers, false);
+        }
+
+        @DisplayName("sorting while a producer keeps appending returns and keeps every element once")
+        @Test
+        void sortingWhileAProducerAppendsReturns() throws InterruptedException {
+            ConcurrentDoublyLinkedDeque<Integer> deque = new ConcurrentDoublyLinkedDeque<>();
+            AtomicBoolean stop = new AtomicBoolean();
+            AtomicInteger produced = new AtomicInteger();
+
+            runConcurrently(2, thread -> {
+                if (thread == 0) {
+                    while (!stop.get())
+                        deque.append(produced.getAndIncrement());
+                } else {
+                    while (deque.size() < OPERATIONS)
+                        Thread.yield();
+                    deque.sort(Comparator.reverseOrder());
+                    deque.removeIf(item -> item % 2 == 1);
+                    stop.set(true);
+                }
+            });
+
+            BitSet seen = new BitSet();
+            for (int item : deque) {
+                assertFalse(seen.get(item), "Kept twice: " + item);
+                seen.set(item);
+            }
+            for (int i = 0; i < produced.get(); i += 2)
+                assertTrue(seen.get(i), "Lost: " + i);
+            assertEquals(deque.size(), seen.cardinality());
+        }
+    }
+
+    @Nested
+    @DisplayName("On the linearizability of the end operations")
+    class LinearizabilityTest {
+        @DisplayName("the checker accepts a history explained by an order of its overlapping operations")
+        @Test
+        void checkerAcceptsALinearizableHistory() {
+            List<Operation> history = List.of(
+                    new Operation(Kind.APPEND, 1, 0, 3),
+                    new Operation(Kind.APPEND, 2, 1, 2),
+                    new Operation(Kind.POLL_FIRST, 2, 4, 5),
+                    new Operation(Kind.PEEK_LAST, 1, 6, 7));
+
+            assertTrue(isLinearizable(history));
+        }
+
+        @DisplayName("the checker rejects a history that no sequential order explains")
+        @Test
+        void checkerRejectsANonLinearizableHistory() {
+            List<Operation> history = List.of(
+                    new Operation(Kind.APPEND, 1, 0, 1),
+                    new Operation(Kind.APPEND, 2, 2, 3),
+                    new Operation(Kind.POLL_FIRST, 2, 4, 5));
+            List<Operation> lostElement = List.of(
+                    new Operation(Kind.PREPEND, 1, 0, 1),
+                    new Operation(Kind.POLL_LAST, null, 2, 3));
+
+            assertFalse(isLinearizable(history));
+            assertFalse(isLinearizable(lostElement));
+        }
+
+        @DisplayName("every recorded history of concurrent insertions and deletions at both ends is linearizable")
+        @Test
+        void everyRecordedHistoryIsLinearizable() throws InterruptedException {
+            for (int i = 0; i < HISTORIES; i++) {
+                List<Operation> history = recordHistory(new ConcurrentDoublyLinkedDeque<>());
+
+                assertTrue(isLinearizable(history), "Not linearizable: " + history);
+            }
+        }
+    }
+}
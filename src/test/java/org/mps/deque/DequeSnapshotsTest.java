@@ -0,0 +1,134 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains the tests of the binary snapshot format of {@link DequeSnapshots}, written
+ * and read through {@link DoublyLinkedListDeque}:
+ *<h3>Snapshots of linked lists</h3>
+ * - a list read from its snapshot holds the same elements, nulls included
+ * - a list read from a compressed snapshot holds the same elements
+ * - a compressed snapshot of repeated values is smaller than a plain one
+ * - the elements of a short encoding are prefixed by a single byte holding their length
+ * - snapshots written one after another are read back one by one
+ * - reading something that is not a snapshot throws an exception
+ * - reading a truncated snapshot throws an exception
+ */
+class DequeSnapshotsTest {
+    static DoublyLinkedListDeque<Integer> linkedListOf(Integer ...args) {
+        DoublyLinkedListDeque<Integer> list = new DoublyLinkedListDeque<>();
+        for (Integer number : args) {
+            list.append(number);
+        }
+        return list;
+    }
+
+    @DisplayName("On snapshots of linked lists")
+    @Nested
+    class SnapshotLinkedListTest {
+        byte[] snapshotOf(DoublyLinkedListDeque<Integer> list, boolean compressed) throws IOException {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            list.writeTo(output, ElementCodec.ofInteger(), compressed);
+            return (output.toByteArray());
+        }
+
+        @DisplayName("a list read from its snapshot holds the same elements, nulls included")
+        @Test
+        void listReadFromItsSnapshotHoldsTheSameElements() throws IOException {
+            DoublyLinkedListDeque<Integer> list = linkedListOf(3, null, 1, 2);
+            for (int i = 0; i < 100000; i++)
+                list.append(i);
+
+            DoublyLinkedListDeque<Integer> restored = DoublyLinkedListDeque.readFrom(
+                    new ByteArrayInputStream(snapshotOf(list, false)), ElementCodec.ofInteger());
+
+            assertIterableEquals(list, restored);
+            assertEquals(list.size(), restored.size());
+            assertNull(restored.get(1));
+            assertEquals(99999, restored.last());
+            restored.deleteLast();
+            restored.prepend(4);
+            assertEquals(4, restored.first());
+            assertEquals(99998, restored.last());
+        }
+
+        @DisplayName("a list read from a compressed snapshot holds the same elements")
+        @Test
+        void listReadFromACompressedSnapshotHoldsTheSameElements() throws IOException {
+            DoublyLinkedListDeque<Integer> list = linkedListOf(null, 5);
+            for (int i = 0; i < 100000; i++)
+                list.append(i % 7 == 0 ? null : i);
+
+            DoublyLinkedListDeque<Integer> restored = DoublyLinkedListDeque.readFrom(
+                    new ByteArrayInputStream(snapshotOf(list, true)), ElementCodec.ofInteger());
+
+            assertIterableEquals(list, restored);
+            assertEquals(list.size(), restored.size());
+            assertIterableEquals(linkedListOf(), DoublyLinkedListDeque.readFrom(
+                    new ByteArrayInputStream(snapshotOf(linkedListOf(), true)), ElementCodec.ofInteger()));
+        }
+
+        @DisplayName("a compressed snapshot of repeated values is smaller than a plain one")
+        @Test
+        void compressedSnapshotIsSmaller() throws IOException {
+            DoublyLinkedListDeque<Integer> list = linkedListOf();
+            for (int i = 0; i < 100000; i++)
+                list.append(i % 10);
+
+            assertTrue(snapshotOf(list, true).length * 4 < snapshotOf(list, false).length);
+        }
+
+        @DisplayName("the elements of a short encoding are prefixed by a single byte holding their length")
+        @Test
+        void shortElementsHaveAOneBytePrefix() throws IOException {
+            DoublyLinkedListDeque<Integer> list = linkedListOf(1, null, 3);
+            byte[] empty = snapshotOf(linkedListOf(), false);
+
+            byte[] snapshot = snapshotOf(list, false);
+
+            assertEquals(empty.length + 2 * Integer.BYTES + 2 * (1 + Integer.BYTES) + 1, snapshot.length);
+            assertIterableEquals(list, DoublyLinkedListDeque.readFrom(
+                    new ByteArrayInputStream(snapshot), ElementCodec.ofInteger()));
+        }
+
+        @DisplayName("snapshots written one after another are read back one by one")
+        @Test
+        void consecutiveSnapshotsAreReadOneByOne() throws IOException {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            linkedListOf(1, 2).writeTo(output, ElementCodec.ofInteger(), true);
+            linkedListOf(3).writeTo(output, ElementCodec.ofInteger(), false);
+            ByteArrayInputStream input = new ByteArrayInputStream(output.toByteArray());
+
+            assertIterableEquals(Arrays.asList(1, 2), DoublyLinkedListDeque.readFrom(input, ElementCodec.ofInteger()));
+            assertIterableEquals(List.of(3), DoublyLinkedListDeque.readFrom(input, ElementCodec.ofInteger()));
+            assertEquals(-1, input.read());
+        }
+
+        @DisplayName("reading something that is not a snapshot throws an exception")
+        @Test
+        void readingSomethingElseThrowsAnException() {
+            byte[] bytes = new byte[64];
+
+            assertThrows(IOException.class, () -> DoublyLinkedListDeque.readFrom(
+                    new ByteArrayInputStream(bytes), ElementCodec.ofInteger()));
+        }
+
+        @DisplayName("reading a truncated snapshot throws an exception")
+        @Test
+        void readingATruncatedSnapshotThrowsAnException() throws IOException {
+            byte[] snapshot = snapshotOf(linkedListOf(1, 2, 3), false);
+
+            assertThrows(EOFException.class, () -> DoublyLinkedListDeque.readFrom(
+                    new ByteArrayInputStream(Arrays.copyOf(snapshot, snapshot.length - 1)), ElementCodec.ofInteger()));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains the tests of the operations that move nodes between linked lists, which
+ * only {@link DoublyLinkedListDeque} and its subclasses have:
+ *<h3>Splicing linked lists</h3>
+ * - appending or prepending a list moves its elements and empties it
+ * - a list can't be appended or prepended to itself
+ * - splitting a list moves the elements from the index to a new list
+ * - splitting a list with an invalid index throws an exception
+ */
+class DoublyLinkedListDequeSpliceTest {
+    static DoublyLinkedListDeque<Integer> linkedListOf(Integer ...args) {
+        DoublyLinkedListDeque<Integer> list = new DoublyLinkedListDeque<>();
+        for (Integer number : args) {
+            list.append(number);
+        }
+        return list;
+    }
+
+    @DisplayName("On splicing linked lists")
+    @Nested
+    class SpliceLinkedListTest {
+        @DisplayName("appending or prepending a list moves its elements and empties it")
+        @Test
+        void appendingOrPrependingAListMovesItsElements() {
+            DoublyLinkedListDeque<Integer> list = linkedListOf(3, 4);
+            DoublyLinkedListDeque<Integer> tail = linkedListOf(5, 6);
+            DoublyLinkedListDeque<Integer> head = linkedListOf(0, 1, 2);
+            assertEquals(4, list.get(1));
+
+            list.appendDeque(tail);
+            list.prependDeque(head);
+            list.appendDeque(linkedListOf());
+
+            assertIterableEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6), list);
+            assertEquals(7, list.size());
+            assertEquals(4, list.get(4));
+            assertEquals(6, list.last());
+            list.deleteLast();
+            assertEquals(5, list.last());
+            assertEquals(0, tail.size());
+            assertEquals(0, head.size());
+            assertThrows(DoubleEndedQueueException.class, tail::first);
+            head.append(7);
+            assertEquals(7, head.first());
+            assertEquals(7, head.last());
+        }
+
+        @DisplayName("a list can't be appended or prepended to itself")
+        @Test
+        void aListCannotBeSplicedToItself() {
+            DoublyLinkedListDeque<Integer> list = linkedListOf(1, 2);
+
+            assertThrows(IllegalArgumentException.class, () -> list.appendDeque(list));
+            assertThrows(IllegalArgumentException.class, () -> list.prependDeque(list));
+            assertEquals(2, list.size());
+        }
+
+        @DisplayName("splitting a list moves the elements from the index to a new list")
+        @Test
+        void splittingAListMovesTheElementsFromTheIndex() {
+            DoublyLinkedListDeque<Integer> list = linkedListOf(0, 1, 2, 3, 4, 5, 6);
+            assertEquals(5, list.get(5));
+
+            DoublyLinkedListDeque<Integer> tail = list.splitAt(5);
+            DoublyLinkedListDeque<Integer> middle = list.splitAt(2);
+            DoublyLinkedListDeque<Integer> empty = list.splitAt(2);
+
+            assertIterableEquals(Arrays.asList(0, 1), list);
+            assertIterableEquals(Arrays.asList(2, 3, 4), middle);
+            assertIterableEquals(Arrays.asList(5, 6), tail);
+            assertEquals(0, empty.size());
+            assertEquals(1, list.last());
+            assertEquals(2, middle.first());
+            assertEquals(5, tail.get(0));
+            DoublyLinkedListDeque<Integer> all = list.splitAt(0);
+            assertEquals(0, list.size());
+            assertThrows(DoubleEndedQueueException.class, list::last);
+            assertIterableEquals(Arrays.asList(0, 1), all);
+        }
+
+        @DisplayName("splitting a list with an invalid index throws an exception")
+        @Test
+        void splittingWithAnInvalidIndexThrowsAnException() {
+            DoublyLinkedListDeque<Integer> list = linkedListOf(1, 2);
+
+            assertThrows(IndexOutOfBoundsException.class, () -> list.splitAt(-1));
+            assertThrows(IndexOutOfBoundsException.class, () -> list.splitAt(3));
+        }
+    }
+}
@@ -2,8 +2,15 @@ package org.mps.deque;
 
 import org.junit.jupiter.api.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -47,6 +54,32 @@ import static org.junit.jupiter.api.Assertions.*;
  *<h3>Null node item list</h3>
  * - contains null and does nos throw an exception
  * - does not contain any other value than null
+ *<h3>Non-throwing accessors</h3>
+ * - peeking or polling an empty list returns null
+ * - peeking returns the ends without removing them
+ * - polling returns and removes the ends
+ * - the exception thrown on an empty list has no stack trace
+ *<h3>Indexed access</h3>
+ * - getting every element in order and in reverse order returns them
+ * - getting elements after modifying the list returns the current elements
+ *<h3>Iteration</h3>
+ * - iterating an empty list returns no element
+ * - iterating returns the elements in order and descending iteration in reverse order
+ * - the spliterator is ordered
+ * - the spliterator of a list with fail-fast iterators is sized
+ * - streaming the list processes every element in order
+ * - splitting the spliterator of a large list covers every element once and in order
+ * - a parallel stream over a large list processes every element in order
+ * - modifying the list while iterating throws an exception on the next element
+ * - deleting from the list while traversing the rest of its spliterator throws an exception
+ *<h3>Bulk operations</h3>
+ * - appending and prepending several values keeps their order
+ * - appending or prepending no values has no effect
+ * - draining hands over the first elements in order and stops when the list is empty
+ * - draining a negative number of elements throws an exception
+ * - removing all the values of a collection removes every occurrence
+ * - removing all the values of a list does not look every element up in the list
+ * - removing the elements that match a predicate keeps the rest in order
  *<h3>Sorted lists</h3>
  *  - sorting has no effect
  *<h3>Unsorted lists</h3>
@@ -54,12 +87,24 @@ import static org.junit.jupiter.api.Assertions.*;
  *<br/>
  * On every kind of list it is tested the size, insertions and deletions
  * checking if the consistency is kept between nodes.
+ *<br/>
+ * Other implementations of {@link DoubleEndedQueue} reuse this suite by extending the class
+ * and overriding {@link #createDeque()}; those whose iterators are not fail-fast also override
+ * {@link #hasFailFastIterators()}.
  * @author Alba Ruiz Gutiérrez
  * @author José Manuel Sánchez Rico
  */
 class DoublyLinkedListDequeTest {
-    private DoublyLinkedListDeque<Integer> createQueueOf(Integer ...args) {
-        DoublyLinkedListDeque<Integer> list = new DoublyLinkedListDeque<>();
+    <E> DoubleEndedQueue<E> createDeque() {
+        return new DoublyLinkedListDeque<>();
+    }
+
+    boolean hasFailFastIterators() {
+        return true;
+    }
+
+    DoubleEndedQueue<Integer> createQueueOf(Integer ...args) {
+        DoubleEndedQueue<Integer> list = createDeque();
         for (Integer number : args) {
             list.append(number);
         }
@@ -69,10 +114,10 @@ class DoublyLinkedListDequeTest {
     @Nested
     @DisplayName("On an empty double linked list")
     class EmptyDoubleLinkedListTest {
-        static DoublyLinkedListDeque<Integer> emptyDoubleLinkedList;
+        static DoubleEndedQueue<Integer> emptyDoubleLinkedList;
         @BeforeEach
         void setUp() {
-            emptyDoubleLinkedList = new DoublyLinkedListDeque<>();
+            emptyDoubleLinkedList = createDeque();
         }
 
         @DisplayName("the size is zero")
@@ -193,7 +238,7 @@ class DoublyLinkedListDequeTest {
     @Nested
     @DisplayName("On a single node, double linked list")
     class SingleNodeDoubleLinkedListTest {
-        static DoublyLinkedListDeque<Integer> singleNodeDoubleLinkedList;
+        static DoubleEndedQueue<Integer> singleNodeDoubleLinkedList;
         @BeforeEach
         void setUp() {
             singleNodeDoubleLinkedList = createQueueOf( 5);
@@ -356,7 +401,7 @@ class DoublyLinkedListDequeTest {
     @Nested
     @DisplayName("On a two nodes, double linked list")
     class DoubleNodeDoubleLinkedListTest {
-        static DoublyLinkedListDeque<Integer> doubleNodeDoubleLinkedList;
+        static DoubleEndedQueue<Integer> doubleNodeDoubleLinkedList;
 
         @BeforeEach
         void setUp() {
@@ -595,7 +640,7 @@ class DoublyLinkedListDequeTest {
 
         @BeforeEach
         void setUp() {
-            nullItemDoubleLinkedList = new DoublyLinkedListDeque<>();
+            nullItemDoubleLinkedList = createDeque();
             nullItemDoubleLinkedList.append(null);
         }
 
@@ -614,13 +659,358 @@ class DoublyLinkedListDequeTest {
         }
     }
 
+    @DisplayName("On non-throwing accessors")
+    @Nested
+    class NonThrowingAccessorsTest {
+        @DisplayName("peeking or polling an empty list returns null")
+        @Test
+        void peekingOrPollingAnEmptyListReturnsNull() {
+            DoubleEndedQueue<Integer> list = createQueueOf();
+
+            assertNull(list.peekFirst());
+            assertNull(list.peekLast());
+            assertNull(list.pollFirst());
+            assertNull(list.pollLast());
+            assertEquals(0, list.size());
+        }
+
+        @DisplayName("peeking returns the ends without removing them")
+        @Test
+        void peekingReturnsTheEnds() {
+            DoubleEndedQueue<Integer> list = createQueueOf(1, 2, 3);
+
+            assertEquals(1, list.peekFirst());
+            assertEquals(3, list.peekLast());
+            assertEquals(3, list.size());
+        }
+
+        @DisplayName("polling returns and removes the ends")
+        @Test
+        void pollingReturnsAndRemovesTheEnds() {
+            DoubleEndedQueue<Integer> list = createQueueOf(1, 2, 3);
+
+            assertEquals(1, list.pollFirst());
+            assertEquals(3, list.pollLast());
+            assertEquals(2, list.pollFirst());
+            assertNull(list.pollLast());
+            assertEquals(0, list.size());
+        }
+
+        @DisplayName("the exception thrown on an empty list has no stack trace")
+        @Test
+        void emptyListExceptionHasNoStackTrace() {
+            DoubleEndedQueue<Integer> list = createQueueOf();
+
+            DoubleEndedQueueException exception = assertThrows(DoubleEndedQueueException.class, list::deleteFirst);
+
+            assertEquals(0, exception.getStackTrace().length);
+        }
+    }
+
+    @DisplayName("On indexed access to a list")
+    @Nested
+    class IndexedAccessListTest {
+        @DisplayName("getting every element in order and in reverse order returns them")
+        @Test
+        void gettingEveryElementInBothDirectionsReturnsThem() {
+            DoubleEndedQueue<Integer> list = createQueueOf(0, 1, 2, 3, 4, 5, 6, 7);
+
+            for (int i = 0; i < list.size(); i++) {
+                assertEquals(i, list.get(i));
+            }
+            for (int i = list.size() - 1; i >= 0; i--) {
+                assertEquals(i, list.get(i));
+            }
+        }
+
+        @DisplayName("getting elements after modifying the list returns the current elements")
+        @Test
+        void gettingAfterModifyingTheListReturnsTheCurrentElements() {
+            DoubleEndedQueue<Integer> list = createQueueOf(1, 2, 3, 4, 5, 6);
+            assertEquals(3, list.get(2));
+
+            list.prepend(0);
+            assertEquals(2, list.get(2));
+            list.remove(1);
+            assertEquals(3, list.get(2));
+            list.remove(3);
+            assertEquals(4, list.get(2));
+            list.deleteFirst();
+            assertEquals(5, list.get(2));
+            list.deleteLast();
+            list.deleteLast();
+
+            assertEquals(2, list.size());
+            assertEquals(2, list.get(0));
+            assertEquals(4, list.get(1));
+        }
+    }
+
+    @DisplayName("On iterating a list")
+    @Nested
+    class IterationListTest {
+        @DisplayName("iterating an empty list returns no element")
+        @Test
+        void iteratingAnEmptyListReturnsNoElement() {
+            DoubleEndedQueue<Integer> list = createQueueOf();
+
+            Iterator<Integer> iterator = list.iterator();
+            Iterator<Integer> descendingIterator = list.descendingIterator();
+
+            assertFalse(iterator.hasNext());
+            assertFalse(descendingIterator.hasNext());
+            assertThrows(NoSuchElementException.class, iterator::next);
+            assertThrows(NoSuchElementException.class, descendingIterator::next);
+        }
+
+        @DisplayName("iterating returns the elements in order and descending iteration in reverse order")
+        @Test
+        void iteratingReturnsTheElementsInOrder() {
+            DoubleEndedQueue<Integer> list = createQueueOf(0, 1, null, 3, 4, 5, 6, 7, 8, 9);
+            List<Integer> expected = Arrays.asList(0, 1, null, 3, 4, 5, 6, 7, 8, 9);
+
+            assertIterableEquals(expected, list);
+            Iterator<Integer> descendingIterator = list.descendingIterator();
+            for (int i = expected.size() - 1; i >= 0; i--) {
+                assertTrue(descendingIterator.hasNext());
+                assertEquals(expected.get(i), descendingIterator.next());
+            }
+            assertFalse(descendingIterator.hasNext());
+        }
+
+        @DisplayName("the spliterator is ordered")
+        @Test
+        void theSpliteratorIsOrdered() {
+            DoubleEndedQueue<Integer> list = createQueueOf(4, 5, 6);
+
+            Spliterator<Integer> spliterator = list.spliterator();
+
+            assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+            assertEquals(3, list.stream().count());
+        }
+
+        @DisplayName("the spliterator of a list with fail-fast iterators is sized")
+        @Test
+        void theSpliteratorIsSized() {
+            Assumptions.assumeTrue(hasFailFastIterators());
+            DoubleEndedQueue<Integer> list = createQueueOf(4, 5, 6);
+
+            Spliterator<Integer> spliterator = list.spliterator();
+
+            assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+            assertEquals(3, spliterator.getExactSizeIfKnown());
+        }
+
+        @DisplayName("streaming the list processes every element in order")
+        @Test
+        void streamingProcessesEveryElementInOrder() {
+            DoubleEndedQueue<Integer> list = createQueueOf(1, 2, 3, 4, 5, 6);
+
+            List<Integer> doubled = list.stream().map(x -> x * 2).collect(Collectors.toList());
+
+            assertEquals(Arrays.asList(2, 4, 6, 8, 10, 12), doubled);
+            assertEquals(21, list.stream().mapToInt(Integer::intValue).sum());
+        }
+
+        @DisplayName("splitting the spliterator of a large list covers every element once and in order")
+        @Test
+        void splittingTheSpliteratorCoversEveryElement() {
+            DoubleEndedQueue<Integer> list = createQueueOf();
+            for (int i = 0; i < 5000; i++) {
+                list.append(i);
+            }
+            List<Integer> visited = new ArrayList<>();
+
+            Spliterator<Integer> suffix = list.spliterator();
+            Spliterator<Integer> prefix = suffix.trySplit();
+            Spliterator<Integer> nextPrefix = suffix.trySplit();
+
+            assertNotNull(prefix);
+            assertNotNull(nextPrefix);
+            prefix.forEachRemaining(visited::add);
+            nextPrefix.forEachRemaining(visited::add);
+            while (suffix.tryAdvance(visited::add)) {
+            }
+            assertEquals(5000, visited.size());
+            for (int i = 0; i < 5000; i++) {
+                assertEquals(i, visited.get(i));
+            }
+        }
+
+        @DisplayName("a parallel stream over a large list processes every element in order")
+        @Test
+        void aParallelStreamProcessesEveryElement() {
+            DoubleEndedQueue<Integer> list = createQueueOf();
+            for (int i = 0; i < 100_000; i++) {
+                list.append(i);
+            }
+
+            List<Integer> odd = list.parallelStream().filter(x -> x % 2 == 1).collect(Collectors.toList());
+
+            assertEquals(50_000, odd.size());
+            for (int i = 0; i < odd.size(); i++) {
+                assertEquals(2 * i + 1, odd.get(i));
+            }
+            assertEquals(4_999_950_000L, list.parallelStream().mapToLong(Integer::longValue).sum());
+        }
+
+        @DisplayName("modifying the list while iterating throws an exception on the next element")
+        @Test
+        void modifyingWhileIteratingThrowsAnException() {
+            Assumptions.assumeTrue(hasFailFastIterators());
+            DoubleEndedQueue<Integer> list = createQueueOf(1, 2, 3, 4);
+
+            Iterator<Integer> appending = list.iterator();
+            appending.next();
+            list.append(5);
+            Iterator<Integer> deleting = list.descendingIterator();
+            deleting.next();
+            list.deleteFirst();
+            Iterator<Integer> sorting = list.iterator();
+            list.sort(Integer::compareTo);
+
+            assertThrows(ConcurrentModificationException.class, appending::next);
+            assertThrows(ConcurrentModificationException.class, deleting::next);
+            assertThrows(ConcurrentModificationException.class, sorting::next);
+        }
+
+        @DisplayName("deleting from the list while traversing the rest of its spliterator throws an exception")
+        @Test
+        void deletingWhileTraversingTheSpliteratorThrowsAnException() {
+            Assumptions.assumeTrue(hasFailFastIterators());
+            DoubleEndedQueue<Integer> list = createQueueOf(1, 2, 3, 4);
+            List<Integer> visited = new ArrayList<>();
+
+            Spliterator<Integer> spliterator = list.spliterator();
+
+            assertThrows(ConcurrentModificationException.class, () -> spliterator.forEachRemaining(item -> {
+                visited.add(item);
+                list.deleteLast();
+            }));
+            assertEquals(List.of(1), visited);
+        }
+    }
+
+    @DisplayName("On bulk operations on a list")
+    @Nested
+    class BulkOperationsListTest {
+        @DisplayName("appending and prepending several values keeps their order")
+        @Test
+        void appendingAndPrependingSeveralValuesKeepsTheirOrder() {
+            DoubleEndedQueue<Integer> list = createQueueOf(3, 4);
+            assertEquals(4, list.get(1));
+
+            list.appendAll(Arrays.asList(5, null, 7));
+            list.prependAll(Arrays.asList(0, 1, 2));
+
+            assertIterableEquals(Arrays.asList(0, 1, 2, 3, 4, 5, null, 7), list);
+            assertEquals(8, list.size());
+            assertEquals(0, list.first());
+            assertEquals(7, list.last());
+            assertEquals(4, list.get(4));
+            list.deleteLast();
+            assertNull(list.last());
+        }
+
+        @DisplayName("appending or prepending no values has no effect")
+        @Test
+        void appendingOrPrependingNoValuesHasNoEffect() {
+            DoubleEndedQueue<Integer> emptyList = createQueueOf();
+            DoubleEndedQueue<Integer> list = createQueueOf(1, 2);
+
+            emptyList.appendAll(List.of());
+            emptyList.prependAll(List.of());
+            list.appendAll(List.of());
+            list.prependAll(List.of());
+
+            assertEquals(0, emptyList.size());
+            assertIterableEquals(Arrays.asList(1, 2), list);
+        }
+
+        @DisplayName("draining hands over the first elements in order and stops when the list is empty")
+        @Test
+        void drainingHandsOverTheFirstElements() {
+            DoubleEndedQueue<Integer> list = createQueueOf(1, 2, 3, 4, 5);
+            List<Integer> drained = new ArrayList<>();
+
+            assertEquals(2, list.drainFirst(2, drained::add));
+            assertIterableEquals(Arrays.asList(3, 4, 5), list);
+            assertEquals(3, list.drainFirst(10, drained::add));
+            assertEquals(0, list.drainFirst(10, drained::add));
+
+            assertEquals(Arrays.asList(1, 2, 3, 4, 5), drained);
+            assertEquals(0, list.size());
+            list.append(6);
+            assertEquals(6, list.first());
+            assertEquals(6, list.last());
+        }
+
+        @DisplayName("draining a negative number of elements throws an exception")
+        @Test
+        void drainingANegativeNumberOfElementsThrowsAnException() {
+            DoubleEndedQueue<Integer> list = createQueueOf(1, 2);
+
+            assertThrows(IllegalArgumentException.class, () -> list.drainFirst(-1, x -> { }));
+            assertEquals(2, list.size());
+        }
+
+        @DisplayName("removing all the values of a collection removes every occurrence")
+        @Test
+        void removingAllTheValuesOfACollectionRemovesEveryOccurrence() {
+            DoubleEndedQueue<Integer> list = createQueueOf(1, 2, null, 3, 2, 4, 1);
+
+            assertTrue(list.removeAll(Arrays.asList(1, 2, null)));
+            assertFalse(list.removeAll(Arrays.asList(1, 5)));
+
+            assertIterableEquals(Arrays.asList(3, 4), list);
+            assertEquals(2, list.size());
+            assertEquals(3, list.first());
+            assertEquals(4, list.last());
+        }
+
+        @DisplayName("removing all the values of a list does not look every element up in the list")
+        @Test
+        void removingAllTheValuesOfAListDoesNotScanTheList() {
+            DoubleEndedQueue<Integer> list = createQueueOf(1, 2, null, 3, 2, 4, 1);
+            List<Integer> values = new ArrayList<>(Arrays.asList(2, null, 4)) {
+                @Override
+                public boolean contains(Object value) {
+                    throw new AssertionError("List scanned for " + value);
+                }
+            };
+
+            assertTrue(list.removeAll(values));
+
+            assertIterableEquals(Arrays.asList(1, 3, 1), list);
+            assertEquals(3, list.size());
+        }
+
+        @DisplayName("removing the elements that match a predicate keeps the rest in order")
+        @Test
+        void removingTheElementsThatMatchAPredicateKeepsTheRest() {
+            DoubleEndedQueue<Integer> list = createQueueOf(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+            assertEquals(5, list.get(5));
+
+            assertTrue(list.removeIf(x -> x % 3 == 0));
+
+            assertIterableEquals(Arrays.asList(1, 2, 4, 5, 7, 8), list);
+            assertEquals(4, list.get(2));
+            list.prepend(0);
+            list.append(9);
+            assertIterableEquals(Arrays.asList(0, 1, 2, 4, 5, 7, 8, 9), list);
+            assertTrue(list.removeIf(x -> true));
+            assertEquals(0, list.size());
+            assertThrows(DoubleEndedQueueException.class, list::first);
+        }
+    }
+
     @DisplayName("On a sorted node list")
     @Nested
     class SortedNodeListTest {
         @DisplayName("sorting two elements has no effect")
         @Test
         void sortingTwoElementsDoesNotModifyTheList() {
-            DoublyLinkedListDeque<Integer> list = createQueueOf(4, 5);
+            DoubleEndedQueue<Integer> list = createQueueOf(4, 5);
 
             list.sort(Integer::compareTo);
 
@@ -633,7 +1023,7 @@ class DoublyLinkedListDequeTest {
         @DisplayName("sorting three elements has no effect")
         @Test
         void sortingThreeElementsDoesNotModifyTheList() {
-            DoublyLinkedListDeque<Integer> list = createQueueOf(4, 5, 6);
+            DoubleEndedQueue<Integer> list = createQueueOf(4, 5, 6);
 
             list.sort(Integer::compareTo);
 
@@ -651,7 +1041,7 @@ class DoublyLinkedListDequeTest {
         @DisplayName("sorting three elements 4 0 5 sorts them as 0 4 5")
         @Test
         void sortingTwoElementsSortsThem() {
-            DoublyLinkedListDeque<Integer> list = createQueueOf(4, 0, 5);
+            DoubleEndedQueue<Integer> list = createQueueOf(4, 0, 5);
 
             list.sort(Integer::compareTo);
 
@@ -665,7 +1055,7 @@ class DoublyLinkedListDequeTest {
         @DisplayName("sorting three elements 5 6 4 sorts them as 4 5 6")
         @Test
         void sortingThreeElementsSortsThem() {
-            DoublyLinkedListDeque<Integer> list = createQueueOf( 5, 6, 4);
+            DoubleEndedQueue<Integer> list = createQueueOf( 5, 6, 4);
 
             list.sort(Integer::compareTo);
 
@@ -679,7 +1069,7 @@ class DoublyLinkedListDequeTest {
         @DisplayName("sorting three 5 null 4 elements sorts them as null 4 5")
         @Test
         void sortingThreeElementsWithNullSortsThem() {
-            DoublyLinkedListDeque<Integer> list = createQueueOf( 5, null, 4);
+            DoubleEndedQueue<Integer> list = createQueueOf( 5, null, 4);
 
             list.sort(Integer::compareTo);
 
@@ -693,7 +1083,7 @@ class DoublyLinkedListDequeTest {
         @DisplayName("sorting three elements null, 4, null sorts them as null, null, 4")
         @Test
         void sortingTwoNullsAndOneElementsWithNullSortsThem() {
-            DoublyLinkedListDeque<Integer> list = createQueueOf( null, 4, null);
+            DoubleEndedQueue<Integer> list = createQueueOf( null, 4, null);
 
             list.sort(Integer::compareTo);
 
@@ -703,5 +1093,51 @@ class DoublyLinkedListDequeTest {
             assertEquals(4, list.last());
             assertEquals(4, list.get(2));
         }
+
+        @DisplayName("sorting a reversed list sorts it and keeps the links consistent")
+        @Test
+        void sortingAReversedListSortsIt() {
+            DoubleEndedQueue<Integer> list = createQueueOf(9, 8, 7, 6, 5, 4, 3, 2, 1, 0);
+
+            list.sort(Integer::compareTo);
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, list.get(i));
+            }
+            assertEquals(0, list.first());
+            assertEquals(9, list.last());
+            list.deleteLast();
+            assertEquals(8, list.last());
+        }
+
+        @DisplayName("sorting a list with several runs and nulls sorts it")
+        @Test
+        void sortingSeveralRunsWithNullsSortsThem() {
+            DoubleEndedQueue<Integer> list = createQueueOf(3, 7, null, 9, 1, 2, 8, null, 0, 6, 5, 4);
+
+            list.sort(Integer::compareTo);
+
+            List<Integer> expected = Arrays.asList(null, null, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i), list.get(i));
+            }
+            assertEquals(expected.size(), list.size());
+        }
+
+        @DisplayName("sorting keeps equal elements in their original order")
+        @Test
+        void sortingIsStable() {
+            DoubleEndedQueue<String> list = createDeque();
+            for (String value : List.of("b1", "a1", "b2", "a2", "a3", "b3")) {
+                list.append(value);
+            }
+
+            list.sort((x, y) -> Character.compare(x.charAt(0), y.charAt(0)));
+
+            List<String> expected = List.of("a1", "a2", "a3", "b1", "b2", "b3");
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i), list.get(i));
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class runs the behavioral suite of {@link DoublyLinkedListDequeTest} against the indexed
+ * deque, with node pooling so that reused nodes are indexed again, and adds the cases that check
+ * the index is kept in sync:
+ *<h3>Value index</h3>
+ * - remove deletes the first occurrence even of values prepended later
+ * - deleting from both ends keeps the first occurrence right
+ * - the index is kept in sync after sorting
+ * - the index is kept in sync after bulk operations
+ * - the index is kept in sync after splicing and splitting
+ * - the index is cleared when the deque is spliced into a plain deque
+ */
+class IndexedDoublyLinkedListDequeTest extends DoublyLinkedListDequeTest {
+    @Override
+    <E> DoubleEndedQueue<E> createDeque() {
+        return new IndexedDoublyLinkedListDeque<>(4);
+    }
+
+    private IndexedDoublyLinkedListDeque<Integer> indexedDequeOf(Integer ...args) {
+        IndexedDoublyLinkedListDeque<Integer> deque = new IndexedDoublyLinkedListDeque<>(4);
+        for (Integer number : args) {
+            deque.append(number);
+        }
+        return deque;
+    }
+
+    @Nested
+    @DisplayName("On the value index of an indexed deque")
+    class ValueIndexTest {
+        @DisplayName("remove deletes the first occurrence even of values prepended later")
+        @Test
+        void removeDeletesTheFirstOccurrence() {
+            IndexedDoublyLinkedListDeque<Integer> deque = indexedDequeOf(1, 2, 1);
+            deque.prepend(2);
+            deque.prepend(null);
+
+            deque.remove(2);
+            deque.remove(1);
+            deque.remove(null);
+
+            assertIterableEquals(Arrays.asList(2, 1), deque);
+            assertTrue(deque.contains(2));
+            assertTrue(deque.contains(1));
+            assertFalse(deque.contains(null));
+            deque.remove(1);
+            assertFalse(deque.contains(1));
+            assertIterableEquals(List.of(2), deque);
+        }
+
+        @DisplayName("deleting from both ends keeps the first occurrence right")
+        @Test
+        void deletingFromBothEndsKeepsTheFirstOccurrence() {
+            IndexedDoublyLinkedListDeque<Integer> deque = indexedDequeOf(7, 1, 7, 2, 7);
+
+            deque.deleteFirst();
+            deque.deleteLast();
+            deque.remove(7);
+            deque.deleteFirst();
+
+            assertIterableEquals(List.of(2), deque);
+            assertFalse(deque.contains(7));
+            assertFalse(deque.contains(1));
+            deque.deleteLast();
+            assertFalse(deque.contains(2));
+            assertEquals(0, deque.size());
+        }
+
+        @DisplayName("the index is kept in sync after sorting")
+        @Test
+        void theIndexIsKeptInSyncAfterSorting() {
+            IndexedDoublyLinkedListDeque<String> deque = new IndexedDoublyLinkedListDeque<>();
+            deque.appendAll(Arrays.asList("b1", "a1", "b2", "a2"));
+
+            deque.sort((x, y) -> Character.compare(x.charAt(0), y.charAt(0)));
+            deque.deleteFirst();
+            deque.remove("b1");
+
+            assertIterableEquals(Arrays.asList("a2", "b2"), deque);
+            assertFalse(deque.contains("a1"));
+            assertFalse(deque.contains("b1"));
+            assertTrue(deque.contains("b2"));
+        }
+
+        @DisplayName("the index is kept in sync after bulk operations")
+        @Test
+        void theIndexIsKeptInSyncAfterBulkOperations() {
+            IndexedDoublyLinkedListDeque<Integer> deque = indexedDequeOf(3, 4);
+            List<Integer> drained = new ArrayList<>();
+
+            deque.appendAll(Arrays.asList(5, 3));
+            deque.prependAll(Arrays.asList(1, 2, 3));
+            deque.drainFirst(3, drained::add);
+            deque.remove(3);
+            assertTrue(deque.removeAll(List.of(5)));
+            assertFalse(deque.removeAll(List.of(5, 6)));
+            assertTrue(deque.removeIf(x -> x == 4));
+
+            assertEquals(Arrays.asList(1, 2, 3), drained);
+            assertIterableEquals(List.of(3), deque);
+            assertTrue(deque.contains(3));
+            assertFalse(deque.contains(4));
+            assertFalse(deque.contains(5));
+            deque.remove(3);
+            assertFalse(deque.contains(3));
+        }
+
+        @DisplayName("the index is kept in sync after splicing and splitting")
+        @Test
+        void theIndexIsKeptInSyncAfterSplicingAndSplitting() {
+            IndexedDoublyLinkedListDeque<Integer> deque = indexedDequeOf(2, 3);
+            IndexedDoublyLinkedListDeque<Integer> head = indexedDequeOf(0, 1);
+            DoublyLinkedListDeque<Integer> tail = new DoublyLinkedListDeque<>();
+            tail.append(4);
+            tail.append(5);
+
+            deque.prependDeque(head);
+            deque.appendDeque(tail);
+            IndexedDoublyLinkedListDeque<Integer> split = deque.splitAt(3);
+
+            assertFalse(head.contains(0));
+            assertIterableEquals(Arrays.asList(0, 1, 2), deque);
+            assertIterableEquals(Arrays.asList(3, 4, 5), split);
+            assertTrue(deque.contains(0));
+            assertFalse(deque.contains(4));
+            assertTrue(split.contains(4));
+            assertFalse(split.contains(1));
+            split.remove(4);
+            assertIterableEquals(Arrays.asList(3, 5), split);
+        }
+
+        @DisplayName("the index is cleared when the deque is spliced into a plain deque")
+        @Test
+        void theIndexIsClearedWhenSplicedIntoAPlainDeque() {
+            IndexedDoublyLinkedListDeque<Integer> appended = indexedDequeOf(1, 2);
+            IndexedDoublyLinkedListDeque<Integer> prepended = indexedDequeOf(0);
+            DoublyLinkedListDeque<Integer> plain = new DoublyLinkedListDeque<>();
+
+            plain.appendDeque(appended);
+            plain.prependDeque(prepended);
+
+            assertEquals(0, appended.size());
+            assertFalse(appended.contains(1));
+            assertFalse(prepended.contains(0));
+            appended.append(1);
+            appended.remove(1);
+            assertEquals(0, appended.size());
+            assertIterableEquals(Arrays.asList(0, 1, 2), plain);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class runs the behavioral suite of {@link DoublyLinkedListDequeTest} against the
+ * instrumented decorator wrapping a linked list whose own counters are enabled, and adds the
+ * cases specific to the counters:
+ *<h3>Decorator counters</h3>
+ * - insertions, deletions and queries are counted
+ * - the largest size is kept after the deque shrinks
+ * - accesses to an empty deque are counted
+ * - the comparisons of a sort are counted
+ * - bulk operations count every element inserted or deleted
+ * - a snapshot keeps the values it was taken with and reset sets every counter to zero
+ * - the counters are exposed as a JMX MBean
+ *<h3>Linked list counters</h3>
+ * - a list has no counters until they are enabled
+ * - the nodes walked by get, contains and remove are counted
+ * - the comparisons and relinked nodes of a sort are counted
+ * - disabling the counters stops the counting
+ */
+class InstrumentedDoubleEndedQueueTest extends DoublyLinkedListDequeTest {
+    @Override
+    <E> DoubleEndedQueue<E> createDeque() {
+        DoublyLinkedListDeque<E> list = new DoublyLinkedListDeque<>();
+        list.setMetrics(new DequeMetrics());
+        return new InstrumentedDoubleEndedQueue<>(list);
+    }
+
+    @Nested
+    @DisplayName("On an instrumented deque")
+    class DecoratorMetricsTest {
+        private InstrumentedDoubleEndedQueue<Integer> deque;
+        private DequeMetrics metrics;
+
+        @BeforeEach
+        void setup() {
+            deque = new InstrumentedDoubleEndedQueue<>(new ArrayRingDeque<>());
+            metrics = deque.getMetrics();
+        }
+
+        @DisplayName("insertions, deletions and queries are counted")
+        @Test
+        void operationsAreCounted() {
+            deque.append(1);
+            deque.append(2);
+            deque.prepend(0);
+            deque.get(1);
+            deque.contains(2);
+            deque.contains(5);
+            deque.remove(1);
+            deque.deleteFirst();
+            deque.pollLast();
+            deque.pollLast();
+
+            assertEquals(3, metrics.getInsertions());
+            assertEquals(2, metrics.getDeletions());
+            assertEquals(1, metrics.getGets());
+            assertEquals(2, metrics.getContainsQueries());
+            assertEquals(1, metrics.getRemoves());
+            assertEquals(0, metrics.getEmptyAccesses());
+        }
+
+        @DisplayName("the largest size is kept after the deque shrinks")
+        @Test
+        void largestSizeIsKept() {
+            for (int i = 0; i < 5; i++)
+                deque.append(i);
+            deque.deleteLast();
+            deque.deleteLast();
+            deque.prepend(7);
+
+            assertEquals(5, metrics.getMaxSize());
+            assertEquals(4, deque.size());
+        }
+
+        @DisplayName("accesses to an empty deque are counted")
+        @Test
+        void emptyAccessesAreCounted() {
+            assertThrows(DoubleEndedQueueException.class, deque::first);
+            assertThrows(DoubleEndedQueueException.class, deque::last);
+            assertThrows(DoubleEndedQueueException.class, deque::deleteFirst);
+            assertThrows(DoubleEndedQueueException.class, deque::deleteLast);
+            assertThrows(DoubleEndedQueueException.class, () -> deque.remove(1));
+            assertNull(deque.pollFirst());
+
+            assertEquals(5, metrics.getEmptyAccesses());
+            assertEquals(0, metrics.getDeletions());
+            assertEquals(0, metrics.getRemoves());
+        }
+
+        @DisplayName("the comparisons of a sort are counted")
+        @Test
+        void sortComparisonsAreCounted() {
+            deque.appendAll(Arrays.asList(3, 1, 2));
+
+            deque.sort(Comparator.naturalOrder());
+
+            assertIterableEquals(Arrays.asList(1, 2, 3), deque);
+            assertTrue(metrics.getSortComparisons() >= 2);
+            assertEquals(0, metrics.getSortSwaps());
+        }
+
+        @DisplayName("bulk operations count every element inserted or deleted")
+        @Test
+        void bulkOperationsAreCounted() {
+            deque.appendAll(Arrays.asList(1, 2, 3, 4));
+            deque.prependAll(List.of(0));
+            deque.drainFirst(2, item -> { });
+            deque.removeIf(item -> item == 3);
+            deque.removeAll(List.of(4, 5));
+
+            assertEquals(5, metrics.getInsertions());
+            assertEquals(4, metrics.getDeletions());
+            assertEquals(5, metrics.getMaxSize());
+            assertIterableEquals(List.of(2), deque);
+        }
+
+        @DisplayName("a snapshot keeps the values it was taken with and reset sets every counter to zero")
+        @Test
+        void snapshotAndReset() {
+            deque.append(1);
+            deque.get(0);
+
+            DequeMetrics.Snapshot snapshot = metrics.snapshot();
+            metrics.reset();
+            deque.append(2);
+
+            assertEquals(1, snapshot.insertions());
+            assertEquals(1, snapshot.gets());
+            assertEquals(1, snapshot.maxSize());
+            assertEquals(new DequeMetrics.Snapshot(1, 0, 0, 0, 0, 0, 2, 0, 0, 0), metrics.snapshot());
+        }
+
+        @DisplayName("the counters are exposed as a JMX MBean")
+        @Test
+        void countersAreExposedAsAnMBean() throws JMException {
+            deque.append(1);
+            deque.append(2);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+            ObjectName name = metrics.register("instrumented-test");
+            try {
+                assertEquals(2L, server.getAttribute(name, "Insertions"));
+                assertEquals(2L, server.getAttribute(name, "MaxSize"));
+                server.invoke(name, "reset", null, null);
+                assertEquals(0, metrics.getInsertions());
+                assertThrows(JMException.class, () -> metrics.register("instrumented-test"));
+            } finally {
+                server.unregisterMBean(name);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("On a linked list with counters")
+    class LinkedListMetricsTest {
+        private DoublyLinkedListDeque<Integer> list;
+        private DequeMetrics metrics;
+
+        @BeforeEach
+        void setup() {
+            list = new DoublyLinkedListDeque<>();
+            for (int i = 0; i < 10; i++)
+                list.append(i);
+            metrics = new DequeMetrics();
+            list.setMetrics(metrics);
+        }
+
+        @DisplayName("a list has no counters until they are enabled")
+        @Test
+        void listHasNoCountersUntilEnabled() {
+            assertNull(new DoublyLinkedListDeque<Integer>().getMetrics());
+            assertSame(metrics, list.getMetrics());
+            assertEquals(0, metrics.getInsertions());
+        }
+
+        @DisplayName("the nodes walked by get, contains and remove are counted")
+        @Test
+        void traversedNodesAreCounted() {
+            list.get(2);
+            list.get(3);
+            list.get(8);
+            assertEquals(2 + 1 + 1, metrics.getNodesTraversed());
+
+            list.contains(4);
+            list.contains(42);
+            assertEquals(4 + 5 + 10, metrics.getNodesTraversed());
+
+            list.remove(1);
+            list.remove(42);
+            assertEquals(19 + 2 + 9, metrics.getNodesTraversed());
+            assertEquals(3, metrics.getGets());
+            assertEquals(2, metrics.getContainsQueries());
+            assertEquals(2, metrics.getRemoves());
+        }
+
+        @DisplayName("the comparisons and relinked nodes of a sort are counted")
+        @Test
+        void sortComparisonsAndSwapsAreCounted() {
+            list.appendAll(Arrays.asList(null, 5, 3));
+            list.prepend(7);
+
+            list.sort(Comparator.naturalOrder());
+
+            assertNull(list.first());
+            assertEquals(9, list.last());
+            assertEquals(4, metrics.getInsertions());
+            assertEquals(14, metrics.getMaxSize());
+            assertTrue(metrics.getSortComparisons() > 0);
+            assertTrue(metrics.getSortSwaps() > 0);
+        }
+
+        @DisplayName("disabling the counters stops the counting")
+        @Test
+        void disablingStopsTheCounting() {
+            list.deleteFirst();
+            list.setMetrics(null);
+            list.deleteFirst();
+            list.get(5);
+            DoublyLinkedListDeque<Integer> empty = new DoublyLinkedListDeque<>();
+            empty.setMetrics(metrics);
+            assertThrows(DoubleEndedQueueException.class, empty::last);
+
+            assertEquals(1, metrics.getDeletions());
+            assertEquals(0, metrics.getGets());
+            assertEquals(1, metrics.getEmptyAccesses());
+            assertNull(list.getMetrics());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains methods for testing the deque of primitive ints:
+ *<h3>Empty deque</h3>
+ * - has size zero
+ * - deleting, accessing or removing throws an exception
+ *<h3>Deque with values</h3>
+ * - prepend and append keep the order of the values, also when the buffer wraps and grows
+ * - getting a value with an invalid index throws an exception
+ * - contains and remove work on the first occurrence
+ * - sorting sorts the values in ascending order
+ */
+class IntDoubleEndedQueueTest {
+    private IntDoubleEndedQueue createQueueOf(int ...args) {
+        IntDoubleEndedQueue deque = new IntDoubleEndedQueue(2);
+        for (int number : args) {
+            deque.append(number);
+        }
+        return deque;
+    }
+
+    private void assertContent(IntDoubleEndedQueue deque, int ...expected) {
+        assertEquals(expected.length, deque.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], deque.get(i));
+        }
+    }
+
+    @Nested
+    @DisplayName("On an empty int deque")
+    class EmptyIntDequeTest {
+        @DisplayName("the size is zero")
+        @Test
+        void hasSizeZero() {
+            assertEquals(0, createQueueOf().size());
+        }
+
+        @DisplayName("deleting, accessing or removing throws an exception")
+        @Test
+        void accessingAnEmptyDequeThrowsAnException() {
+            IntDoubleEndedQueue deque = createQueueOf();
+
+            assertThrows(DoubleEndedQueueException.class, deque::deleteFirst);
+            assertThrows(DoubleEndedQueueException.class, deque::deleteLast);
+            assertThrows(DoubleEndedQueueException.class, deque::first);
+            assertThrows(DoubleEndedQueueException.class, deque::last);
+            assertThrows(DoubleEndedQueueException.class, () -> deque.remove(1));
+            assertThrows(IndexOutOfBoundsException.class, () -> deque.get(0));
+        }
+    }
+
+    @Nested
+    @DisplayName("On an int deque with values")
+    class IntDequeWithValuesTest {
+        @DisplayName("prepend and append keep the order of the values when the buffer wraps and grows")
+        @Test
+        void prependAndAppendKeepTheOrder() {
+            IntDoubleEndedQueue deque = createQueueOf(3, 4);
+
+            deque.prepend(2);
+            deque.prepend(1);
+            deque.append(5);
+            deque.deleteFirst();
+            deque.deleteLast();
+
+            assertContent(deque, 2, 3, 4);
+            assertEquals(2, deque.first());
+            assertEquals(4, deque.last());
+        }
+
+        @DisplayName("getting a value with an invalid index throws an exception")
+        @Test
+        void getWithInvalidIndexThrowsAnException() {
+            IntDoubleEndedQueue deque = createQueueOf(1, 2);
+
+            assertThrows(IndexOutOfBoundsException.class, () -> deque.get(-1));
+            assertThrows(IndexOutOfBoundsException.class, () -> deque.get(2));
+        }
+
+        @DisplayName("contains and remove work on the first occurrence")
+        @Test
+        void removeDeletesTheFirstOccurrence() {
+            IntDoubleEndedQueue deque = createQueueOf(1, 2, 3, 2, 4);
+
+            deque.remove(2);
+            deque.remove(7);
+
+            assertContent(deque, 1, 3, 2, 4);
+            assertTrue(deque.contains(2));
+            assertFalse(deque.contains(7));
+        }
+
+        @DisplayName("sorting a wrapped deque sorts the values in ascending order")
+        @Test
+        void sortingSortsTheValues() {
+            IntDoubleEndedQueue deque = createQueueOf(5, -1, 9);
+            deque.prepend(7);
+            deque.prepend(0);
+
+            deque.sort();
+
+            assertContent(deque, -1, 0, 5, 7, 9);
+        }
+    }
+}
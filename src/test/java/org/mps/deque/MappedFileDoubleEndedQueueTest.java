@@ -0,0 +1,213 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class runs the behavioral suite of {@link DoublyLinkedListDequeTest} against the
+ * memory-mapped deque, every deque in a new directory and with segments of two slots so that
+ * every operation crosses segment boundaries, and adds the cases specific to the files:
+ *<h3>Persistence</h3>
+ * - a reopened deque holds the elements it held when closed
+ * - a reopened deque keeps the layout it was created with
+ * - consumed segments are recycled or deleted by the next checkpoint
+ * - the positions of the ends are only written to the header by a checkpoint
+ * - a directory can't be opened twice at the same time
+ * - a codec whose slots have another size is rejected
+ * - a closed deque throws an exception on any operation
+ */
+class MappedFileDoubleEndedQueueTest extends DoublyLinkedListDequeTest {
+    @TempDir
+    static Path directory;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    <E> DoubleEndedQueue<E> createDeque() {
+        try {
+            return new MappedFileDoubleEndedQueue<>(Files.createTempDirectory(directory, "deque"),
+                    (ElementCodec<E>) OffHeapDoubleEndedQueueTest.INTEGER_OR_STRING, 2);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long headInHeader(Path headerFile) throws IOException {
+        return (ByteBuffer.wrap(Files.readAllBytes(headerFile)).getLong(16));
+    }
+
+    private static long tailInHeader(Path headerFile) throws IOException {
+        return (ByteBuffer.wrap(Files.readAllBytes(headerFile)).getLong(24));
+    }
+
+    private static long countFiles(Path dequeDirectory) throws IOException {
+        try (Stream<Path> files = Files.list(dequeDirectory)) {
+            return (files.count());
+        }
+    }
+
+    @Nested
+    @DisplayName("On a memory-mapped deque")
+    class PersistenceTest {
+        private Path dequeDirectory;
+
+        @BeforeEach
+        void setup() throws IOException {
+            dequeDirectory = Files.createTempDirectory(directory, "persistent");
+        }
+
+        @DisplayName("a reopened deque holds the elements it held when closed")
+        @Test
+        void reopenedDequeHoldsTheElements() throws IOException {
+            try (MappedFileDoubleEndedQueue<String> deque = new MappedFileDoubleEndedQueue<>(dequeDirectory,
+                    ElementCodec.ofUtf8String(8), 2)) {
+                deque.append("b");
+                deque.append("c");
+                deque.append(null);
+                deque.prepend("a");
+                deque.prepend("z");
+                deque.deleteFirst();
+                deque.force();
+            }
+
+            try (MappedFileDoubleEndedQueue<String> deque = new MappedFileDoubleEndedQueue<>(dequeDirectory,
+                    ElementCodec.ofUtf8String(8), 2)) {
+                assertEquals(4, deque.size());
+                assertEquals("a", deque.first());
+                assertEquals("b", deque.get(1));
+                assertEquals("c", deque.get(2));
+                assertNull(deque.last());
+
+                deque.append("d");
+                assertEquals("d", deque.last());
+            }
+        }
+
+        @DisplayName("a reopened deque keeps the layout it was created with")
+        @Test
+        void reopenedDequeKeepsTheLayout() throws IOException {
+            try (MappedFileDoubleEndedQueue<Long> deque = new MappedFileDoubleEndedQueue<>(dequeDirectory,
+                    ElementCodec.ofLong(), 3)) {
+                for (long i = 0; i < 10; i++)
+                    deque.append(i);
+            }
+
+            try (MappedFileDoubleEndedQueue<Long> deque = new MappedFileDoubleEndedQueue<>(dequeDirectory,
+                    ElementCodec.ofLong(), 5)) {
+                assertEquals(10, deque.size());
+                for (int i = 0; i < 10; i++)
+                    assertEquals(i, deque.get(i));
+            }
+        }
+
+        @DisplayName("consumed segments are recycled or deleted by the next checkpoint")
+        @Test
+        void consumedSegmentsAreRecycledOrDeleted() throws IOException {
+            try (MappedFileDoubleEndedQueue<Long> deque = new MappedFileDoubleEndedQueue<>(dequeDirectory,
+                    ElementCodec.ofLong(), 2)) {
+                for (long i = 0; i < 10; i++)
+                    deque.append(i);
+                assertEquals(6, countFiles(dequeDirectory));
+
+                for (int i = 0; i < 9; i++)
+                    deque.deleteFirst();
+                assertEquals(6, countFiles(dequeDirectory));
+                deque.force();
+
+                assertEquals(3, countFiles(dequeDirectory));
+                assertTrue(Files.exists(dequeDirectory.resolve(MappedFileDoubleEndedQueue.SPARE_FILE)));
+                assertEquals(9L, deque.first());
+
+                deque.deleteFirst();
+                deque.append(10L);
+                assertTrue(Files.exists(dequeDirectory.resolve("4.segment")));
+                deque.force();
+
+                assertEquals(3, countFiles(dequeDirectory));
+                assertFalse(Files.exists(dequeDirectory.resolve("4.segment")));
+                assertEquals(10L, deque.first());
+            }
+
+            try (MappedFileDoubleEndedQueue<Long> deque = new MappedFileDoubleEndedQueue<>(dequeDirectory,
+                    ElementCodec.ofLong(), 2)) {
+                assertEquals(1, deque.size());
+                assertEquals(10L, deque.first());
+            }
+        }
+
+        @DisplayName("the positions of the ends are only written to the header by a checkpoint")
+        @Test
+        void theHeaderIsOnlyWrittenByACheckpoint() throws IOException {
+            Path headerFile = dequeDirectory.resolve(MappedFileDoubleEndedQueue.HEADER_FILE);
+            try (MappedFileDoubleEndedQueue<Long> deque = new MappedFileDoubleEndedQueue<>(dequeDirectory,
+                    ElementCodec.ofLong(), 2)) {
+                deque.append(1L);
+                deque.append(2L);
+                deque.force();
+                deque.append(3L);
+                deque.prepend(0L);
+
+                assertEquals(2, tailInHeader(headerFile) - headInHeader(headerFile));
+            }
+
+            assertEquals(-1, headInHeader(headerFile));
+            assertEquals(3, tailInHeader(headerFile));
+        }
+
+        @DisplayName("a directory can't be opened twice at the same time")
+        @Test
+        void directoryCannotBeOpenedTwice() throws IOException {
+            try (MappedFileDoubleEndedQueue<Long> deque = new MappedFileDoubleEndedQueue<>(dequeDirectory,
+                    ElementCodec.ofLong())) {
+                deque.append(1L);
+
+                assertThrows(IOException.class, () -> new MappedFileDoubleEndedQueue<>(dequeDirectory,
+                        ElementCodec.ofLong()));
+            }
+
+            try (MappedFileDoubleEndedQueue<Long> deque = new MappedFileDoubleEndedQueue<>(dequeDirectory,
+                    ElementCodec.ofLong())) {
+                assertEquals(1L, deque.first());
+            }
+        }
+
+        @DisplayName("a codec whose slots have another size is rejected")
+        @Test
+        void codecWithAnotherSlotSizeIsRejected() throws IOException {
+            try (MappedFileDoubleEndedQueue<Long> deque = new MappedFileDoubleEndedQueue<>(dequeDirectory,
+                    ElementCodec.ofLong())) {
+                deque.append(1L);
+            }
+
+            assertThrows(IllegalArgumentException.class, () -> new MappedFileDoubleEndedQueue<>(dequeDirectory,
+                    ElementCodec.ofUtf8String(64)));
+            try (MappedFileDoubleEndedQueue<Long> deque = new MappedFileDoubleEndedQueue<>(dequeDirectory,
+                    ElementCodec.ofLong())) {
+                assertEquals(1, deque.size());
+            }
+        }
+
+        @DisplayName("a closed deque throws an exception on any operation")
+        @Test
+        void closedDequeThrowsAnException() throws IOException {
+            MappedFileDoubleEndedQueue<Long> deque = new MappedFileDoubleEndedQueue<>(dequeDirectory,
+                    ElementCodec.ofLong());
+            deque.append(1L);
+
+            deque.close();
+
+            assertThrows(IllegalStateException.class, () -> deque.append(2L));
+            assertThrows(IllegalStateException.class, deque::first);
+            assertThrows(IllegalStateException.class, deque::force);
+            assertDoesNotThrow(deque::close);
+        }
+    }
+}
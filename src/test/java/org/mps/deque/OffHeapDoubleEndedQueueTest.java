@@ -0,0 +1,140 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class runs the behavioral suite of {@link DoublyLinkedListDequeTest} against the off-heap
+ * deque, using chunks of two slots so that every operation crosses chunk boundaries, and adds
+ * the cases specific to the off-heap storage:
+ *<h3>Off-heap storage</h3>
+ * - strings of different lengths are stored and read back
+ * - the string codec encodes every kind of character as UTF-8 does
+ * - an element whose encoding does not fit in a slot is rejected
+ * - a closed deque throws an exception on any operation
+ * - closing a deque twice has no effect
+ */
+class OffHeapDoubleEndedQueueTest extends DoublyLinkedListDequeTest {
+    /**
+     * Codec for the integers and strings used by the behavioral suite: a tag byte followed by
+     * the value.
+     */
+    static final ElementCodec<Object> INTEGER_OR_STRING = new ElementCodec<>() {
+        @Override
+        public int maxLength() { return 16; }
+
+        @Override
+        public int encodedLength(Object value) {
+            return 1 + (value instanceof Integer ? Integer.BYTES : ((String) value).getBytes(StandardCharsets.UTF_8).length);
+        }
+
+        @Override
+        public void encode(Object value, ByteBuffer buffer, int offset) {
+            if (value instanceof Integer) {
+                buffer.put(offset, (byte) 0);
+                buffer.putInt(offset + 1, (Integer) value);
+            } else {
+                buffer.put(offset, (byte) 1);
+                buffer.put(offset + 1, ((String) value).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        @Override
+        public Object decode(ByteBuffer buffer, int offset, int length) {
+            if (buffer.get(offset) == 0)
+                return buffer.getInt(offset + 1);
+            byte[] bytes = new byte[length - 1];
+            buffer.get(offset + 1, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    @Override
+    @SuppressWarnings("unchecked")
+    <E> DoubleEndedQueue<E> createDeque() {
+        return new OffHeapDoubleEndedQueue<>((ElementCodec<E>) INTEGER_OR_STRING, 2);
+    }
+
+    @Nested
+    @DisplayName("On an off-heap deque")
+    class OffHeapStorageTest {
+        @DisplayName("strings of different lengths are stored and read back")
+        @Test
+        void stringsAreStoredAndReadBack() {
+            try (OffHeapDoubleEndedQueue<String> deque = new OffHeapDoubleEndedQueue<>(ElementCodec.ofUtf8String(8), 2)) {
+                deque.append("deque");
+                deque.prepend("");
+                deque.append("ñandú");
+                deque.append(null);
+
+                assertEquals(4, deque.size());
+                assertEquals("", deque.first());
+                assertEquals("deque", deque.get(1));
+                assertEquals("ñandú", deque.get(2));
+                assertNull(deque.last());
+                assertTrue(deque.contains("ñandú"));
+            }
+        }
+
+        @DisplayName("the string codec encodes every kind of character as UTF-8 does")
+        @Test
+        void stringCodecEncodesAsUtf8() {
+            ElementCodec<String> codec = ElementCodec.ofUtf8String(64);
+            String[] values = {"", "deque", "ñandú", "€ 10", "a\uD83D\uDE00b", "\uD83D", "x\uDE00", "\uDBFF\uDFFF\uD800"};
+            ByteBuffer buffer = ByteBuffer.allocate(80);
+
+            for (String value : values) {
+                byte[] expected = value.getBytes(StandardCharsets.UTF_8);
+                int length = codec.encodedLength(value);
+                codec.encode(value, buffer, 16);
+
+                assertEquals(expected.length, length, value);
+                assertArrayEquals(expected, Arrays.copyOfRange(buffer.array(), 16, 16 + length), value);
+                assertEquals(new String(expected, StandardCharsets.UTF_8), codec.decode(buffer, 16, length));
+            }
+        }
+
+        @DisplayName("an element whose encoding does not fit in a slot is rejected")
+        @Test
+        void elementsThatDoNotFitAreRejected() {
+            try (OffHeapDoubleEndedQueue<String> deque = new OffHeapDoubleEndedQueue<>(ElementCodec.ofUtf8String(4))) {
+                deque.append("abcd");
+
+                assertThrows(IllegalArgumentException.class, () -> deque.append("abcde"));
+                assertThrows(IllegalArgumentException.class, () -> deque.prepend("abcde"));
+                assertEquals(1, deque.size());
+                assertEquals("abcd", deque.last());
+            }
+        }
+
+        @DisplayName("a closed deque throws an exception on any operation")
+        @Test
+        void closedDequeThrowsAnException() {
+            OffHeapDoubleEndedQueue<Long> deque = new OffHeapDoubleEndedQueue<>(ElementCodec.ofLong());
+            deque.append(1L);
+
+            deque.close();
+
+            assertEquals(0, deque.size());
+            assertThrows(IllegalStateException.class, () -> deque.append(2L));
+            assertThrows(IllegalStateException.class, deque::first);
+            assertThrows(IllegalStateException.class, () -> deque.get(0));
+        }
+
+        @DisplayName("closing a deque twice has no effect")
+        @Test
+        void closingTwiceHasNoEffect() {
+            OffHeapDoubleEndedQueue<Long> deque = new OffHeapDoubleEndedQueue<>(ElementCodec.ofLong());
+            deque.append(1L);
+
+            deque.close();
+
+            assertDoesNotThrow(deque::close);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class runs the behavioral suite of {@link DoublyLinkedListDequeTest} against a deque with
+ * node pooling enabled and adds the cases specific to the pool:
+ *<h3>Node pool</h3>
+ * - nodes unlinked from any end or by remove are reused
+ * - the pool does not keep more nodes than its capacity
+ * - a deque without pool always allocates
+ * - a negative capacity is rejected
+ */
+class PooledDoublyLinkedListDequeTest extends DoublyLinkedListDequeTest {
+    @Override
+    <E> DoubleEndedQueue<E> createDeque() {
+        return new DoublyLinkedListDeque<>(4);
+    }
+
+    @Nested
+    @DisplayName("On a deque with node pooling")
+    class NodePoolTest {
+        @DisplayName("nodes unlinked from any end or by remove are reused")
+        @Test
+        void unlinkedNodesAreReused() {
+            DoublyLinkedListDeque<Integer> deque = new DoublyLinkedListDeque<>(4);
+            deque.append(1);
+            deque.append(2);
+            deque.append(3);
+
+            deque.deleteFirst();
+            deque.deleteLast();
+            deque.remove(2);
+            deque.append(4);
+            deque.prepend(5);
+            deque.append(6);
+
+            assertEquals(3, deque.getNodePoolMisses());
+            assertEquals(3, deque.getNodePoolHits());
+            assertEquals(5, deque.first());
+            assertEquals(4, deque.get(1));
+            assertEquals(6, deque.last());
+        }
+
+        @DisplayName("a steady append and delete cycle stops allocating")
+        @Test
+        void steadyCycleStopsAllocating() {
+            DoublyLinkedListDeque<Integer> deque = new DoublyLinkedListDeque<>(4);
+            deque.append(0);
+
+            for (int i = 1; i <= 1000; i++) {
+                deque.append(i);
+                deque.deleteFirst();
+            }
+
+            assertEquals(2, deque.getNodePoolMisses());
+            assertEquals(999, deque.getNodePoolHits());
+            assertEquals(1000, deque.first());
+        }
+
+        @DisplayName("the pool does not keep more nodes than its capacity")
+        @Test
+        void poolIsBounded() {
+            DoublyLinkedListDeque<Integer> deque = new DoublyLinkedListDeque<>(2);
+            for (int i = 0; i < 5; i++) {
+                deque.append(i);
+            }
+            for (int i = 0; i < 5; i++) {
+                deque.deleteLast();
+            }
+
+            for (int i = 0; i < 5; i++) {
+                deque.prepend(i);
+            }
+
+            assertEquals(2, deque.getNodePoolHits());
+            assertEquals(8, deque.getNodePoolMisses());
+        }
+
+        @DisplayName("a deque without pool always allocates")
+        @Test
+        void dequeWithoutPoolAlwaysAllocates() {
+            DoublyLinkedListDeque<Integer> deque = new DoublyLinkedListDeque<>();
+            deque.append(1);
+            deque.deleteFirst();
+            deque.append(2);
+
+            assertEquals(0, deque.getNodePoolHits());
+            assertEquals(2, deque.getNodePoolMisses());
+        }
+
+        @DisplayName("a negative capacity is rejected")
+        @Test
+        void negativeCapacityThrowsAnException() {
+            assertThrows(IllegalArgumentException.class, () -> new DoublyLinkedListDeque<Integer>(-1));
+        }
+    }
+}
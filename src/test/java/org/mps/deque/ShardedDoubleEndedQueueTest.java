@@ -0,0 +1,172 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class runs the behavioral suite of {@link DoublyLinkedListDequeTest} against the sharded
+ * deque, which behaves as a strict deque when a single thread uses it, and adds the cases
+ * specific to the shards:
+ *<h3>Sharded storage</h3>
+ * - the number of shards is rounded up to a power of two and an invalid number is rejected
+ * - elements inserted by another thread are stolen when the home shard is empty
+ * - sorting gathers the elements of every shard
+ * - draining takes elements from every shard
+ *<h3>Concurrent access</h3>
+ * - every element appended by concurrent producers is deleted once by concurrent consumers
+ * - the size matches the successful insertions minus the successful deletions at both ends
+ */
+class ShardedDoubleEndedQueueTest extends DoublyLinkedListDequeTest {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 20_000;
+
+    @Override
+    <E> DoubleEndedQueue<E> createDeque() {
+        return new ShardedDoubleEndedQueue<>(4);
+    }
+
+    @Override
+    boolean hasFailFastIterators() {
+        return false;
+    }
+
+    private static ShardedDoubleEndedQueue<Integer> filledByThreads(int threads, int perThread)
+            throws InterruptedException {
+        ShardedDoubleEndedQueue<Integer> deque = new ShardedDoubleEndedQueue<>(threads);
+        ConcurrentDoublyLinkedDequeTest.runConcurrently(threads, thread -> {
+            for (int i = 0; i < perThread; i++)
+                deque.append(i * threads + thread);
+        });
+        return deque;
+    }
+
+    @Nested
+    @DisplayName("On a sharded deque")
+    class ShardedStorageTest {
+        @DisplayName("the number of shards is rounded up to a power of two and an invalid number is rejected")
+        @Test
+        void shardCountIsRoundedUp() {
+            assertEquals(1, new ShardedDoubleEndedQueue<Integer>(1).getShardCount());
+            assertEquals(8, new ShardedDoubleEndedQueue<Integer>(5).getShardCount());
+            assertThrows(IllegalArgumentException.class, () -> new ShardedDoubleEndedQueue<Integer>(0));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new ShardedDoubleEndedQueue<Integer>(ShardedDoubleEndedQueue.MAX_SHARDS + 1));
+        }
+
+        @DisplayName("elements inserted by another thread are stolen when the home shard is empty")
+        @Test
+        void elementsOfOtherShardsAreStolen() throws InterruptedException {
+            ShardedDoubleEndedQueue<Integer> deque = filledByThreads(4, 100);
+            BitSet seen = new BitSet();
+
+            while (deque.size() > 0) {
+                int first = deque.first();
+                assertEquals(first, deque.pollFirst());
+                seen.set(first);
+            }
+
+            assertEquals(400, seen.cardinality());
+            assertThrows(DoubleEndedQueueException.class, deque::first);
+            assertThrows(DoubleEndedQueueException.class, deque::deleteLast);
+        }
+
+        @DisplayName("sorting gathers the elements of every shard")
+        @Test
+        void sortingGathersEveryShard() throws InterruptedException {
+            ShardedDoubleEndedQueue<Integer> deque = filledByThreads(4, 50);
+
+            deque.sort(Comparator.reverseOrder());
+
+            assertEquals(200, deque.size());
+            assertEquals(199, deque.first());
+            assertEquals(0, deque.last());
+            for (int i = 0; i < 200; i++)
+                assertEquals(199 - i, deque.get(i));
+        }
+
+        @DisplayName("draining takes elements from every shard")
+        @Test
+        void drainingTakesFromEveryShard() throws InterruptedException {
+            ShardedDoubleEndedQueue<Integer> deque = filledByThreads(4, 50);
+            List<Integer> drained = new ArrayList<>();
+
+            assertEquals(120, deque.drainFirst(120, drained::add));
+            assertEquals(80, deque.drainFirst(100, drained::add));
+
+            assertEquals(0, deque.size());
+            assertEquals(200, drained.stream().distinct().count());
+        }
+    }
+
+    @Nested
+    @DisplayName("On concurrent access")
+    class ConcurrentAccessTest {
+        @DisplayName("every element appended by concurrent producers is deleted once by concurrent consumers")
+        @Test
+        void everyElementIsDeletedOnce() throws InterruptedException {
+            ShardedDoubleEndedQueue<Integer> deque = new ShardedDoubleEndedQueue<>(4);
+            BitSet deleted = new BitSet();
+            AtomicInteger consumed = new AtomicInteger();
+
+            ConcurrentDoublyLinkedDequeTest.runConcurrently(THREADS, thread -> {
+                if (thread % 2 == 0) {
+                    for (int i = 0; i < OPERATIONS; i++)
+                        deque.append(i * THREADS + thread);
+                } else {
+                    List<Integer> taken = new ArrayList<>();
+                    while (consumed.get() < OPERATIONS * THREADS / 2) {
+                        Integer item = thread % 4 == 1 ? deque.pollFirst() : deque.pollLast();
+                        if (item != null) {
+                            taken.add(item);
+                            consumed.incrementAndGet();
+                        }
+                    }
+                    synchronized (deleted) {
+                        for (int item : taken) {
+                            assertFalse(deleted.get(item), "Deleted twice: " + item);
+                            deleted.set(item);
+                        }
+                    }
+                }
+            });
+
+            assertEquals(OPERATIONS * THREADS / 2, deleted.cardinality());
+            assertEquals(0, deque.size());
+            assertNull(deque.pollFirst());
+        }
+
+        @DisplayName("the size matches the successful insertions minus the successful deletions at both ends")
+        @Test
+        void sizeMatchesTheOperations() throws InterruptedException {
+            ShardedDoubleEndedQueue<Integer> deque = new ShardedDoubleEndedQueue<>(4);
+            AtomicInteger expectedSize = new AtomicInteger();
+
+            ConcurrentDoublyLinkedDequeTest.runConcurrently(THREADS, thread -> {
+                for (int i = 0; i < OPERATIONS; i++) {
+                    switch (i % 4) {
+                        case 0 -> deque.append(i);
+                        case 1 -> deque.prepend(i);
+                        default -> {
+                            if ((i % 4 == 2 ? deque.pollFirst() : deque.pollLast()) == null)
+                                continue;
+                        }
+                    }
+                    expectedSize.addAndGet(i % 4 < 2 ? 1 : -1);
+                }
+            });
+
+            assertEquals(expectedSize.get(), deque.size());
+            int counted = 0;
+            for (Integer ignored : deque)
+                counted++;
+            assertEquals(expectedSize.get(), counted);
+        }
+    }
+}
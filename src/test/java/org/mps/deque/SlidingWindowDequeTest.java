@@ -0,0 +1,223 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class runs the behavioral suite of {@link DoublyLinkedListDequeTest} against a sliding
+ * window without limits, which behaves as a linked list, and adds the cases specific to the
+ * eviction:
+ *<h3>Sliding window</h3>
+ * - a size limit evicts the front elements on every insertion
+ * - an age limit evicts the elements older than the newest one by more than the maximum age
+ * - advancing the time evicts the expired elements without inserting
+ * - a weight limit evicts the front elements until the total weight fits
+ * - the deletions keep the total weight up to date
+ * - splicing the window into a plain deque resets its total weight
+ * - bulk insertions evict once after inserting every element
+ * - the listener is told about every evicted element with its cause, in order
+ * - setting a lower limit evicts at once
+ * - invalid limits and negative weights are rejected
+ */
+class SlidingWindowDequeTest extends DoublyLinkedListDequeTest {
+    @Override
+    <E> DoubleEndedQueue<E> createDeque() {
+        return new SlidingWindowDeque<>();
+    }
+
+    @Nested
+    @DisplayName("On a sliding window")
+    class SlidingWindowTest {
+        private SlidingWindowDeque<Integer> window;
+        private List<String> evictions;
+
+        @BeforeEach
+        void setup() {
+            window = new SlidingWindowDeque<>();
+            evictions = new ArrayList<>();
+            window.setEvictionListener((item, cause) -> evictions.add(item + " " + cause));
+        }
+
+        @DisplayName("a size limit evicts the front elements on every insertion")
+        @Test
+        void sizeLimitEvictsTheFront() {
+            window.setMaxSize(3);
+
+            for (int i = 0; i < 5; i++)
+                window.append(i);
+
+            assertEquals(3, window.size());
+            assertIterableEquals(Arrays.asList(2, 3, 4), window);
+            assertEquals(Arrays.asList("0 SIZE", "1 SIZE"), evictions);
+            assertEquals(3, window.getMaxSize());
+        }
+
+        @DisplayName("an age limit evicts the elements older than the newest one by more than the maximum age")
+        @Test
+        void ageLimitEvictsOldElements() {
+            window.setMaxAge(10, Integer::longValue);
+
+            window.appendAll(Arrays.asList(0, 5, 10));
+            assertEquals(3, window.size());
+            window.append(12);
+            window.append(21);
+
+            assertIterableEquals(Arrays.asList(12, 21), window);
+            assertEquals(Arrays.asList("0 AGE", "5 AGE", "10 AGE"), evictions);
+        }
+
+        @DisplayName("advancing the time evicts the expired elements without inserting")
+        @Test
+        void advancingTheTimeEvicts() {
+            window.setMaxAge(10, Integer::longValue);
+            window.appendAll(Arrays.asList(0, 5, 10));
+
+            window.evictExpired(16);
+            assertIterableEquals(Arrays.asList(10), window);
+            window.evictExpired(3);
+            assertEquals(1, window.size());
+            window.evictExpired(21);
+
+            assertEquals(0, window.size());
+            assertEquals(Arrays.asList("0 AGE", "5 AGE", "10 AGE"), evictions);
+            assertThrows(IllegalStateException.class, () -> new SlidingWindowDeque<Integer>().evictExpired(0));
+        }
+
+        @DisplayName("a weight limit evicts the front elements until the total weight fits")
+        @Test
+        void weightLimitEvictsUntilItFits() {
+            window.setMaxWeight(10, Integer::longValue);
+
+            window.append(4);
+            window.append(5);
+            assertEquals(9, window.getTotalWeight());
+            window.append(3);
+
+            assertIterableEquals(Arrays.asList(5, 3), window);
+            assertEquals(8, window.getTotalWeight());
+            window.append(20);
+
+            assertEquals(0, window.size());
+            assertEquals(0, window.getTotalWeight());
+            assertEquals(Arrays.asList("4 WEIGHT", "5 WEIGHT", "3 WEIGHT", "20 WEIGHT"), evictions);
+        }
+
+        @DisplayName("the deletions keep the total weight up to date")
+        @Test
+        void deletionsKeepTheTotalWeight() {
+            window.setMaxWeight(100, Integer::longValue);
+            window.appendAll(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8));
+
+            window.deleteFirst();
+            window.deleteLast();
+            assertEquals(27, window.getTotalWeight());
+            window.remove(4);
+            assertEquals(23, window.getTotalWeight());
+            window.removeIf(item -> item % 2 == 0);
+            assertEquals(15, window.getTotalWeight());
+            assertEquals(3, window.pollFirst());
+            assertEquals(12, window.getTotalWeight());
+            window.splitAt(1);
+            assertEquals(5, window.getTotalWeight());
+            window.drainFirst(1, item -> { });
+
+            assertEquals(0, window.size());
+            assertEquals(0, window.getTotalWeight());
+        }
+
+        @DisplayName("splicing the window into a plain deque resets its total weight")
+        @Test
+        void splicingIntoAPlainDequeResetsTheWeight() {
+            window.setMaxWeight(100, Integer::longValue);
+            window.appendAll(Arrays.asList(30, 40));
+            DoublyLinkedListDeque<Integer> plain = new DoublyLinkedListDeque<>();
+
+            plain.appendDeque(window);
+            assertEquals(0, window.size());
+            assertEquals(0, window.getTotalWeight());
+            window.append(50);
+            plain.prependDeque(window);
+
+            assertEquals(0, window.getTotalWeight());
+            assertIterableEquals(Arrays.asList(50, 30, 40), plain);
+            assertTrue(evictions.isEmpty());
+        }
+
+        @DisplayName("bulk insertions evict once after inserting every element")
+        @Test
+        void bulkInsertionsEvictOnce() {
+            window.setMaxSize(2);
+            window.append(0);
+
+            window.appendAll(Arrays.asList(1, 2, 3));
+            assertIterableEquals(Arrays.asList(2, 3), window);
+            window.prependAll(Arrays.asList(4, 5));
+            assertIterableEquals(Arrays.asList(2, 3), window);
+            DoublyLinkedListDeque<Integer> other = new DoublyLinkedListDeque<>();
+            other.appendAll(Arrays.asList(6, 7, 8));
+            window.appendDeque(other);
+
+            assertIterableEquals(Arrays.asList(7, 8), window);
+            assertEquals(0, other.size());
+            assertEquals(Arrays.asList("0 SIZE", "1 SIZE", "4 SIZE", "5 SIZE", "2 SIZE", "3 SIZE", "6 SIZE"),
+                    evictions);
+        }
+
+        @DisplayName("the listener is told about every evicted element with its cause, in order")
+        @Test
+        void listenerIsToldEveryEviction() {
+            window.setMaxSize(3);
+            window.setMaxWeight(20, item -> item < 100 ? item : 1);
+            window.setMaxAge(100, Integer::longValue);
+            window.appendAll(Arrays.asList(1, 2, 3));
+
+            window.append(4);
+            window.append(15);
+            window.append(200);
+
+            assertEquals(Arrays.asList("1 SIZE", "2 SIZE", "3 WEIGHT", "4 AGE", "15 AGE"), evictions);
+            assertIterableEquals(List.of(200), window);
+            window.setEvictionListener(null);
+            window.appendAll(Arrays.asList(201, 202, 203));
+            assertIterableEquals(Arrays.asList(201, 202, 203), window);
+            assertEquals(5, evictions.size());
+        }
+
+        @DisplayName("setting a lower limit evicts at once")
+        @Test
+        void lowerLimitEvictsAtOnce() {
+            window.appendAll(Arrays.asList(1, 2, 3, 4, 5));
+
+            window.setMaxSize(4);
+            assertEquals(4, window.size());
+            window.setMaxWeight(9, Integer::longValue);
+            assertIterableEquals(Arrays.asList(4, 5), window);
+            window.setMaxAge(0, Integer::longValue);
+
+            assertIterableEquals(Arrays.asList(5), window);
+            assertEquals(Arrays.asList("1 SIZE", "2 WEIGHT", "3 WEIGHT", "4 AGE"), evictions);
+        }
+
+        @DisplayName("invalid limits and negative weights are rejected")
+        @Test
+        void invalidLimitsAreRejected() {
+            window.append(-1);
+
+            assertThrows(IllegalArgumentException.class, () -> new SlidingWindowDeque<Integer>(-1));
+            assertThrows(IllegalArgumentException.class, () -> window.setMaxSize(-1));
+            assertThrows(IllegalArgumentException.class, () -> window.setMaxWeight(-1, Integer::longValue));
+            assertThrows(IllegalArgumentException.class, () -> window.setMaxAge(-1, Integer::longValue));
+            assertThrows(IllegalArgumentException.class, () -> window.setMaxWeight(10, Integer::longValue));
+            assertEquals(Long.MAX_VALUE, window.getMaxWeight());
+            window.deleteFirst();
+            window.setMaxWeight(10, Integer::longValue);
+            assertThrows(IllegalArgumentException.class, () -> window.append(-2));
+            assertEquals(0, window.size());
+        }
+    }
+}
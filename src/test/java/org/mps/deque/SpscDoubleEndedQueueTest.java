@@ -0,0 +1,238 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests the single-producer single-consumer deque, which only supports appending and
+ * deleting at the front and so does not run the behavioral suite of
+ * {@link DoublyLinkedListDequeTest}:
+ *<h3>Producer and consumer operations</h3>
+ * - an empty deque has size zero and throws an exception on deletions and accessors
+ * - the elements are deleted in insertion order
+ * - a full deque rejects insertions until an element is deleted
+ * - the indexes keep working after wrapping around the array many times
+ * - null elements are stored and returned
+ * - bulk insertions are all-or-nothing and draining deletes from the front
+ * - the elements are accessed by index from the front and iterated in both directions
+ * - the operations that don't fit a single producer and consumer throw an exception
+ * - an invalid capacity is rejected
+ *<h3>Concurrent producer and consumer</h3>
+ * - the consumer receives every element of the producer in order
+ * - batches appended by the producer are drained in order
+ */
+class SpscDoubleEndedQueueTest {
+    private static final int TRANSFERS = 1_000_000;
+
+    @Nested
+    @DisplayName("On the producer and consumer operations")
+    class ProducerAndConsumerTest {
+        private SpscDoubleEndedQueue<Integer> deque;
+
+        @BeforeEach
+        void setup() {
+            deque = new SpscDoubleEndedQueue<>(3);
+        }
+
+        @DisplayName("an empty deque has size zero and throws an exception on deletions and accessors")
+        @Test
+        void emptyDequeThrowsAnException() {
+            assertEquals(0, deque.size());
+            assertThrows(DoubleEndedQueueException.class, deque::first);
+            assertThrows(DoubleEndedQueueException.class, deque::last);
+            assertThrows(DoubleEndedQueueException.class, deque::deleteFirst);
+            assertNull(deque.pollFirst());
+            assertNull(deque.peekFirst());
+            assertNull(deque.peekLast());
+            assertEquals(0, deque.size());
+        }
+
+        @DisplayName("the elements are deleted in insertion order")
+        @Test
+        void elementsAreDeletedInOrder() {
+            deque.append(1);
+            deque.append(2);
+            deque.append(3);
+
+            assertEquals(1, deque.first());
+            assertEquals(3, deque.last());
+            assertEquals(1, deque.pollFirst());
+            deque.deleteFirst();
+            assertEquals(1, deque.size());
+            assertEquals(3, deque.peekFirst());
+            assertEquals(3, deque.peekLast());
+        }
+
+        @DisplayName("a full deque rejects insertions until an element is deleted")
+        @Test
+        void fullDequeRejectsInsertions() {
+            assertEquals(4, deque.getCapacity());
+            for (int i = 0; i < 4; i++)
+                assertTrue(deque.offerLast(i));
+
+            assertFalse(deque.offerLast(4));
+            assertThrows(DoubleEndedQueueException.class, () -> deque.append(4));
+            deque.deleteFirst();
+            assertTrue(deque.offerLast(4));
+            assertEquals(4, deque.size());
+            assertEquals(1, deque.first());
+            assertEquals(4, deque.last());
+        }
+
+        @DisplayName("the indexes keep working after wrapping around the array many times")
+        @Test
+        void indexesWrapAround() {
+            for (int i = 0; i < 1000; i++) {
+                deque.append(i);
+                deque.append(i + 1);
+                assertEquals(i, deque.pollFirst());
+                assertEquals(i + 1, deque.pollFirst());
+            }
+
+            assertEquals(0, deque.size());
+            assertNull(deque.pollFirst());
+        }
+
+        @DisplayName("null elements are stored and returned")
+        @Test
+        void nullElementsAreStored() {
+            deque.append(null);
+            deque.append(1);
+
+            assertTrue(deque.contains(null));
+            assertNull(deque.first());
+            deque.deleteFirst();
+            assertEquals(1, deque.size());
+            assertFalse(deque.contains(null));
+        }
+
+        @DisplayName("bulk insertions are all-or-nothing and draining deletes from the front")
+        @Test
+        void bulkInsertionsAndDraining() {
+            deque.appendAll(Arrays.asList(1, 2, 3));
+            assertThrows(DoubleEndedQueueException.class, () -> deque.appendAll(Arrays.asList(4, 5)));
+            assertEquals(3, deque.size());
+            List<Integer> drained = new ArrayList<>();
+
+            assertEquals(2, deque.drainFirst(2, drained::add));
+            deque.appendAll(Arrays.asList(4, 5));
+            assertEquals(3, deque.drainFirst(10, drained::add));
+
+            assertEquals(Arrays.asList(1, 2, 3, 4, 5), drained);
+            assertEquals(0, deque.size());
+            assertThrows(IllegalArgumentException.class, () -> deque.drainFirst(-1, drained::add));
+        }
+
+        @DisplayName("the elements are accessed by index from the front and iterated in both directions")
+        @Test
+        void elementsAreAccessedAndIterated() {
+            deque.append(0);
+            deque.deleteFirst();
+            deque.appendAll(Arrays.asList(1, 2, 3, 4));
+
+            assertEquals(1, deque.get(0));
+            assertEquals(4, deque.get(3));
+            assertThrows(IndexOutOfBoundsException.class, () -> deque.get(4));
+            assertThrows(IndexOutOfBoundsException.class, () -> deque.get(-1));
+            assertTrue(deque.contains(3));
+            assertFalse(deque.contains(0));
+            assertIterableEquals(Arrays.asList(1, 2, 3, 4), deque);
+            List<Integer> descending = new ArrayList<>();
+            deque.descendingIterator().forEachRemaining(descending::add);
+            assertEquals(Arrays.asList(4, 3, 2, 1), descending);
+            assertEquals(10, deque.stream().mapToInt(Integer::intValue).sum());
+        }
+
+        @DisplayName("the operations that don't fit a single producer and consumer throw an exception")
+        @Test
+        void unsupportedOperationsThrowAnException() {
+            deque.append(1);
+
+            assertThrows(UnsupportedOperationException.class, () -> deque.prepend(2));
+            assertThrows(UnsupportedOperationException.class, () -> deque.prependAll(List.of(2)));
+            assertThrows(UnsupportedOperationException.class, deque::deleteLast);
+            assertThrows(UnsupportedOperationException.class, deque::pollLast);
+            assertThrows(UnsupportedOperationException.class, () -> deque.remove(1));
+            assertThrows(UnsupportedOperationException.class, () -> deque.sort(Integer::compare));
+            assertThrows(UnsupportedOperationException.class, () -> deque.removeIf(item -> true));
+            assertThrows(UnsupportedOperationException.class, () -> deque.removeAll(List.of(1)));
+            assertEquals(1, deque.size());
+        }
+
+        @DisplayName("an invalid capacity is rejected")
+        @Test
+        void invalidCapacityIsRejected() {
+            assertThrows(IllegalArgumentException.class, () -> new SpscDoubleEndedQueue<Integer>(0));
+            assertThrows(IllegalArgumentException.class, () -> new SpscDoubleEndedQueue<Integer>(Integer.MAX_VALUE));
+        }
+    }
+
+    @Nested
+    @DisplayName("On a concurrent producer and consumer")
+    class ConcurrentTransferTest {
+        private SpscDoubleEndedQueue<Integer> deque;
+
+        @BeforeEach
+        void setup() {
+            deque = new SpscDoubleEndedQueue<>(64);
+        }
+
+        @DisplayName("the consumer receives every element of the producer in order")
+        @Test
+        void consumerReceivesEveryElementInOrder() throws InterruptedException {
+            ConcurrentDoublyLinkedDequeTest.runConcurrently(2, thread -> {
+                if (thread == 0) {
+                    for (int i = 0; i < TRANSFERS; i++)
+                        while (!deque.offerLast(i))
+                            Thread.yield();
+                } else {
+                    for (int expected = 0; expected < TRANSFERS; ) {
+                        Integer item = deque.pollFirst();
+                        if (item == null) {
+                            Thread.yield();
+                        } else {
+                            assertEquals(expected++, item);
+                        }
+                    }
+                }
+            });
+
+            assertEquals(0, deque.size());
+        }
+
+        @DisplayName("batches appended by the producer are drained in order")
+        @Test
+        void batchesAreDrainedInOrder() throws InterruptedException {
+            ConcurrentDoublyLinkedDequeTest.runConcurrently(2, thread -> {
+                if (thread == 0) {
+                    for (int i = 0; i < TRANSFERS; i += 8) {
+                        List<Integer> batch = new ArrayList<>();
+                        for (int j = i; j < i + 8; j++)
+                            batch.add(j);
+                        while (true) {
+                            try {
+                                deque.appendAll(batch);
+                                break;
+                            } catch (DoubleEndedQueueException e) {
+                                Thread.yield();
+                            }
+                        }
+                    }
+                } else {
+                    int[] expected = {0};
+                    while (expected[0] < TRANSFERS) {
+                        if (deque.drainFirst(32, item -> assertEquals(expected[0]++, item)) == 0)
+                            Thread.yield();
+                    }
+                }
+            });
+
+            assertEquals(0, deque.size());
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class contains methods for testing the unrolled deque. Segments of capacity three are
+ * used so that every operation crosses segment boundaries:
+ *<h3>Empty deque</h3>
+ * - has size zero
+ * - deleting, accessing or removing throws an exception
+ * - getting any element throws an exception
+ *<h3>Deque spanning several segments</h3>
+ * - prepend and append keep the order of the elements
+ * - getting an element works from both ends
+ * - deleting from both ends empties the deque
+ * - contains finds elements and nulls in any segment
+ * - remove deletes only the first occurrence
+ * - iterating crosses the segments in both directions
+ *<h3>Sorting</h3>
+ * - sorting keeps the nulls first and is stable
+ */
+class UnrolledDoubleEndedQueueTest {
+    private UnrolledDoubleEndedQueue<Integer> createQueueOf(Integer ...args) {
+        UnrolledDoubleEndedQueue<Integer> deque = new UnrolledDoubleEndedQueue<>(3);
+        for (Integer number : args) {
+            deque.append(number);
+        }
+        return deque;
+    }
+
+    private void assertContent(DoubleEndedQueue<?> deque, Object ...expected) {
+        assertEquals(expected.length, deque.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], deque.get(i));
+        }
+    }
+
+    @Nested
+    @DisplayName("On an empty unrolled deque")
+    class EmptyUnrolledDequeTest {
+        UnrolledDoubleEndedQueue<Integer> emptyDeque;
+
+        @BeforeEach
+        void setUp() {
+            emptyDeque = createQueueOf();
+        }
+
+        @DisplayName("the size is zero")
+        @Test
+        void hasSizeZero() {
+            assertEquals(0, emptyDeque.size());
+        }
+
+        @DisplayName("deleting, accessing or removing throws an exception")
+        @Test
+        void accessingAnEmptyDequeThrowsAnException() {
+            assertThrows(DoubleEndedQueueException.class, emptyDeque::deleteFirst);
+            assertThrows(DoubleEndedQueueException.class, emptyDeque::deleteLast);
+            assertThrows(DoubleEndedQueueException.class, emptyDeque::first);
+            assertThrows(DoubleEndedQueueException.class, emptyDeque::last);
+            assertThrows(DoubleEndedQueueException.class, () -> emptyDeque.remove(1));
+        }
+
+        @DisplayName("getting any element throws an exception")
+        @Test
+        void getOnEmptyDequeThrowsAnException() {
+            assertThrows(IndexOutOfBoundsException.class, () -> emptyDeque.get(0));
+        }
+
+        @DisplayName("a segment capacity lower than one is rejected")
+        @Test
+        void nonPositiveCapacityThrowsAnException() {
+            assertThrows(IllegalArgumentException.class, () -> new UnrolledDoubleEndedQueue<Integer>(0));
+        }
+    }
+
+    @Nested
+    @DisplayName("On an unrolled deque spanning several segments")
+    class SeveralSegmentsUnrolledDequeTest {
+        UnrolledDoubleEndedQueue<Integer> deque;
+
+        @BeforeEach
+        void setUp() {
+            deque = createQueueOf(3, 4, 5, 6, 7);
+        }
+
+        @DisplayName("prepend and append keep the order of the elements")
+        @Test
+        void prependAndAppendKeepTheOrder() {
+            deque.prepend(2);
+            deque.prepend(1);
+            deque.prepend(0);
+            deque.append(8);
+
+            assertContent(deque, 0, 1, 2, 3, 4, 5, 6, 7, 8);
+            assertEquals(0, deque.first());
+            assertEquals(8, deque.last());
+        }
+
+        @DisplayName("getting an element with an invalid index throws an exception")
+        @Test
+        void getWithInvalidIndexThrowsAnException() {
+            assertThrows(IndexOutOfBoundsException.class, () -> deque.get(-1));
+            assertThrows(IndexOutOfBoundsException.class, () -> deque.get(5));
+        }
+
+        @DisplayName("deleting from both ends empties the deque")
+        @Test
+        void deletingFromBothEndsEmptiesTheDeque() {
+            deque.deleteFirst();
+            deque.deleteLast();
+            assertContent(deque, 4, 5, 6);
+
+            deque.deleteFirst();
+            deque.deleteFirst();
+            deque.deleteLast();
+
+            assertEquals(0, deque.size());
+            assertThrows(DoubleEndedQueueException.class, deque::first);
+            assertThrows(DoubleEndedQueueException.class, deque::last);
+        }
+
+        @DisplayName("contains finds elements and nulls in any segment")
+        @Test
+        void containsFindsElementsInAnySegment() {
+            assertTrue(deque.contains(3));
+            assertTrue(deque.contains(7));
+            assertFalse(deque.contains(8));
+            assertFalse(deque.contains(null));
+
+            deque.append(null);
+
+            assertTrue(deque.contains(null));
+        }
+
+        @DisplayName("remove deletes only the first occurrence")
+        @Test
+        void removeDeletesTheFirstOccurrence() {
+            deque.append(5);
+
+            deque.remove(5);
+
+            assertContent(deque, 3, 4, 6, 7, 5);
+        }
+
+        @DisplayName("iterating crosses the segments in both directions")
+        @Test
+        void iteratingCrossesTheSegments() {
+            deque.prepend(2);
+            deque.append(8);
+
+            assertIterableEquals(Arrays.asList(2, 3, 4, 5, 6, 7, 8), deque);
+            Iterator<Integer> descendingIterator = deque.descendingIterator();
+            for (int i = 8; i >= 2; i--) {
+                assertEquals(i, descendingIterator.next());
+            }
+            assertFalse(descendingIterator.hasNext());
+        }
+
+        @DisplayName("removing every element of a segment keeps the deque consistent")
+        @Test
+        void removingAWholeSegmentKeepsTheDequeConsistent() {
+            deque.remove(3);
+            deque.remove(4);
+            deque.remove(5);
+            deque.remove(1);
+
+            assertContent(deque, 6, 7);
+            deque.prepend(5);
+            assertContent(deque, 5, 6, 7);
+        }
+    }
+
+    @Nested
+    @DisplayName("On sorting an unrolled deque")
+    class SortUnrolledDequeTest {
+        @DisplayName("sorting an unsorted deque with nulls puts the nulls first")
+        @Test
+        void sortingPutsTheNullsFirst() {
+            UnrolledDoubleEndedQueue<Integer> deque = createQueueOf(9, 3, null, 7, 1, 8, 0, null, 2, 6, 5, 4);
+
+            deque.sort(Integer::compareTo);
+
+            assertContent(deque, null, null, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+            assertEquals(9, deque.last());
+        }
+
+        @DisplayName("sorting keeps equal elements in their original order")
+        @Test
+        void sortingIsStable() {
+            UnrolledDoubleEndedQueue<String> deque = new UnrolledDoubleEndedQueue<>(2);
+            List<String> values = Arrays.asList("b1", "a1", "b2", "a2", "a3", "b3", "a4");
+            for (String value : values) {
+                deque.append(value);
+            }
+
+            deque.sort((x, y) -> Character.compare(x.charAt(0), y.charAt(0)));
+
+            assertContent(deque, "a1", "a2", "a3", "a4", "b1", "b2", "b3");
+        }
+
+        @DisplayName("the deque keeps working after sorting")
+        @Test
+        void theDequeKeepsWorkingAfterSorting() {
+            UnrolledDoubleEndedQueue<Integer> deque = createQueueOf(5, 4, 3, 2, 1, 0);
+
+            deque.sort(Integer::compareTo);
+            deque.prepend(-1);
+            deque.append(6);
+            deque.remove(3);
+
+            assertContent(deque, -1, 0, 1, 2, 4, 5, 6);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class runs the behavioral suite of {@link DoublyLinkedListDequeTest} against the
+ * weight-balanced tree deque and adds the cases of the positional operations:
+ *<h3>Positional operations</h3>
+ * - inserting at a position shifts the following elements towards the end
+ * - removing at a position returns the element and shifts the following ones towards the front
+ * - inserting or removing at an invalid position throws an exception
+ * - many insertions and removals at different positions keep the order of the elements
+ */
+class WeightBalancedTreeDequeTest extends DoublyLinkedListDequeTest {
+    @Override
+    <E> DoubleEndedQueue<E> createDeque() {
+        return new WeightBalancedTreeDeque<>();
+    }
+
+    @Nested
+    @DisplayName("On positional operations of a tree deque")
+    class PositionalOperationsTest {
+        WeightBalancedTreeDeque<Integer> deque;
+
+        @BeforeEach
+        void setUp() {
+            deque = new WeightBalancedTreeDeque<>();
+            deque.appendAll(Arrays.asList(0, 1, 2, 3));
+        }
+
+        @DisplayName("inserting at a position shifts the following elements towards the end")
+        @Test
+        void insertingAtAPositionShiftsTheFollowingElements() {
+            deque.insertAt(2, 10);
+            deque.insertAt(0, 11);
+            deque.insertAt(6, 12);
+
+            assertIterableEquals(Arrays.asList(11, 0, 1, 10, 2, 3, 12), deque);
+            assertEquals(10, deque.get(3));
+            assertEquals(11, deque.first());
+            assertEquals(12, deque.last());
+        }
+
+        @DisplayName("removing at a position returns the element and shifts the following ones towards the front")
+        @Test
+        void removingAtAPositionReturnsTheElement() {
+            assertEquals(2, deque.removeAt(2));
+            assertEquals(0, deque.removeAt(0));
+            assertEquals(3, deque.removeAt(1));
+
+            assertIterableEquals(List.of(1), deque);
+            assertEquals(1, deque.removeAt(0));
+            assertEquals(0, deque.size());
+        }
+
+        @DisplayName("inserting or removing at an invalid position throws an exception")
+        @Test
+        void invalidPositionsThrowAnException() {
+            assertThrows(IndexOutOfBoundsException.class, () -> deque.insertAt(-1, 5));
+            assertThrows(IndexOutOfBoundsException.class, () -> deque.insertAt(5, 5));
+            assertThrows(IndexOutOfBoundsException.class, () -> deque.removeAt(-1));
+            assertThrows(IndexOutOfBoundsException.class, () -> deque.removeAt(4));
+            assertEquals(4, deque.size());
+        }
+
+        @DisplayName("many insertions and removals at different positions keep the order of the elements")
+        @Test
+        void manyPositionalOperationsKeepTheOrder() {
+            List<Integer> expected = new ArrayList<>(Arrays.asList(0, 1, 2, 3));
+            for (int i = 0; i < 2000; i++) {
+                int index = (i * 7919) % (expected.size() + 1);
+                deque.insertAt(index, i);
+                expected.add(index, i);
+                if (i % 3 == 0) {
+                    int removed = (i * 104729) % expected.size();
+                    assertEquals(expected.remove(removed), deque.removeAt(removed));
+                }
+            }
+
+            assertEquals(expected.size(), deque.size());
+            assertIterableEquals(expected, deque);
+            for (int i = 0; i < expected.size(); i += 97) {
+                assertEquals(expected.get(i), deque.get(i));
+            }
+        }
+    }
+}
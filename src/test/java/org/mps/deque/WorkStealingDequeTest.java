@@ -0,0 +1,234 @@
+package org.mps.deque;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The class tests the work-stealing deque, which only supports the owner and thief operations
+ * and so does not run the behavioral suite of {@link DoublyLinkedListDequeTest}:
+ *<h3>Owner and thief operations</h3>
+ * - an empty deque has size zero and throws an exception on deletions and accessors
+ * - the owner deletes the elements as a stack and thieves in insertion order
+ * - null elements are stored and returned
+ * - the array grows keeping the elements in order
+ * - the elements are accessed by index from the front and iterated in both directions
+ * - draining pops the elements from the front
+ * - the operations that don't fit the algorithm throw an exception
+ * - an invalid initial capacity is rejected
+ *<h3>Concurrent stealing</h3>
+ * - every element pushed by the owner is taken exactly once by the owner or a thief
+ * - thieves take the elements of a single push in insertion order
+ */
+class WorkStealingDequeTest {
+    private static final int THIEVES = 4;
+    private static final int TASKS = 200_000;
+
+    @Nested
+    @DisplayName("On the owner and thief operations")
+    class OwnerAndThiefTest {
+        private WorkStealingDeque<Integer> deque;
+
+        @BeforeEach
+        void setup() {
+            deque = new WorkStealingDeque<>(2);
+        }
+
+        @DisplayName("an empty deque has size zero and throws an exception on deletions and accessors")
+        @Test
+        void emptyDequeThrowsAnException() {
+            assertEquals(0, deque.size());
+            assertThrows(DoubleEndedQueueException.class, deque::first);
+            assertThrows(DoubleEndedQueueException.class, deque::last);
+            assertThrows(DoubleEndedQueueException.class, deque::deleteFirst);
+            assertThrows(DoubleEndedQueueException.class, deque::deleteLast);
+            assertNull(deque.pollFirst());
+            assertNull(deque.pollLast());
+            assertNull(deque.peekFirst());
+            assertNull(deque.peekLast());
+            assertEquals(0, deque.size());
+        }
+
+        @DisplayName("the owner deletes the elements as a stack and thieves in insertion order")
+        @Test
+        void ownerIsLifoAndThievesAreFifo() {
+            for (int i = 0; i < 5; i++)
+                deque.prepend(i);
+
+            assertEquals(4, deque.first());
+            assertEquals(0, deque.last());
+            assertEquals(4, deque.pollFirst());
+            assertEquals(0, deque.pollLast());
+            deque.deleteFirst();
+            deque.deleteLast();
+            assertEquals(1, deque.size());
+            assertEquals(2, deque.first());
+            assertEquals(2, deque.last());
+            assertEquals(2, deque.pollLast());
+            assertEquals(0, deque.size());
+        }
+
+        @DisplayName("null elements are stored and returned")
+        @Test
+        void nullElementsAreStored() {
+            deque.prepend(null);
+            deque.prepend(1);
+
+            assertTrue(deque.contains(null));
+            assertNull(deque.last());
+            assertNull(deque.pollLast());
+            assertEquals(1, deque.size());
+            assertFalse(deque.contains(null));
+        }
+
+        @DisplayName("the array grows keeping the elements in order")
+        @Test
+        void arrayGrowsKeepingTheOrder() {
+            for (int i = 0; i < 3; i++)
+                deque.prepend(i);
+            deque.deleteLast();
+            for (int i = 3; i < 100; i++)
+                deque.prepend(i);
+
+            assertEquals(99, deque.size());
+            for (int i = 1; i < 50; i++)
+                assertEquals(i, deque.pollLast());
+            for (int i = 99; i >= 50; i--)
+                assertEquals(i, deque.pollFirst());
+            assertEquals(0, deque.size());
+        }
+
+        @DisplayName("the elements are accessed by index from the front and iterated in both directions")
+        @Test
+        void elementsAreAccessedAndIterated() {
+            for (int i = 0; i < 4; i++)
+                deque.prepend(i);
+
+            assertEquals(3, deque.get(0));
+            assertEquals(0, deque.get(3));
+            assertThrows(IndexOutOfBoundsException.class, () -> deque.get(4));
+            assertThrows(IndexOutOfBoundsException.class, () -> deque.get(-1));
+            assertTrue(deque.contains(2));
+            assertFalse(deque.contains(4));
+            assertIterableEquals(Arrays.asList(3, 2, 1, 0), deque);
+            List<Integer> descending = new ArrayList<>();
+            deque.descendingIterator().forEachRemaining(descending::add);
+            assertEquals(Arrays.asList(0, 1, 2, 3), descending);
+            assertEquals(6, deque.stream().mapToInt(Integer::intValue).sum());
+        }
+
+        @DisplayName("draining pops the elements from the front")
+        @Test
+        void drainingPopsFromTheFront() {
+            deque.prependAll(Arrays.asList(1, 2, 3));
+            List<Integer> drained = new ArrayList<>();
+
+            assertEquals(2, deque.drainFirst(2, drained::add));
+            assertEquals(1, deque.drainFirst(5, drained::add));
+
+            assertEquals(Arrays.asList(1, 2, 3), drained);
+            assertEquals(0, deque.size());
+        }
+
+        @DisplayName("the operations that don't fit the algorithm throw an exception")
+        @Test
+        void unsupportedOperationsThrowAnException() {
+            deque.prepend(1);
+
+            assertThrows(UnsupportedOperationException.class, () -> deque.append(2));
+            assertThrows(UnsupportedOperationException.class, () -> deque.appendAll(List.of(2)));
+            assertThrows(UnsupportedOperationException.class, () -> deque.remove(1));
+            assertThrows(UnsupportedOperationException.class, () -> deque.sort(Integer::compare));
+            assertThrows(UnsupportedOperationException.class, () -> deque.removeIf(item -> true));
+            assertThrows(UnsupportedOperationException.class, () -> deque.removeAll(List.of(1)));
+            assertEquals(1, deque.size());
+        }
+
+        @DisplayName("an invalid initial capacity is rejected")
+        @Test
+        void invalidCapacityIsRejected() {
+            assertThrows(IllegalArgumentException.class, () -> new WorkStealingDeque<Integer>(0));
+            assertThrows(IllegalArgumentException.class, () -> new WorkStealingDeque<Integer>(Integer.MAX_VALUE));
+        }
+    }
+
+    @Nested
+    @DisplayName("On concurrent stealing")
+    class ConcurrentStealingTest {
+        private WorkStealingDeque<Integer> deque;
+
+        @BeforeEach
+        void setup() {
+            deque = new WorkStealingDeque<>(2);
+        }
+
+        @DisplayName("every element pushed by the owner is taken exactly once by the owner or a thief")
+        @Test
+        void everyElementIsTakenOnce() throws InterruptedException {
+            AtomicBoolean done = new AtomicBoolean();
+            List<List<Integer>> taken = new ArrayList<>();
+            for (int t = 0; t <= THIEVES; t++)
+                taken.add(new ArrayList<>());
+
+            ConcurrentDoublyLinkedDequeTest.runConcurrently(THIEVES + 1, thread -> {
+                List<Integer> mine = taken.get(thread);
+                if (thread == 0) {
+                    for (int i = 0; i < TASKS; i++) {
+                        deque.prepend(i);
+                        if (i % 3 == 0) {
+                            Integer item = deque.pollFirst();
+                            if (item != null)
+                                mine.add(item);
+                        }
+                    }
+                    Integer item;
+                    while ((item = deque.pollFirst()) != null)
+                        mine.add(item);
+                    done.set(true);
+                } else {
+                    while (!done.get() || deque.size() > 0) {
+                        Integer item = deque.pollLast();
+                        if (item != null)
+                            mine.add(item);
+                    }
+                }
+            });
+
+            BitSet seen = new BitSet();
+            for (List<Integer> items : taken) {
+                for (int item : items) {
+                    assertFalse(seen.get(item), "Taken twice: " + item);
+                    seen.set(item);
+                }
+            }
+            assertEquals(TASKS, seen.cardinality());
+            assertEquals(0, deque.size());
+        }
+
+        @DisplayName("thieves take the elements of a single push in insertion order")
+        @Test
+        void thievesTakeInInsertionOrder() throws InterruptedException {
+            ConcurrentDoublyLinkedDequeTest.runConcurrently(THIEVES + 1, thread -> {
+                if (thread == 0) {
+                    for (int i = 0; i < TASKS; i++)
+                        deque.prepend(i);
+                } else {
+                    int previous = -1;
+                    for (int i = 0; i < TASKS / THIEVES / 2; i++) {
+                        Integer item = deque.pollLast();
+                        if (item != null) {
+                            assertTrue(item > previous, "Stolen out of order");
+                            previous = item;
+                        }
+                    }
+                }
+            });
+        }
+    }
+}